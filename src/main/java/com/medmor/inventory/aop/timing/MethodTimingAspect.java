@@ -0,0 +1,151 @@
+package com.medmor.inventory.aop.timing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Aspect recording the duration of the repository, service and Web REST methods in the {@code method.execution} timer,
+ * tagged with the class, the method and the outcome: {@code success}, {@code error} or {@code cancelled}.
+ * <p>
+ * For the methods returning a {@link Mono} or a {@link Flux}, the time is measured from the subscription to the termination
+ * of the publisher, instead of the assembly of the pipeline that the method call itself returns.
+ * <p>
+ * Only a sample of the calls is timed, see {@code application.method-timing.sample-rate}.
+ */
+@Aspect
+public class MethodTimingAspect {
+
+    public static final String METRIC_NAME = "method.execution";
+
+    private final MeterRegistry meterRegistry;
+
+    private final double sampleRate;
+
+    private final boolean histogram;
+
+    private final Map<Method, MethodTimers> timers = new ConcurrentHashMap<>();
+
+    public MethodTimingAspect(MeterRegistry meterRegistry, double sampleRate, boolean histogram) {
+        this.meterRegistry = meterRegistry;
+        this.sampleRate = sampleRate;
+        this.histogram = histogram;
+    }
+
+    /**
+     * Pointcut that matches all repositories, services and Web REST endpoints.
+     */
+    @Pointcut(
+        "within(@org.springframework.stereotype.Repository *)" +
+        " || within(@org.springframework.stereotype.Service *)" +
+        " || within(@org.springframework.web.bind.annotation.RestController *)"
+    )
+    public void springBeanPointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
+    /**
+     * Pointcut that matches all Spring beans in the application's main packages.
+     */
+    @Pointcut(
+        "within(com.medmor.inventory.repository..*)" +
+        " || within(com.medmor.inventory.service..*)" +
+        " || within(com.medmor.inventory.web.rest..*)"
+    )
+    public void applicationPackagePointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
+    /**
+     * Advice that times the sampled method calls.
+     *
+     * @param joinPoint join point for advice.
+     * @return result, wrapped to be timed on subscription if it is a {@link Mono} or a {@link Flux}.
+     * @throws Throwable the exception of the method.
+     */
+    @Around("applicationPackagePointcut() && springBeanPointcut()")
+    public Object timeAround(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return joinPoint.proceed();
+        }
+        MethodTimers methodTimers = timers.computeIfAbsent(((MethodSignature) joinPoint.getSignature()).getMethod(), this::createTimers);
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            record(methodTimers.error, start);
+            throw e;
+        }
+        if (result instanceof Mono) {
+            return Mono.defer(
+                () -> {
+                    long subscribed = System.nanoTime();
+                    return ((Mono<?>) result)
+                        .doOnSuccess(value -> record(methodTimers.success, subscribed))
+                        .doOnError(e -> record(methodTimers.error, subscribed))
+                        .doOnCancel(() -> record(methodTimers.cancelled, subscribed));
+                }
+            );
+        }
+        if (result instanceof Flux) {
+            return Flux.defer(
+                () -> {
+                    long subscribed = System.nanoTime();
+                    return ((Flux<?>) result)
+                        .doOnComplete(() -> record(methodTimers.success, subscribed))
+                        .doOnError(e -> record(methodTimers.error, subscribed))
+                        .doOnCancel(() -> record(methodTimers.cancelled, subscribed));
+                }
+            );
+        }
+        record(methodTimers.success, start);
+        return result;
+    }
+
+    /**
+     * Records the time elapsed since the start, before the terminal signal is propagated downstream.
+     */
+    private static void record(Timer timer, long start) {
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private MethodTimers createTimers(Method method) {
+        return new MethodTimers(timer(method, "success"), timer(method, "error"), timer(method, "cancelled"));
+    }
+
+    private Timer timer(Method method, String outcome) {
+        return Timer
+            .builder(METRIC_NAME)
+            .description("Execution time of the application methods, until the termination of their publisher if reactive")
+            .tag("class", method.getDeclaringClass().getSimpleName())
+            .tag("method", method.getName())
+            .tag("outcome", outcome)
+            .publishPercentileHistogram(histogram)
+            .register(meterRegistry);
+    }
+
+    private static final class MethodTimers {
+
+        private final Timer success;
+        private final Timer error;
+        private final Timer cancelled;
+
+        private MethodTimers(Timer success, Timer error, Timer cancelled) {
+            this.success = success;
+            this.error = error;
+            this.cancelled = cancelled;
+        }
+    }
+}
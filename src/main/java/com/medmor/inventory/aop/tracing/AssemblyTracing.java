@@ -0,0 +1,53 @@
+package com.medmor.inventory.aop.tracing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Hooks;
+
+/**
+ * Current assembly tracing mode of the Reactor pipelines, which tells where an error signal was assembled.
+ * <ul>
+ *     <li>{@link Mode#OFF}: no tracing, the default.</li>
+ *     <li>{@link Mode#CHECKPOINT}: the publishers of the repositories and REST resources are marked with a named checkpoint,
+ *     which only costs an operator per call, see {@link CheckpointAspect}.</li>
+ *     <li>{@link Mode#FULL}: checkpoints, plus {@link Hooks#onOperatorDebug()}, which captures a stack trace at the assembly
+ *     of every operator. It slows the application down several times, so it is meant to be switched on briefly.</li>
+ * </ul>
+ * The mode can be changed at runtime, see {@link AssemblyTracingEndpoint}; it applies to the pipelines assembled afterwards.
+ */
+public class AssemblyTracing {
+
+    private final Logger log = LoggerFactory.getLogger(AssemblyTracing.class);
+
+    public enum Mode {
+        OFF,
+        CHECKPOINT,
+        FULL,
+    }
+
+    private volatile Mode mode = Mode.OFF;
+
+    public AssemblyTracing(Mode mode) {
+        setMode(mode);
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public boolean isEnabled() {
+        return mode != Mode.OFF;
+    }
+
+    public synchronized void setMode(Mode mode) {
+        if (mode == Mode.FULL && this.mode != Mode.FULL) {
+            Hooks.onOperatorDebug();
+        } else if (mode != Mode.FULL && this.mode == Mode.FULL) {
+            Hooks.resetOnOperatorDebug();
+        }
+        if (mode != this.mode) {
+            log.info("Reactor assembly tracing mode set to {}", mode);
+        }
+        this.mode = mode;
+    }
+}
@@ -0,0 +1,30 @@
+package com.medmor.inventory.aop.tracing;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+/**
+ * Management endpoint reading and changing the {@link AssemblyTracing} mode:
+ * {@code POST /management/assemblytracing} with a body such as {@code {"mode": "CHECKPOINT"}}.
+ */
+@Endpoint(id = "assemblytracing")
+public class AssemblyTracingEndpoint {
+
+    private final AssemblyTracing assemblyTracing;
+
+    public AssemblyTracingEndpoint(AssemblyTracing assemblyTracing) {
+        this.assemblyTracing = assemblyTracing;
+    }
+
+    @ReadOperation
+    public AssemblyTracing.Mode mode() {
+        return assemblyTracing.getMode();
+    }
+
+    @WriteOperation
+    public AssemblyTracing.Mode setMode(AssemblyTracing.Mode mode) {
+        assemblyTracing.setMode(mode);
+        return assemblyTracing.getMode();
+    }
+}
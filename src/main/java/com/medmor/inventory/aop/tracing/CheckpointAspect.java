@@ -0,0 +1,70 @@
+package com.medmor.inventory.aop.tracing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Aspect marking the publishers returned by the repositories and Web REST endpoints with a checkpoint named after the
+ * method, such as {@code ProductResource.getProduct}, when the {@link AssemblyTracing} is enabled.
+ * <p>
+ * The checkpoints are light: they don't capture a stack trace, but the description of the checkpoints an error went
+ * through is added to it as a suppressed exception.
+ */
+@Aspect
+public class CheckpointAspect {
+
+    private final AssemblyTracing assemblyTracing;
+
+    public CheckpointAspect(AssemblyTracing assemblyTracing) {
+        this.assemblyTracing = assemblyTracing;
+    }
+
+    /**
+     * Pointcut that matches all repositories and Web REST endpoints.
+     */
+    @Pointcut(
+        "within(@org.springframework.stereotype.Repository *)" +
+        " || within(@org.springframework.web.bind.annotation.RestController *)"
+    )
+    public void springBeanPointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
+    /**
+     * Pointcut that matches all Spring beans in the application's repository and Web REST packages.
+     */
+    @Pointcut("within(com.medmor.inventory.repository..*) || within(com.medmor.inventory.web.rest..*)")
+    public void applicationPackagePointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
+    /**
+     * Advice that adds a checkpoint to the returned publisher.
+     *
+     * @param joinPoint join point for advice.
+     * @return result, with a checkpoint if it is a {@link Mono} or a {@link Flux} and the tracing is enabled.
+     * @throws Throwable the exception of the method.
+     */
+    @Around("applicationPackagePointcut() && springBeanPointcut()")
+    public Object checkpointAround(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object result = joinPoint.proceed();
+        if (!assemblyTracing.isEnabled()) {
+            return result;
+        }
+        if (result instanceof Mono) {
+            return ((Mono<?>) result).checkpoint(description(joinPoint));
+        }
+        if (result instanceof Flux) {
+            return ((Flux<?>) result).checkpoint(description(joinPoint));
+        }
+        return result;
+    }
+
+    private static String description(ProceedingJoinPoint joinPoint) {
+        return joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName();
+    }
+}
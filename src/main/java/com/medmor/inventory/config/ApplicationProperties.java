@@ -1,5 +1,8 @@
 package com.medmor.inventory.config;
 
+import com.medmor.inventory.aop.tracing.AssemblyTracing.Mode;
+import java.util.ArrayList;
+import java.util.List;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -9,4 +12,343 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  * See {@link tech.jhipster.config.JHipsterProperties} for a good example.
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
-public class ApplicationProperties {}
+public class ApplicationProperties {
+
+    private final TotalCount totalCount = new TotalCount();
+
+    private final Ingestion ingestion = new Ingestion();
+
+    private final StatementCache statementCache = new StatementCache();
+
+    private final AuthenticationCache authenticationCache = new AuthenticationCache();
+
+    private final CredentialsHashing credentialsHashing = new CredentialsHashing();
+
+    private final MethodTiming methodTiming = new MethodTiming();
+
+    private final AssemblyTracing assemblyTracing = new AssemblyTracing();
+
+    private final PoolWarmUp poolWarmUp = new PoolWarmUp();
+
+    private final ReadReplicas readReplicas = new ReadReplicas();
+
+    private final Reports reports = new Reports();
+
+    private final Occupancy occupancy = new Occupancy();
+
+    private final EntityCache entityCache = new EntityCache();
+
+    public TotalCount getTotalCount() {
+        return totalCount;
+    }
+
+    public Ingestion getIngestion() {
+        return ingestion;
+    }
+
+    public StatementCache getStatementCache() {
+        return statementCache;
+    }
+
+    public AuthenticationCache getAuthenticationCache() {
+        return authenticationCache;
+    }
+
+    public CredentialsHashing getCredentialsHashing() {
+        return credentialsHashing;
+    }
+
+    public MethodTiming getMethodTiming() {
+        return methodTiming;
+    }
+
+    public AssemblyTracing getAssemblyTracing() {
+        return assemblyTracing;
+    }
+
+    public PoolWarmUp getPoolWarmUp() {
+        return poolWarmUp;
+    }
+
+    public ReadReplicas getReadReplicas() {
+        return readReplicas;
+    }
+
+    public Reports getReports() {
+        return reports;
+    }
+
+    public Occupancy getOccupancy() {
+        return occupancy;
+    }
+
+    public EntityCache getEntityCache() {
+        return entityCache;
+    }
+
+    public static class TotalCount {
+
+        private long timeToLiveInSeconds = 60;
+
+        private long estimateThreshold = 100_000;
+
+        public long getTimeToLiveInSeconds() {
+            return timeToLiveInSeconds;
+        }
+
+        public void setTimeToLiveInSeconds(long timeToLiveInSeconds) {
+            this.timeToLiveInSeconds = timeToLiveInSeconds;
+        }
+
+        public long getEstimateThreshold() {
+            return estimateThreshold;
+        }
+
+        public void setEstimateThreshold(long estimateThreshold) {
+            this.estimateThreshold = estimateThreshold;
+        }
+    }
+
+    public static class Ingestion {
+
+        private int batchSize = 500;
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+    }
+
+    public static class StatementCache {
+
+        private long maxEntries = 1000;
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+    }
+
+    public static class AuthenticationCache {
+
+        private long maxEntries = 10_000;
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+    }
+
+    public static class CredentialsHashing {
+
+        private int threads = 0;
+
+        private int queueCapacity = 1000;
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+
+    public static class MethodTiming {
+
+        private boolean enabled = false;
+
+        private double sampleRate = 1.0;
+
+        private boolean histogram = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        public boolean isHistogram() {
+            return histogram;
+        }
+
+        public void setHistogram(boolean histogram) {
+            this.histogram = histogram;
+        }
+    }
+
+    public static class AssemblyTracing {
+
+        private Mode mode = Mode.OFF;
+
+        public Mode getMode() {
+            return mode;
+        }
+
+        public void setMode(Mode mode) {
+            this.mode = mode;
+        }
+    }
+
+    public static class PoolWarmUp {
+
+        private boolean enabled = true;
+
+        private long timeoutInSeconds = 30;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getTimeoutInSeconds() {
+            return timeoutInSeconds;
+        }
+
+        public void setTimeoutInSeconds(long timeoutInSeconds) {
+            this.timeoutInSeconds = timeoutInSeconds;
+        }
+    }
+
+    public static class ReadReplicas {
+
+        private boolean enabled = false;
+
+        private List<String> urls = new ArrayList<>();
+
+        private String username;
+
+        private String password;
+
+        private long retryDelayInSeconds = 30;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public List<String> getUrls() {
+            return urls;
+        }
+
+        public void setUrls(List<String> urls) {
+            this.urls = urls;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public long getRetryDelayInSeconds() {
+            return retryDelayInSeconds;
+        }
+
+        public void setRetryDelayInSeconds(long retryDelayInSeconds) {
+            this.retryDelayInSeconds = retryDelayInSeconds;
+        }
+    }
+
+    public static class Reports {
+
+        private boolean cacheEnabled = true;
+
+        private long timeToLiveInSeconds = 60;
+
+        public boolean isCacheEnabled() {
+            return cacheEnabled;
+        }
+
+        public void setCacheEnabled(boolean cacheEnabled) {
+            this.cacheEnabled = cacheEnabled;
+        }
+
+        public long getTimeToLiveInSeconds() {
+            return timeToLiveInSeconds;
+        }
+
+        public void setTimeToLiveInSeconds(long timeToLiveInSeconds) {
+            this.timeToLiveInSeconds = timeToLiveInSeconds;
+        }
+    }
+
+    public static class Occupancy {
+
+        private boolean rejectOverCapacity = false;
+
+        private long timeToLiveInSeconds = 300;
+
+        public boolean isRejectOverCapacity() {
+            return rejectOverCapacity;
+        }
+
+        public void setRejectOverCapacity(boolean rejectOverCapacity) {
+            this.rejectOverCapacity = rejectOverCapacity;
+        }
+
+        public long getTimeToLiveInSeconds() {
+            return timeToLiveInSeconds;
+        }
+
+        public void setTimeToLiveInSeconds(long timeToLiveInSeconds) {
+            this.timeToLiveInSeconds = timeToLiveInSeconds;
+        }
+    }
+
+    public static class EntityCache {
+
+        private long timeToLiveInSeconds = 60;
+
+        public long getTimeToLiveInSeconds() {
+            return timeToLiveInSeconds;
+        }
+
+        public void setTimeToLiveInSeconds(long timeToLiveInSeconds) {
+            this.timeToLiveInSeconds = timeToLiveInSeconds;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.medmor.inventory.config;
+
+import com.medmor.inventory.domain.Product;
+import com.medmor.inventory.domain.Section;
+import com.medmor.inventory.repository.routing.PrimaryReads;
+import com.medmor.inventory.service.EntityCache;
+import com.medmor.inventory.service.StatementCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tech.jhipster.config.JHipsterProperties;
+
+@Configuration
+public class CacheConfiguration {
+
+    private final Duration timeToLive;
+
+    private final long maxEntries;
+
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        // shorter than the JHipster caches, as the entities may be written by other instances
+        this.timeToLive = Duration.ofSeconds(applicationProperties.getEntityCache().getTimeToLiveInSeconds());
+        this.maxEntries = jHipsterProperties.getCache().getCaffeine().getMaxEntries();
+    }
+
+    @Bean
+    public EntityCache<Product> productCache(MeterRegistry meterRegistry, PrimaryReads primaryReads) {
+        return new EntityCache<>(Product.class.getName(), timeToLive, maxEntries, meterRegistry, primaryReads);
+    }
+
+    @Bean
+    public EntityCache<Section> sectionCache(MeterRegistry meterRegistry, PrimaryReads primaryReads) {
+        return new EntityCache<>(Section.class.getName(), timeToLive, maxEntries, meterRegistry, primaryReads);
+    }
+
+    @Bean
+    public StatementCache statementCache(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        return new StatementCache("statements", applicationProperties.getStatementCache().getMaxEntries(), meterRegistry);
+    }
+}
@@ -0,0 +1,60 @@
+package com.medmor.inventory.config;
+
+import com.medmor.inventory.repository.routing.ReplicaRoutingConnectionFactory;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.ConnectionFactory;
+import java.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Opens the initial connections of the R2DBC connection pools once the application has started, so that the first
+ * requests don't pay for the connection handshakes.
+ * <p>
+ * The warm-up runs before the readiness state changes to accepting traffic. It is bounded by a timeout, and its failure
+ * doesn't prevent the application from starting: the pool then opens the connections on demand.
+ */
+@Component
+public class ConnectionPoolWarmUp {
+
+    private final Logger log = LoggerFactory.getLogger(ConnectionPoolWarmUp.class);
+
+    private final ObjectProvider<ConnectionFactory> connectionFactories;
+    private final ApplicationProperties applicationProperties;
+
+    public ConnectionPoolWarmUp(ObjectProvider<ConnectionFactory> connectionFactories, ApplicationProperties applicationProperties) {
+        this.connectionFactories = connectionFactories;
+        this.applicationProperties = applicationProperties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        ApplicationProperties.PoolWarmUp poolWarmUp = applicationProperties.getPoolWarmUp();
+        if (!poolWarmUp.isEnabled()) {
+            return;
+        }
+        Duration timeout = Duration.ofSeconds(poolWarmUp.getTimeoutInSeconds());
+        connectionFactories.orderedStream().forEach(connectionFactory -> warmUp(connectionFactory, timeout));
+    }
+
+    private void warmUp(ConnectionFactory connectionFactory, Duration timeout) {
+        if (connectionFactory instanceof ConnectionPool) {
+            warmUp((ConnectionPool) connectionFactory, timeout);
+        } else if (connectionFactory instanceof ReplicaRoutingConnectionFactory) {
+            ((ReplicaRoutingConnectionFactory) connectionFactory).getConnectionFactories().forEach(target -> warmUp(target, timeout));
+        }
+    }
+
+    void warmUp(ConnectionPool pool, Duration timeout) {
+        try {
+            Integer created = pool.warmup().block(timeout);
+            log.info("Warmed up the connection pool with {} connections", created);
+        } catch (RuntimeException e) {
+            log.warn("Could not warm up the connection pool: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.medmor.inventory.config;
+
+import com.medmor.inventory.aop.timing.MethodTimingAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+
+@Configuration
+@EnableAspectJAutoProxy
+@ConditionalOnProperty(prefix = "application.method-timing", name = "enabled", havingValue = "true")
+public class MethodTimingConfiguration {
+
+    @Bean
+    public MethodTimingAspect methodTimingAspect(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.MethodTiming methodTiming = applicationProperties.getMethodTiming();
+        return new MethodTimingAspect(meterRegistry, methodTiming.getSampleRate(), methodTiming.isHistogram());
+    }
+}
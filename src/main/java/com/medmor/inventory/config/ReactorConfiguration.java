@@ -1,15 +1,31 @@
 package com.medmor.inventory.config;
 
+import com.medmor.inventory.aop.tracing.AssemblyTracing;
+import com.medmor.inventory.aop.tracing.AssemblyTracingEndpoint;
+import com.medmor.inventory.aop.tracing.CheckpointAspect;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
 import org.springframework.context.annotation.Profile;
-import reactor.core.publisher.Hooks;
 import tech.jhipster.config.JHipsterConstants;
 
 @Configuration
+@EnableAspectJAutoProxy
 @Profile("!" + JHipsterConstants.SPRING_PROFILE_PRODUCTION)
 public class ReactorConfiguration {
 
-    public ReactorConfiguration() {
-        Hooks.onOperatorDebug();
+    @Bean
+    public AssemblyTracing assemblyTracing(ApplicationProperties applicationProperties) {
+        return new AssemblyTracing(applicationProperties.getAssemblyTracing().getMode());
+    }
+
+    @Bean
+    public CheckpointAspect checkpointAspect(AssemblyTracing assemblyTracing) {
+        return new CheckpointAspect(assemblyTracing);
+    }
+
+    @Bean
+    public AssemblyTracingEndpoint assemblyTracingEndpoint(AssemblyTracing assemblyTracing) {
+        return new AssemblyTracingEndpoint(assemblyTracing);
     }
 }
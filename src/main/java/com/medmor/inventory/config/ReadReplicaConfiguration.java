@@ -0,0 +1,87 @@
+package com.medmor.inventory.config;
+
+import com.medmor.inventory.repository.routing.ReadOnlyRoutingTransactionManager;
+import com.medmor.inventory.repository.routing.ReplicaRoutingConnectionFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.metrics.r2dbc.ConnectionPoolMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.boot.autoconfigure.r2dbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.PropertyMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+/**
+ * Replaces the connection pool of Spring Boot with a {@link ReplicaRoutingConnectionFactory}, which opens the connections
+ * of the read-only transactions on the read replicas. The primary database and each replica get their own pool, configured
+ * by the {@code spring.r2dbc.pool} properties, and their own {@code r2dbc.pool} gauges.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.read-replicas", name = "enabled", havingValue = "true")
+public class ReadReplicaConfiguration {
+
+    @Bean(destroyMethod = "dispose")
+    public ReplicaRoutingConnectionFactory connectionFactory(
+        R2dbcProperties properties,
+        ApplicationProperties applicationProperties,
+        ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        ApplicationProperties.ReadReplicas readReplicas = applicationProperties.getReadReplicas();
+        ConnectionPool primary = createPool(
+            ConnectionFactoryBuilder.of(properties, () -> EmbeddedDatabaseConnection.NONE).build(),
+            properties.getPool()
+        );
+        meterRegistry.ifAvailable(registry -> new ConnectionPoolMetrics(primary, "connectionFactory", Tags.empty()).bindTo(registry));
+        // the credentials of the replicas go together, the ones of the primary database are used when they are not set
+        boolean replicaCredentials = StringUtils.hasText(readReplicas.getUsername());
+        String username = replicaCredentials ? readReplicas.getUsername() : properties.getUsername();
+        String password = replicaCredentials ? readReplicas.getPassword() : properties.getPassword();
+        List<ConnectionPool> replicas = new ArrayList<>();
+        for (String url : readReplicas.getUrls()) {
+            ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+            if (StringUtils.hasText(username)) {
+                options.option(ConnectionFactoryOptions.USER, username);
+            }
+            if (StringUtils.hasText(password)) {
+                options.option(ConnectionFactoryOptions.PASSWORD, password);
+            }
+            ConnectionPool replica = createPool(ConnectionFactories.get(options.build()), properties.getPool());
+            String name = "replica" + (replicas.size() + 1);
+            meterRegistry.ifAvailable(registry -> new ConnectionPoolMetrics(replica, name, Tags.empty()).bindTo(registry));
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingConnectionFactory(primary, replicas, Duration.ofSeconds(readReplicas.getRetryDelayInSeconds()));
+    }
+
+    @Bean
+    public ReadOnlyRoutingTransactionManager connectionFactoryTransactionManager(ConnectionFactory connectionFactory) {
+        return new ReadOnlyRoutingTransactionManager(connectionFactory);
+    }
+
+    private static ConnectionPool createPool(ConnectionFactory connectionFactory, R2dbcProperties.Pool pool) {
+        // same mapping as the pool auto-configured by Spring Boot
+        ConnectionPoolConfiguration.Builder builder = ConnectionPoolConfiguration.builder(connectionFactory);
+        PropertyMapper map = PropertyMapper.get().alwaysApplyingWhenNonNull();
+        map.from(pool.getMaxIdleTime()).to(builder::maxIdleTime);
+        map.from(pool.getMaxLifeTime()).to(builder::maxLifeTime);
+        map.from(pool.getMaxAcquireTime()).to(builder::maxAcquireTime);
+        map.from(pool.getMaxCreateConnectionTime()).to(builder::maxCreateConnectionTime);
+        map.from(pool.getInitialSize()).to(builder::initialSize);
+        map.from(pool.getMaxSize()).to(builder::maxSize);
+        map.from(pool.getValidationQuery()).whenHasText().to(builder::validationQuery);
+        map.from(pool.getValidationDepth()).to(builder::validationDepth);
+        return new ConnectionPool(builder.build());
+    }
+}
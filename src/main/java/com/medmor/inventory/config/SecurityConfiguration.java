@@ -3,9 +3,12 @@ package com.medmor.inventory.config;
 import static org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers.pathMatchers;
 
 import com.medmor.inventory.security.AuthoritiesConstants;
+import com.medmor.inventory.security.CredentialsScheduler;
+import com.medmor.inventory.security.MeteredPasswordEncoder;
 import com.medmor.inventory.security.jwt.JWTFilter;
 import com.medmor.inventory.security.jwt.TokenProvider;
 import com.medmor.inventory.web.filter.SpaWebFilter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpMethod;
@@ -38,21 +41,29 @@ public class SecurityConfiguration {
 
     private final SecurityProblemSupport problemSupport;
 
+    private final CredentialsScheduler credentialsScheduler;
+
+    private final MeterRegistry meterRegistry;
+
     public SecurityConfiguration(
         ReactiveUserDetailsService userDetailsService,
         TokenProvider tokenProvider,
         JHipsterProperties jHipsterProperties,
-        SecurityProblemSupport problemSupport
+        SecurityProblemSupport problemSupport,
+        CredentialsScheduler credentialsScheduler,
+        MeterRegistry meterRegistry
     ) {
         this.userDetailsService = userDetailsService;
         this.tokenProvider = tokenProvider;
         this.jHipsterProperties = jHipsterProperties;
         this.problemSupport = problemSupport;
+        this.credentialsScheduler = credentialsScheduler;
+        this.meterRegistry = meterRegistry;
     }
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new MeteredPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry);
     }
 
     @Bean
@@ -61,6 +72,7 @@ public class SecurityConfiguration {
             userDetailsService
         );
         authenticationManager.setPasswordEncoder(passwordEncoder());
+        authenticationManager.setScheduler(credentialsScheduler.getScheduler());
         return authenticationManager;
     }
 
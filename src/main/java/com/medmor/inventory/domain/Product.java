@@ -9,6 +9,7 @@ import java.util.Set;
 import javax.validation.constraints.*;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.Transient;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.relational.core.mapping.Column;
 import org.springframework.data.relational.core.mapping.Table;
 
@@ -52,6 +53,10 @@ public class Product implements Serializable {
     @JsonIgnoreProperties(value = { "product", "section" }, allowSetters = true)
     private Set<Registry> registries = new HashSet<>();
 
+    @Version
+    @Column("version")
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
     public Long getId() {
         return id;
@@ -175,6 +180,19 @@ public class Product implements Serializable {
         this.registries = registries;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Product version(Long version) {
+        this.version = version;
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -205,6 +223,7 @@ public class Product implements Serializable {
             ", fragile='" + getFragile() + "'" +
             ", lote='" + getLote() + "'" +
             ", containerType='" + getContainerType() + "'" +
+            ", version=" + getVersion() +
             "}";
     }
 }
@@ -5,6 +5,7 @@ import java.io.Serializable;
 import javax.validation.constraints.*;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.Transient;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.relational.core.mapping.Column;
 import org.springframework.data.relational.core.mapping.Table;
 
@@ -37,6 +38,10 @@ public class Registry implements Serializable {
     @Column("section_id")
     private Long sectionId;
 
+    @Version
+    @Column("version")
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
     public Long getId() {
         return id;
@@ -110,6 +115,19 @@ public class Registry implements Serializable {
         this.sectionId = section;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Registry version(Long version) {
+        this.version = version;
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -135,6 +153,7 @@ public class Registry implements Serializable {
         return "Registry{" +
             "id=" + getId() +
             ", amount=" + getAmount() +
+            ", version=" + getVersion() +
             "}";
     }
 }
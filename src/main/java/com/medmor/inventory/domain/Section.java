@@ -8,6 +8,7 @@ import java.util.Set;
 import javax.validation.constraints.*;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.Transient;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.relational.core.mapping.Column;
 import org.springframework.data.relational.core.mapping.Table;
 
@@ -34,6 +35,10 @@ public class Section implements Serializable {
     @JsonIgnoreProperties(value = { "product", "section" }, allowSetters = true)
     private Set<Registry> registries = new HashSet<>();
 
+    @Version
+    @Column("version")
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
     public Long getId() {
         return id;
@@ -105,6 +110,19 @@ public class Section implements Serializable {
         this.registries = registries;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Section version(Long version) {
+        this.version = version;
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -131,6 +149,7 @@ public class Section implements Serializable {
             "id=" + getId() +
             ", area=" + getArea() +
             ", productType='" + getProductType() + "'" +
+            ", version=" + getVersion() +
             "}";
     }
 }
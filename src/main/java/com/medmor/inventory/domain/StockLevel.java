@@ -0,0 +1,92 @@
+package com.medmor.inventory.domain;
+
+import java.io.Serializable;
+import java.util.Objects;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * The total {@link Registry} amount of a {@link Product} in a {@link Section}.
+ * <p>
+ * This is a projection maintained on every registry write, it is never written directly.
+ */
+@Table("stock_level")
+public class StockLevel implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Column("product_id")
+    private Long productId;
+
+    @Column("section_id")
+    private Long sectionId;
+
+    @Column("total_amount")
+    private Long totalAmount;
+
+    public Long getProductId() {
+        return this.productId;
+    }
+
+    public StockLevel productId(Long productId) {
+        this.productId = productId;
+        return this;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Long getSectionId() {
+        return this.sectionId;
+    }
+
+    public StockLevel sectionId(Long sectionId) {
+        this.sectionId = sectionId;
+        return this;
+    }
+
+    public void setSectionId(Long sectionId) {
+        this.sectionId = sectionId;
+    }
+
+    public Long getTotalAmount() {
+        return this.totalAmount;
+    }
+
+    public StockLevel totalAmount(Long totalAmount) {
+        this.totalAmount = totalAmount;
+        return this;
+    }
+
+    public void setTotalAmount(Long totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof StockLevel)) {
+            return false;
+        }
+        StockLevel that = (StockLevel) o;
+        return productId != null && productId.equals(that.productId) && sectionId != null && sectionId.equals(that.sectionId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(productId, sectionId);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "StockLevel{" +
+            "productId=" + getProductId() +
+            ", sectionId=" + getSectionId() +
+            ", totalAmount=" + getTotalAmount() +
+            "}";
+    }
+}
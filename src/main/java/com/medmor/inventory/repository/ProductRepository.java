@@ -1,10 +1,12 @@
 package com.medmor.inventory.repository;
 
 import com.medmor.inventory.domain.Product;
+import com.medmor.inventory.service.KeysetCursor;
+import com.medmor.inventory.service.criteria.ProductCriteria;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
-import org.springframework.data.relational.core.query.Criteria;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -24,17 +26,46 @@ public interface ProductRepository extends R2dbcRepository<Product, Long>, Produ
     @Override
     Mono<Product> findById(Long id);
 
+    @Query("SELECT version FROM product WHERE id = :id")
+    Mono<Long> findVersionById(Long id);
+
+    /**
+     * Inserts the given product, or updates it with a single statement, conditional on its version when it has one.
+     * @param entity the product to save.
+     * @return the saved product with its new version, empty if the updated row doesn't exist, or an
+     * {@link org.springframework.dao.OptimisticLockingFailureException} if it has another version.
+     */
     @Override
     <S extends Product> Mono<S> save(S entity);
+
+    /**
+     * Updates the non-null properties of the given product with a single statement, conditional on its version when it has one.
+     * @param entity the properties to update, with the id of the product.
+     * @return the updated product, empty if the row doesn't exist, or an
+     * {@link org.springframework.dao.OptimisticLockingFailureException} if it has another version.
+     */
+    @Override
+    Mono<Product> partialUpdate(Product entity);
+
+    @Override
+    Mono<Void> deleteById(Long id);
 }
 
 interface ProductRepositoryInternal {
     <S extends Product> Mono<S> insert(S entity);
     <S extends Product> Mono<S> save(S entity);
     Mono<Integer> update(Product entity);
+    Mono<Product> partialUpdate(Product entity);
+    Mono<Void> deleteById(Long id);
 
     Flux<Product> findAll();
     Mono<Product> findById(Long id);
     Flux<Product> findAllBy(Pageable pageable);
-    Flux<Product> findAllBy(Pageable pageable, Criteria criteria);
+    Flux<Product> findAllAfter(KeysetCursor after, Pageable pageable);
+    Flux<Product> streamAll(Sort sort);
+    Flux<Product> streamAll(ProductCriteria criteria, Sort sort);
+
+    Flux<Product> findByCriteria(ProductCriteria criteria, Pageable pageable);
+    Flux<Product> findByCriteriaAfter(ProductCriteria criteria, KeysetCursor after, Pageable pageable);
+    Mono<Long> countByCriteria(ProductCriteria criteria);
 }
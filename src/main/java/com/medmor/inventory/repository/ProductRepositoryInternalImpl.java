@@ -1,5 +1,6 @@
 package com.medmor.inventory.repository;
 
+import static com.medmor.inventory.service.StatementCache.key;
 import static org.springframework.data.relational.core.query.Criteria.where;
 import static org.springframework.data.relational.core.query.Query.query;
 
@@ -7,25 +8,31 @@ import com.medmor.inventory.domain.Product;
 import com.medmor.inventory.domain.enumeration.ContainerType;
 import com.medmor.inventory.domain.enumeration.ProductSize;
 import com.medmor.inventory.repository.rowmapper.ProductRowMapper;
+import com.medmor.inventory.service.CatalogChangeNotifier;
+import com.medmor.inventory.service.ConditionBuilder;
+import com.medmor.inventory.service.EntityCache;
 import com.medmor.inventory.service.EntityManager;
-import io.r2dbc.spi.Row;
-import io.r2dbc.spi.RowMetadata;
+import com.medmor.inventory.service.KeysetCursor;
+import com.medmor.inventory.service.StatementCache;
+import com.medmor.inventory.service.TotalCountService;
+import com.medmor.inventory.service.criteria.ProductCriteria;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Optional;
 import java.util.function.BiFunction;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
-import org.springframework.data.relational.core.query.Criteria;
 import org.springframework.data.relational.core.sql.Column;
 import org.springframework.data.relational.core.sql.Expression;
+import org.springframework.data.relational.core.sql.Expressions;
+import org.springframework.data.relational.core.sql.Functions;
 import org.springframework.data.relational.core.sql.Select;
 import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoin;
+import org.springframework.data.relational.core.sql.SelectBuilder.SelectOrdered;
 import org.springframework.data.relational.core.sql.Table;
 import org.springframework.r2dbc.core.DatabaseClient;
-import org.springframework.r2dbc.core.RowsFetchSpec;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -38,69 +45,131 @@ class ProductRepositoryInternalImpl implements ProductRepositoryInternal {
     private final DatabaseClient db;
     private final R2dbcEntityTemplate r2dbcEntityTemplate;
     private final EntityManager entityManager;
+    private final TotalCountService totalCountService;
+    private final EntityCache<Product> productCache;
+    private final CatalogChangeNotifier catalogChangeNotifier;
+    private final StatementCache statementCache;
 
     private final ProductRowMapper productMapper;
 
     private static final Table entityTable = Table.aliased("product", EntityManager.ENTITY_ALIAS);
 
-    public ProductRepositoryInternalImpl(R2dbcEntityTemplate template, EntityManager entityManager, ProductRowMapper productMapper) {
+    public ProductRepositoryInternalImpl(
+        R2dbcEntityTemplate template,
+        EntityManager entityManager,
+        TotalCountService totalCountService,
+        EntityCache<Product> productCache,
+        CatalogChangeNotifier catalogChangeNotifier,
+        StatementCache statementCache,
+        ProductRowMapper productMapper
+    ) {
         this.db = template.getDatabaseClient();
         this.r2dbcEntityTemplate = template;
         this.entityManager = entityManager;
+        this.totalCountService = totalCountService;
+        this.productCache = productCache;
+        this.catalogChangeNotifier = catalogChangeNotifier;
+        this.statementCache = statementCache;
         this.productMapper = productMapper;
     }
 
     @Override
     public Flux<Product> findAllBy(Pageable pageable) {
-        return findAllBy(pageable, null);
+        return findByCriteria(null, pageable);
     }
 
     @Override
-    public Flux<Product> findAllBy(Pageable pageable, Criteria criteria) {
-        return createQuery(pageable, criteria).all();
+    public Flux<Product> findAllAfter(KeysetCursor after, Pageable pageable) {
+        return findByCriteriaAfter(null, after, pageable);
     }
 
-    RowsFetchSpec<Product> createQuery(Pageable pageable, Criteria criteria) {
+    @Override
+    public Flux<Product> streamAll(Sort sort) {
+        return streamAll(new ProductCriteria(), sort);
+    }
+
+    @Override
+    public Flux<Product> streamAll(ProductCriteria criteria, Sort sort) {
+        ConditionBuilder conditions = buildConditions(criteria);
+        String select = statementCache.get(
+            key("Product.streamAll", sort, conditions.getShape()),
+            () -> {
+                SelectFromAndJoin selectFrom = createSelectFrom();
+                SelectOrdered selectWhere = conditions.isEmpty() ? selectFrom : selectFrom.where(conditions.build());
+                return entityManager.createSelect(selectWhere, Product.class, sort);
+            }
+        );
+        return conditions.bind(db.sql(select)).map(productMapper.indexed("e")).all();
+    }
+
+    @Override
+    public Flux<Product> findByCriteria(ProductCriteria criteria, Pageable pageable) {
+        ConditionBuilder conditions = buildConditions(criteria);
+        String select = statementCache.get(
+            key("Product.findByCriteria", pageable != null ? pageable.getSort() : null, conditions.getShape()),
+            () -> entityManager.createSelect(createSelectFrom(), Product.class, pageable, conditions.build())
+        );
+        return entityManager.bindPage(conditions.bind(db.sql(select)), pageable).map(productMapper.indexed("e")).all();
+    }
+
+    @Override
+    public Flux<Product> findByCriteriaAfter(ProductCriteria criteria, KeysetCursor after, Pageable pageable) {
+        ConditionBuilder conditions = buildConditions(criteria);
+        String select = statementCache.get(
+            key(
+                "Product.findByCriteriaAfter",
+                pageable.getPageSize(),
+                pageable.getSort(),
+                after != null ? after.isIdOnly() : null,
+                conditions.getShape()
+            ),
+            () -> entityManager.createKeysetSelect(createSelectFrom(), Product.class, pageable, after, conditions.build())
+        );
+        return entityManager.bindKeyset(conditions.bind(db.sql(select)), Product.class, after).map(productMapper.indexed("e")).all();
+    }
+
+    @Override
+    public Mono<Long> countByCriteria(ProductCriteria criteria) {
+        ConditionBuilder conditions = buildConditions(criteria);
+        String select = statementCache.get(
+            key("Product.countByCriteria", conditions.getShape()),
+            () -> {
+                SelectFromAndJoin selectFrom = Select.builder().select(Functions.count(Expressions.asterisk())).from(entityTable);
+                return entityManager.createSelect(conditions.isEmpty() ? selectFrom.build() : selectFrom.where(conditions.build()).build());
+            }
+        );
+        return conditions.bind(db.sql(select)).map(row -> row.get(0, Long.class)).one();
+    }
+
+    private ConditionBuilder buildConditions(ProductCriteria criteria) {
+        return ProductSqlHelper.addConditions(new ConditionBuilder(), criteria, entityTable);
+    }
+
+    private SelectFromAndJoin createSelectFrom() {
         List<Expression> columns = ProductSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
-        SelectFromAndJoin selectFrom = Select.builder().select(columns).from(entityTable);
-
-        String select = entityManager.createSelect(selectFrom, Product.class, pageable, criteria);
-        String alias = entityTable.getReferenceName().getReference();
-        String selectWhere = Optional
-            .ofNullable(criteria)
-            .map(
-                crit ->
-                    new StringBuilder(select)
-                        .append(" ")
-                        .append("WHERE")
-                        .append(" ")
-                        .append(alias)
-                        .append(".")
-                        .append(crit.toString())
-                        .toString()
-            )
-            .orElse(select); // TODO remove once https://github.com/spring-projects/spring-data-jdbc/issues/907 will be fixed
-        return db.sql(selectWhere).map(this::process);
+        return Select.builder().select(columns).from(entityTable);
     }
 
     @Override
     public Flux<Product> findAll() {
-        return findAllBy(null, null);
+        return findByCriteria(null, null);
     }
 
     @Override
     public Mono<Product> findById(Long id) {
-        return createQuery(null, where("id").is(id)).one();
-    }
-
-    private Product process(Row row, RowMetadata metadata) {
-        Product entity = productMapper.apply(row, "e");
-        return entity;
+        return productCache.get(
+            id,
+            key -> {
+                ProductCriteria criteria = new ProductCriteria();
+                criteria.id().setEquals(key);
+                return findByCriteria(criteria, null).singleOrEmpty();
+            }
+        );
     }
 
     @Override
     public <S extends Product> Mono<S> insert(S entity) {
-        return entityManager.insert(entity);
+        return entityManager.insert(entity).flatMap(saved -> totalCountService.adjust(Product.class, 1).thenReturn(saved));
     }
 
     @Override
@@ -108,22 +177,36 @@ class ProductRepositoryInternalImpl implements ProductRepositoryInternal {
         if (entity.getId() == null) {
             return insert(entity);
         } else {
-            return update(entity)
-                .map(
-                    numberOfUpdates -> {
-                        if (numberOfUpdates.intValue() <= 0) {
-                            throw new IllegalStateException("Unable to update Product with id = " + entity.getId());
-                        }
-                        return entity;
-                    }
-                );
+            return update(entity).flatMap(updated -> updated > 0 ? Mono.just(entity) : entityManager.notUpdated(entity));
         }
     }
 
+    @Override
+    public Mono<Void> deleteById(Long id) {
+        return productCache
+            .evict(id)
+            .then(catalogChangeNotifier.catalogChanged())
+            .then(
+                r2dbcEntityTemplate
+                    .delete(Product.class)
+                    .matching(query(where("id").is(id)))
+                    .all()
+                    .flatMap(deleted -> totalCountService.adjust(Product.class, -deleted))
+            );
+    }
+
     @Override
     public Mono<Integer> update(Product entity) {
-        //fixme is this the proper way?
-        return r2dbcEntityTemplate.update(entity).thenReturn(1);
+        return productCache.evict(entity.getId()).then(catalogChangeNotifier.catalogChanged()).then(entityManager.update(entity));
+    }
+
+    @Override
+    public Mono<Product> partialUpdate(Product entity) {
+        return productCache
+            .evict(entity.getId())
+            .then(catalogChangeNotifier.catalogChanged())
+            .then(entityManager.partialUpdate(entity))
+            .switchIfEmpty(entityManager.notUpdated(entity));
     }
 }
 
@@ -138,7 +221,22 @@ class ProductSqlHelper {
         columns.add(Column.aliased("fragile", table, columnPrefix + "_fragile"));
         columns.add(Column.aliased("lote", table, columnPrefix + "_lote"));
         columns.add(Column.aliased("container_type", table, columnPrefix + "_container_type"));
+        columns.add(Column.aliased("version", table, columnPrefix + "_version"));
 
         return columns;
     }
+
+    static ConditionBuilder addConditions(ConditionBuilder conditions, ProductCriteria criteria, Table table) {
+        if (criteria == null) {
+            return conditions;
+        }
+        return conditions
+            .add(criteria.getId(), table.column("id"))
+            .add(criteria.getProductSize(), table.column("product_size"))
+            .add(criteria.getColor(), table.column("color"))
+            .add(criteria.getPrice(), table.column("price"))
+            .add(criteria.getFragile(), table.column("fragile"))
+            .add(criteria.getLote(), table.column("lote"))
+            .add(criteria.getContainerType(), table.column("container_type"));
+    }
 }
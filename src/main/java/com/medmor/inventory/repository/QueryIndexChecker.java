@@ -0,0 +1,235 @@
+package com.medmor.inventory.repository;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseProperties;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.stereotype.Component;
+
+/**
+ * Warns at startup about {@link Query} methods of the repositories which filter on a column that isn't the leading column
+ * of any index, as they end up as sequential scans.
+ * <p>
+ * The queries are parsed with a few regular expressions, which only understand the simple statements of the repositories:
+ * filters on columns of a joined table without alias, or in sub queries, are not reported. The indexes are read through
+ * the JDBC metadata of the Liquibase connection, as R2DBC has no equivalent.
+ */
+@Component
+public class QueryIndexChecker {
+
+    private final Logger log = LoggerFactory.getLogger(QueryIndexChecker.class);
+
+    private static final Pattern TABLE_PATTERN = Pattern.compile(
+        "\\b(?:FROM|JOIN|UPDATE)\\s+(\\w+)(?:\\s+(?:AS\\s+)?(\\w+))?",
+        Pattern.CASE_INSENSITIVE
+    );
+
+    private static final Pattern WHERE_PATTERN = Pattern.compile("\\bWHERE\\b", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern FILTER_PATTERN = Pattern.compile(
+        "(?<![:\\w.])(?:(\\w+)\\.)?(\\w+)\\s*(?:=|<>|!=|<=|>=|<|>|\\bIN\\b|\\bIS\\b|\\bLIKE\\b|\\bBETWEEN\\b)",
+        Pattern.CASE_INSENSITIVE
+    );
+
+    private static final Set<String> KEYWORDS = Set.of(
+        "where",
+        "on",
+        "join",
+        "left",
+        "right",
+        "inner",
+        "outer",
+        "full",
+        "cross",
+        "set",
+        "order",
+        "group",
+        "limit",
+        "and",
+        "or",
+        "not",
+        "values"
+    );
+
+    private final ApplicationContext applicationContext;
+    private final LiquibaseProperties liquibaseProperties;
+    private final R2dbcProperties r2dbcProperties;
+
+    public QueryIndexChecker(
+        ApplicationContext applicationContext,
+        LiquibaseProperties liquibaseProperties,
+        R2dbcProperties r2dbcProperties
+    ) {
+        this.applicationContext = applicationContext;
+        this.liquibaseProperties = liquibaseProperties;
+        this.r2dbcProperties = r2dbcProperties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkQueryIndexes() {
+        if (liquibaseProperties.getUrl() == null) {
+            log.debug("No JDBC url, skipping the index check of the repository queries");
+            return;
+        }
+        Map<String, Set<Column>> filteredColumns = new HashMap<>();
+        Repositories repositories = new Repositories(applicationContext);
+        for (Class<?> domainType : repositories) {
+            repositories
+                .getRepositoryInformationFor(domainType)
+                .ifPresent(
+                    information -> {
+                        for (Method method : information.getRepositoryInterface().getMethods()) {
+                            Query query = method.getAnnotation(Query.class);
+                            if (query != null) {
+                                String name = information.getRepositoryInterface().getSimpleName() + "." + method.getName();
+                                filteredColumns.put(name, getFilteredColumns(query.value()));
+                            }
+                        }
+                    }
+                );
+        }
+        try (Connection connection = openConnection()) {
+            Map<String, Set<String>> indexedColumns = new HashMap<>();
+            DatabaseMetaData metaData = connection.getMetaData();
+            filteredColumns.forEach(
+                (name, columns) -> {
+                    for (Column column : columns) {
+                        Set<String> indexed = indexedColumns.computeIfAbsent(column.table, table -> getIndexedColumns(metaData, table));
+                        if (indexed != null && !indexed.contains(column.name)) {
+                            log.warn("Query {} filters on {}, which is not the leading column of any index", name, column);
+                        }
+                    }
+                }
+            );
+        } catch (SQLException e) {
+            log.warn("Could not check the indexes of the repository queries: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Extracts the columns the where clause of a query filters on.
+     * @param sql the query.
+     * @return the filtered columns, with their table name, in lower case.
+     */
+    static Set<Column> getFilteredColumns(String sql) {
+        Set<Column> columns = new LinkedHashSet<>();
+        Matcher where = WHERE_PATTERN.matcher(sql);
+        if (!where.find()) {
+            return columns;
+        }
+        Map<String, String> tables = new HashMap<>();
+        Matcher table = TABLE_PATTERN.matcher(sql);
+        while (table.find()) {
+            String name = table.group(1).toLowerCase(Locale.ROOT);
+            String alias = table.group(2) != null ? table.group(2).toLowerCase(Locale.ROOT) : null;
+            tables.put(name, name);
+            if (alias != null && !KEYWORDS.contains(alias)) {
+                tables.put(alias, name);
+            }
+        }
+        Set<String> tableNames = new LinkedHashSet<>(tables.values());
+        Matcher filter = FILTER_PATTERN.matcher(sql.substring(where.end()));
+        while (filter.find()) {
+            String column = filter.group(2).toLowerCase(Locale.ROOT);
+            if (KEYWORDS.contains(column)) {
+                continue;
+            }
+            String tableName;
+            if (filter.group(1) != null) {
+                tableName = tables.get(filter.group(1).toLowerCase(Locale.ROOT));
+            } else {
+                tableName = tableNames.size() == 1 ? tableNames.iterator().next() : null;
+            }
+            if (tableName != null) {
+                columns.add(new Column(tableName, column));
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Reads the columns which lead an index of the given table, primary key and unique constraints included.
+     * @return the column names in lower case, or null if the table doesn't exist (yet).
+     */
+    private Set<String> getIndexedColumns(DatabaseMetaData metaData, String table) {
+        try {
+            String tableName = metaData.storesUpperCaseIdentifiers() ? table.toUpperCase(Locale.ROOT) : table;
+            try (ResultSet tables = metaData.getTables(null, null, tableName, null)) {
+                if (!tables.next()) {
+                    log.debug("Table {} not found, skipping the index check of its queries", table);
+                    return null;
+                }
+            }
+            Set<String> columns = new LinkedHashSet<>();
+            try (ResultSet indexes = metaData.getIndexInfo(null, null, tableName, false, true)) {
+                while (indexes.next()) {
+                    String column = indexes.getString("COLUMN_NAME");
+                    if (indexes.getShort("ORDINAL_POSITION") == 1 && column != null) {
+                        columns.add(column.toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+            return columns;
+        } catch (SQLException e) {
+            log.debug("Could not read the indexes of table {}: {}", table, e.getMessage());
+            return null;
+        }
+    }
+
+    private Connection openConnection() throws SQLException {
+        String user = liquibaseProperties.getUser() != null ? liquibaseProperties.getUser() : r2dbcProperties.getUsername();
+        String password = liquibaseProperties.getPassword() != null ? liquibaseProperties.getPassword() : r2dbcProperties.getPassword();
+        return DriverManager.getConnection(liquibaseProperties.getUrl(), user, password);
+    }
+
+    static final class Column {
+
+        private final String table;
+        private final String name;
+
+        Column(String table, String name) {
+            this.table = table;
+            this.name = name;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Column)) {
+                return false;
+            }
+            Column column = (Column) o;
+            return table.equals(column.table) && name.equals(column.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * table.hashCode() + name.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return table + "." + name;
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package com.medmor.inventory.repository;
 
 import com.medmor.inventory.domain.Registry;
+import com.medmor.inventory.service.KeysetCursor;
+import com.medmor.inventory.service.criteria.RegistryCriteria;
+import java.util.List;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
-import org.springframework.data.relational.core.query.Criteria;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -36,17 +39,56 @@ public interface RegistryRepository extends R2dbcRepository<Registry, Long>, Reg
     @Override
     Mono<Registry> findById(Long id);
 
+    /**
+     * Reads the versions making the tag of a registry, without loading it.
+     * @param id the id of the registry.
+     * @return the registry with its version and the version of its product and section only, empty if it doesn't exist.
+     */
+    @Override
+    Mono<Registry> findVersionsById(Long id);
+
+    /**
+     * Inserts the given registry, or updates it with a single statement, conditional on its version when it has one.
+     * @param entity the registry to save.
+     * @return the saved registry with its new version, empty if the updated row doesn't exist, or an
+     * {@link org.springframework.dao.OptimisticLockingFailureException} if it has another version.
+     */
     @Override
     <S extends Registry> Mono<S> save(S entity);
+
+    /**
+     * Updates the non-null properties of the given registry with a single statement, conditional on its version when it has one.
+     * @param entity the properties to update, with the id of the registry.
+     * @return the updated registry with its product and section, empty if the row doesn't exist, or an
+     * {@link org.springframework.dao.OptimisticLockingFailureException} if it has another version.
+     */
+    @Override
+    Mono<Registry> partialUpdate(Registry entity);
+
+    @Override
+    Mono<Void> deleteById(Long id);
 }
 
 interface RegistryRepositoryInternal {
     <S extends Registry> Mono<S> insert(S entity);
+    Flux<Registry> insertAll(List<Registry> entities);
     <S extends Registry> Mono<S> save(S entity);
     Mono<Integer> update(Registry entity);
+    Mono<Registry> partialUpdate(Registry entity);
+    Mono<Void> deleteById(Long id);
 
     Flux<Registry> findAll();
     Mono<Registry> findById(Long id);
+    Mono<Registry> findVersionsById(Long id);
     Flux<Registry> findAllBy(Pageable pageable);
-    Flux<Registry> findAllBy(Pageable pageable, Criteria criteria);
+    Flux<Registry> findAllBy(Pageable pageable, boolean expand);
+    Flux<Registry> findAllAfter(KeysetCursor after, Pageable pageable);
+    Flux<Registry> findAllAfter(KeysetCursor after, Pageable pageable, boolean expand);
+    Flux<Registry> streamAll(Sort sort);
+    Flux<Registry> streamAll(Sort sort, boolean expand);
+    Flux<Registry> streamAll(RegistryCriteria criteria, Sort sort, boolean expand);
+
+    Flux<Registry> findByCriteria(RegistryCriteria criteria, Pageable pageable, boolean expand);
+    Flux<Registry> findByCriteriaAfter(RegistryCriteria criteria, KeysetCursor after, Pageable pageable, boolean expand);
+    Mono<Long> countByCriteria(RegistryCriteria criteria);
 }
@@ -1,31 +1,51 @@
 package com.medmor.inventory.repository;
 
+import static com.medmor.inventory.service.StatementCache.key;
 import static org.springframework.data.relational.core.query.Criteria.where;
 import static org.springframework.data.relational.core.query.Query.query;
 
+import com.medmor.inventory.domain.Product;
 import com.medmor.inventory.domain.Registry;
+import com.medmor.inventory.domain.Section;
 import com.medmor.inventory.repository.rowmapper.ProductRowMapper;
 import com.medmor.inventory.repository.rowmapper.RegistryRowMapper;
 import com.medmor.inventory.repository.rowmapper.SectionRowMapper;
+import com.medmor.inventory.service.ConditionBuilder;
 import com.medmor.inventory.service.EntityManager;
+import com.medmor.inventory.service.KeysetCursor;
+import com.medmor.inventory.service.StatementCache;
+import com.medmor.inventory.service.TotalCountService;
+import com.medmor.inventory.service.criteria.RegistryCriteria;
 import io.r2dbc.spi.Row;
 import io.r2dbc.spi.RowMetadata;
+import io.r2dbc.spi.Statement;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Optional;
+import java.util.Objects;
 import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
-import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.r2dbc.dialect.R2dbcDialect;
 import org.springframework.data.relational.core.sql.Column;
+import org.springframework.data.relational.core.sql.Condition;
 import org.springframework.data.relational.core.sql.Expression;
+import org.springframework.data.relational.core.sql.Expressions;
+import org.springframework.data.relational.core.sql.Functions;
 import org.springframework.data.relational.core.sql.Select;
+import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoin;
 import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoinCondition;
+import org.springframework.data.relational.core.sql.SelectBuilder.SelectOrdered;
+import org.springframework.data.relational.core.sql.SelectBuilder.SelectWhere;
 import org.springframework.data.relational.core.sql.Table;
 import org.springframework.r2dbc.core.DatabaseClient;
-import org.springframework.r2dbc.core.RowsFetchSpec;
+import org.springframework.r2dbc.core.binding.BindMarkers;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -38,6 +58,11 @@ class RegistryRepositoryInternalImpl implements RegistryRepositoryInternal {
     private final DatabaseClient db;
     private final R2dbcEntityTemplate r2dbcEntityTemplate;
     private final EntityManager entityManager;
+    private final TotalCountService totalCountService;
+    private final StockLevelRepository stockLevelRepository;
+    private final ProductRepository productRepository;
+    private final SectionRepository sectionRepository;
+    private final StatementCache statementCache;
 
     private final ProductRowMapper productMapper;
     private final SectionRowMapper sectionMapper;
@@ -47,9 +72,17 @@ class RegistryRepositoryInternalImpl implements RegistryRepositoryInternal {
     private static final Table productTable = Table.aliased("product", "product");
     private static final Table sectionTable = Table.aliased("section", "section");
 
+    private final String batchInsert;
+
     public RegistryRepositoryInternalImpl(
         R2dbcEntityTemplate template,
+        R2dbcDialect dialect,
         EntityManager entityManager,
+        TotalCountService totalCountService,
+        StockLevelRepository stockLevelRepository,
+        ProductRepository productRepository,
+        SectionRepository sectionRepository,
+        StatementCache statementCache,
         ProductRowMapper productMapper,
         SectionRowMapper sectionMapper,
         RegistryRowMapper registryMapper
@@ -57,75 +90,351 @@ class RegistryRepositoryInternalImpl implements RegistryRepositoryInternal {
         this.db = template.getDatabaseClient();
         this.r2dbcEntityTemplate = template;
         this.entityManager = entityManager;
+        this.totalCountService = totalCountService;
+        this.stockLevelRepository = stockLevelRepository;
+        this.productRepository = productRepository;
+        this.sectionRepository = sectionRepository;
+        this.statementCache = statementCache;
         this.productMapper = productMapper;
         this.sectionMapper = sectionMapper;
         this.registryMapper = registryMapper;
+        BindMarkers bindMarkers = dialect.getBindMarkersFactory().create();
+        this.batchInsert =
+            "INSERT INTO registry (amount, product_id, section_id) VALUES (" +
+            bindMarkers.next().getPlaceholder() +
+            ", " +
+            bindMarkers.next().getPlaceholder() +
+            ", " +
+            bindMarkers.next().getPlaceholder() +
+            ")";
     }
 
     @Override
     public Flux<Registry> findAllBy(Pageable pageable) {
-        return findAllBy(pageable, null);
+        return findByCriteria(null, pageable, true);
+    }
+
+    @Override
+    public Flux<Registry> findAllBy(Pageable pageable, boolean expand) {
+        return findByCriteria(null, pageable, expand);
+    }
+
+    @Override
+    public Flux<Registry> findAllAfter(KeysetCursor after, Pageable pageable) {
+        return findAllAfter(after, pageable, true);
+    }
+
+    @Override
+    public Flux<Registry> findAllAfter(KeysetCursor after, Pageable pageable, boolean expand) {
+        return findByCriteriaAfter(null, after, pageable, expand);
     }
 
     @Override
-    public Flux<Registry> findAllBy(Pageable pageable, Criteria criteria) {
-        return createQuery(pageable, criteria).all();
+    public Flux<Registry> streamAll(Sort sort) {
+        return streamAll(sort, true);
     }
 
-    RowsFetchSpec<Registry> createQuery(Pageable pageable, Criteria criteria) {
+    @Override
+    public Flux<Registry> streamAll(Sort sort, boolean expand) {
+        return streamAll(null, sort, expand);
+    }
+
+    @Override
+    public Flux<Registry> streamAll(RegistryCriteria criteria, Sort sort, boolean expand) {
+        ConditionBuilder conditions = buildConditions(criteria);
+        Condition whereClause = conditions.build();
+        String select = statementCache.get(
+            key("Registry.streamAll", sort, expand, joinsRelationships(criteria), conditions.getShape()),
+            () ->
+                selectFrom(
+                    criteria,
+                    expand,
+                    selectFrom -> entityManager.createSelect(filter(selectFrom, whereClause), Registry.class, sort),
+                    selectFrom -> entityManager.createSelect(filter(selectFrom, whereClause), Registry.class, sort)
+                )
+        );
+        // no identity map here: it would grow with the table, while streams must run in constant memory
+        BiFunction<Row, RowMetadata, Registry> mapper = expand ? createMapper() : registryMapper.indexed("e");
+        return conditions.bind(db.sql(select)).map(mapper).all();
+    }
+
+    @Override
+    public Flux<Registry> findByCriteria(RegistryCriteria criteria, Pageable pageable, boolean expand) {
+        ConditionBuilder conditions = buildConditions(criteria);
+        Condition whereClause = conditions.build();
+        String select = statementCache.get(
+            key(
+                "Registry.findByCriteria",
+                pageable != null ? pageable.getSort() : null,
+                expand,
+                joinsRelationships(criteria),
+                conditions.getShape()
+            ),
+            () ->
+                selectFrom(
+                    criteria,
+                    expand,
+                    selectFrom -> entityManager.createSelect(selectFrom, Registry.class, pageable, whereClause),
+                    selectFrom -> entityManager.createSelect(selectFrom, Registry.class, pageable, whereClause)
+                )
+        );
+        BiFunction<Row, RowMetadata, Registry> mapper = expand ? createHydrator() : registryMapper.indexed("e");
+        return entityManager.bindPage(conditions.bind(db.sql(select)), pageable).map(mapper).all();
+    }
+
+    @Override
+    public Flux<Registry> findByCriteriaAfter(RegistryCriteria criteria, KeysetCursor after, Pageable pageable, boolean expand) {
+        ConditionBuilder conditions = buildConditions(criteria);
+        Condition whereClause = conditions.build();
+        String select = statementCache.get(
+            key(
+                "Registry.findByCriteriaAfter",
+                pageable.getPageSize(),
+                pageable.getSort(),
+                after != null ? after.isIdOnly() : null,
+                expand,
+                joinsRelationships(criteria),
+                conditions.getShape()
+            ),
+            () ->
+                selectFrom(
+                    criteria,
+                    expand,
+                    selectFrom -> entityManager.createKeysetSelect(selectFrom, Registry.class, pageable, after, whereClause),
+                    selectFrom -> entityManager.createKeysetSelect(selectFrom, Registry.class, pageable, after, whereClause)
+                )
+        );
+        BiFunction<Row, RowMetadata, Registry> mapper = expand ? createHydrator() : registryMapper.indexed("e");
+        return entityManager.bindKeyset(conditions.bind(db.sql(select)), Registry.class, after).map(mapper).all();
+    }
+
+    @Override
+    public Mono<Long> countByCriteria(RegistryCriteria criteria) {
+        ConditionBuilder conditions = buildConditions(criteria);
+        boolean joined = joinsRelationships(criteria);
+        String select = statementCache.get(
+            key("Registry.countByCriteria", joined, conditions.getShape()),
+            () -> {
+                SelectFromAndJoin count = Select.builder().select(Functions.count(Expressions.asterisk())).from(entityTable);
+                SelectWhere selectFrom = joined ? join(count) : count;
+                return entityManager.createSelect(conditions.isEmpty() ? selectFrom.build() : selectFrom.where(conditions.build()).build());
+            }
+        );
+        return conditions.bind(db.sql(select)).map(row -> row.get(0, Long.class)).one();
+    }
+
+    private ConditionBuilder buildConditions(RegistryCriteria criteria) {
+        ConditionBuilder conditions = new ConditionBuilder();
+        if (criteria == null) {
+            return conditions;
+        }
+        conditions
+            .add(criteria.getId(), entityTable.column("id"))
+            .add(criteria.getAmount(), entityTable.column("amount"))
+            .add(criteria.getProductId(), entityTable.column("product_id"))
+            .add(criteria.getSectionId(), entityTable.column("section_id"));
+        ProductSqlHelper.addConditions(conditions, criteria.getProduct(), productTable);
+        return SectionSqlHelper.addConditions(conditions, criteria.getSection(), sectionTable);
+    }
+
+    /**
+     * Creates the select statement of a query: with the relationships when they are expanded, else only with the registry
+     * columns, but still joining the related tables when the criteria filter on them.
+     */
+    private <T> T selectFrom(
+        RegistryCriteria criteria,
+        boolean expand,
+        Function<SelectFromAndJoin, T> registryOnly,
+        Function<SelectFromAndJoinCondition, T> joined
+    ) {
+        if (expand) {
+            return joined.apply(createSelectFrom());
+        }
+        if (joinsRelationships(criteria)) {
+            return joined.apply(join(createSelectFromRegistry()));
+        }
+        return registryOnly.apply(createSelectFromRegistry());
+    }
+
+    private static boolean joinsRelationships(RegistryCriteria criteria) {
+        return criteria != null && (criteria.getProduct() != null || criteria.getSection() != null);
+    }
+
+    private static SelectOrdered filter(SelectWhere selectFrom, Condition whereClause) {
+        return whereClause != null ? selectFrom.where(whereClause) : selectFrom;
+    }
+
+    private SelectFromAndJoin createSelectFromRegistry() {
+        List<Expression> columns = RegistrySqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
+        return Select.builder().select(columns).from(entityTable);
+    }
+
+    private SelectFromAndJoinCondition createSelectFrom() {
         List<Expression> columns = RegistrySqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
         columns.addAll(ProductSqlHelper.getColumns(productTable, "product"));
         columns.addAll(SectionSqlHelper.getColumns(sectionTable, "section"));
-        SelectFromAndJoinCondition selectFrom = Select
-            .builder()
-            .select(columns)
-            .from(entityTable)
+        return join(Select.builder().select(columns).from(entityTable));
+    }
+
+    private static SelectFromAndJoinCondition join(SelectFromAndJoin selectFrom) {
+        return selectFrom
             .leftOuterJoin(productTable)
             .on(Column.create("product_id", entityTable))
             .equals(Column.create("id", productTable))
             .leftOuterJoin(sectionTable)
             .on(Column.create("section_id", entityTable))
             .equals(Column.create("id", sectionTable));
-
-        String select = entityManager.createSelect(selectFrom, Registry.class, pageable, criteria);
-        String alias = entityTable.getReferenceName().getReference();
-        String selectWhere = Optional
-            .ofNullable(criteria)
-            .map(
-                crit ->
-                    new StringBuilder(select)
-                        .append(" ")
-                        .append("WHERE")
-                        .append(" ")
-                        .append(alias)
-                        .append(".")
-                        .append(crit.toString())
-                        .toString()
-            )
-            .orElse(select); // TODO remove once https://github.com/spring-projects/spring-data-jdbc/issues/907 will be fixed
-        return db.sql(selectWhere).map(this::process);
     }
 
     @Override
     public Flux<Registry> findAll() {
-        return findAllBy(null, null);
+        return findByCriteria(null, null, true);
     }
 
     @Override
     public Mono<Registry> findById(Long id) {
-        return createQuery(null, where("id").is(id)).one();
+        RegistryCriteria criteria = new RegistryCriteria();
+        criteria.id().setEquals(id);
+        return findByCriteria(criteria, null, true).singleOrEmpty();
     }
 
-    private Registry process(Row row, RowMetadata metadata) {
-        Registry entity = registryMapper.apply(row, "e");
-        entity.setProduct(productMapper.apply(row, "product"));
-        entity.setSection(sectionMapper.apply(row, "section"));
-        return entity;
+    @Override
+    public Mono<Registry> findVersionsById(Long id) {
+        return db
+            .sql(
+                "SELECT e.version, product.version AS product_version, section.version AS section_version FROM registry e" +
+                " LEFT OUTER JOIN product product ON product.id = e.product_id" +
+                " LEFT OUTER JOIN section section ON section.id = e.section_id WHERE e.id = :id"
+            )
+            .bind("id", id)
+            .map(
+                (row, metadata) -> {
+                    Registry registry = new Registry();
+                    registry.setVersion(row.get("version", Long.class));
+                    Long productVersion = row.get("product_version", Long.class);
+                    if (productVersion != null) {
+                        registry.setProduct(new Product().version(productVersion));
+                    }
+                    Long sectionVersion = row.get("section_version", Long.class);
+                    if (sectionVersion != null) {
+                        registry.setSection(new Section().version(sectionVersion));
+                    }
+                    return registry;
+                }
+            )
+            .one();
+    }
+
+    /**
+     * Creates a row mapper of the registries with their product and section.
+     */
+    private BiFunction<Row, RowMetadata, Registry> createMapper() {
+        BiFunction<Row, RowMetadata, Registry> registries = registryMapper.indexed("e");
+        BiFunction<Row, RowMetadata, Product> products = productMapper.indexed("product");
+        BiFunction<Row, RowMetadata, Section> sections = sectionMapper.indexed("section");
+        return (row, metadata) -> {
+            Registry entity = registries.apply(row, metadata);
+            entity.setProduct(products.apply(row, metadata));
+            entity.setSection(sections.apply(row, metadata));
+            return entity;
+        };
+    }
+
+    /**
+     * Creates a row mapper which materializes each product and section only once per query, and shares the instances
+     * between the registries referencing them.
+     */
+    private BiFunction<Row, RowMetadata, Registry> createHydrator() {
+        BiFunction<Row, RowMetadata, Registry> registries = registryMapper.indexed("e");
+        BiFunction<Row, RowMetadata, Product> products = productMapper.indexed("product");
+        BiFunction<Row, RowMetadata, Section> sections = sectionMapper.indexed("section");
+        Map<Long, Product> productsById = new HashMap<>();
+        Map<Long, Section> sectionsById = new HashMap<>();
+        return (row, metadata) -> {
+            Registry entity = registries.apply(row, metadata);
+            entity.setProduct(identity(productsById, entity.getProductId(), () -> products.apply(row, metadata)));
+            entity.setSection(identity(sectionsById, entity.getSectionId(), () -> sections.apply(row, metadata)));
+            return entity;
+        };
+    }
+
+    private static <T> T identity(Map<Long, T> instances, Long id, Supplier<T> mapper) {
+        if (id == null) {
+            return mapper.get();
+        }
+        return instances.computeIfAbsent(id, key -> mapper.get());
     }
 
     @Override
     public <S extends Registry> Mono<S> insert(S entity) {
-        return entityManager.insert(entity);
+        return entityManager
+            .insert(entity)
+            .flatMap(saved -> stockLevelRepository.add(saved.getProductId(), saved.getSectionId(), saved.getAmount()).thenReturn(saved))
+            .flatMap(saved -> totalCountService.adjust(Registry.class, 1).thenReturn(saved));
+    }
+
+    @Override
+    public Flux<Registry> insertAll(List<Registry> entities) {
+        if (entities.isEmpty()) {
+            return Flux.empty();
+        }
+        Flux<Long> ids = db.inConnectionMany(
+            connection -> {
+                Statement statement = connection.createStatement(batchInsert).returnGeneratedValues("id");
+                for (int i = 0; i < entities.size(); i++) {
+                    if (i > 0) {
+                        statement.add();
+                    }
+                    Registry entity = entities.get(i);
+                    bind(statement, 0, entity.getAmount(), Integer.class);
+                    bind(statement, 1, entity.getProductId(), Long.class);
+                    bind(statement, 2, entity.getSectionId(), Long.class);
+                }
+                return Flux.from(statement.execute()).concatMap(result -> result.map((row, metadata) -> row.get("id", Long.class)));
+            }
+        );
+        return ids
+            .collectList()
+            .flatMapMany(
+                generated -> {
+                    if (generated.size() != entities.size()) {
+                        return Flux.error(
+                            new IllegalStateException("Inserted " + entities.size() + " registries but got " + generated.size() + " ids")
+                        );
+                    }
+                    for (int i = 0; i < entities.size(); i++) {
+                        // the version column defaults to 0, as set by the inserts of R2dbcEntityTemplate
+                        entities.get(i).id(generated.get(i)).setVersion(0L);
+                    }
+                    return addStock(entities)
+                        .then(totalCountService.adjust(Registry.class, entities.size()))
+                        .thenMany(Flux.fromIterable(entities));
+                }
+            );
+    }
+
+    private static <T> void bind(Statement statement, int index, T value, Class<T> type) {
+        if (value == null) {
+            statement.bindNull(index, type);
+        } else {
+            statement.bind(index, value);
+        }
+    }
+
+    /**
+     * Adds the amounts of the inserted registries to the stock, with a single write per product and section.
+     */
+    private Mono<Void> addStock(List<Registry> entities) {
+        Map<List<Long>, Long> deltas = new LinkedHashMap<>();
+        for (Registry entity : entities) {
+            if (entity.getProductId() != null && entity.getSectionId() != null) {
+                deltas.merge(List.of(entity.getProductId(), entity.getSectionId()), entity.getAmount().longValue(), Long::sum);
+            }
+        }
+        return Flux
+            .fromIterable(deltas.entrySet())
+            .concatMap(delta -> stockLevelRepository.add(delta.getKey().get(0), delta.getKey().get(1), delta.getValue()))
+            .then();
     }
 
     @Override
@@ -133,22 +442,83 @@ class RegistryRepositoryInternalImpl implements RegistryRepositoryInternal {
         if (entity.getId() == null) {
             return insert(entity);
         } else {
-            return update(entity)
-                .map(
-                    numberOfUpdates -> {
-                        if (numberOfUpdates.intValue() <= 0) {
-                            throw new IllegalStateException("Unable to update Registry with id = " + entity.getId());
-                        }
-                        return entity;
-                    }
-                );
+            return update(entity).flatMap(updated -> updated > 0 ? Mono.just(entity) : entityManager.notUpdated(entity));
         }
     }
 
+    @Override
+    public Mono<Void> deleteById(Long id) {
+        return findStockForUpdate(id)
+            .flatMap(
+                previous ->
+                    r2dbcEntityTemplate
+                        .delete(Registry.class)
+                        .matching(query(where("id").is(id)))
+                        .all()
+                        .flatMap(deleted -> totalCountService.adjust(Registry.class, -deleted))
+                        .then(stockLevelRepository.add(previous.getProductId(), previous.getSectionId(), -previous.getAmount()))
+            );
+    }
+
     @Override
     public Mono<Integer> update(Registry entity) {
-        //fixme is this the proper way?
-        return r2dbcEntityTemplate.update(entity).thenReturn(1);
+        // the stock is only moved if the registry still has the expected version
+        return findStockForUpdate(entity.getId())
+            .flatMap(
+                previous ->
+                    entityManager
+                        .update(entity)
+                        .flatMap(updated -> updated > 0 ? moveStock(previous, entity).thenReturn(updated) : Mono.just(updated))
+            )
+            .defaultIfEmpty(0);
+    }
+
+    @Override
+    public Mono<Registry> partialUpdate(Registry entity) {
+        // the stock is only moved if the registry still has the expected version
+        return findStockForUpdate(entity.getId())
+            .flatMap(previous -> entityManager.partialUpdate(entity).flatMap(updated -> moveStock(previous, updated).thenReturn(updated)))
+            .switchIfEmpty(entityManager.notUpdated(entity))
+            .flatMap(this::findRelationships);
+    }
+
+    /**
+     * Sets the product and section of an updated registry, from their caches, as the returned row only has their ids.
+     */
+    private Mono<Registry> findRelationships(Registry registry) {
+        Mono<Product> product = registry.getProductId() != null ? productRepository.findById(registry.getProductId()) : Mono.empty();
+        Mono<Section> section = registry.getSectionId() != null ? sectionRepository.findById(registry.getSectionId()) : Mono.empty();
+        return product.doOnNext(registry::setProduct).then(section.doOnNext(registry::setSection)).thenReturn(registry);
+    }
+
+    /**
+     * Reads the stock related columns of a registry before it's changed, locking the row until the end of the transaction.
+     */
+    private Mono<Registry> findStockForUpdate(Long id) {
+        return db
+            .sql("SELECT amount, product_id, section_id FROM registry WHERE id = :id FOR UPDATE")
+            .bind("id", id)
+            .map(
+                (row, metadata) -> {
+                    Registry registry = new Registry().amount(row.get("amount", Integer.class));
+                    registry.setProductId(row.get("product_id", Long.class));
+                    registry.setSectionId(row.get("section_id", Long.class));
+                    return registry;
+                }
+            )
+            .one();
+    }
+
+    private Mono<Void> moveStock(Registry previous, Registry current) {
+        if (
+            Objects.equals(previous.getProductId(), current.getProductId()) &&
+            Objects.equals(previous.getSectionId(), current.getSectionId())
+        ) {
+            return stockLevelRepository.add(current.getProductId(), current.getSectionId(), current.getAmount() - previous.getAmount());
+        }
+        return stockLevelRepository
+            .add(previous.getProductId(), previous.getSectionId(), -previous.getAmount())
+            .then(stockLevelRepository.add(current.getProductId(), current.getSectionId(), current.getAmount()));
     }
 }
 
@@ -161,6 +531,7 @@ class RegistrySqlHelper {
 
         columns.add(Column.aliased("product_id", table, columnPrefix + "_product_id"));
         columns.add(Column.aliased("section_id", table, columnPrefix + "_section_id"));
+        columns.add(Column.aliased("version", table, columnPrefix + "_version"));
         return columns;
     }
 }
@@ -0,0 +1,116 @@
+package com.medmor.inventory.repository;
+
+import com.medmor.inventory.domain.StockLevel;
+import com.medmor.inventory.domain.enumeration.ProductType;
+import com.medmor.inventory.service.ColumnConverter;
+import com.medmor.inventory.service.dto.FragileLoadDTO;
+import com.medmor.inventory.service.dto.ProductTypeStockDTO;
+import com.medmor.inventory.service.dto.SectionStockDTO;
+import com.medmor.inventory.service.dto.SectionValueDTO;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+
+/**
+ * Reactive repository aggregating the {@link StockLevel} projection for the inventory reports.
+ * <p>
+ * The reports group the stock levels, which already hold the registry totals of each product and section, instead of
+ * the registries themselves. The queries run in read-only transactions here rather than in the REST controller, so
+ * that the reports served from the cache don't open one.
+ */
+@Repository
+@Transactional(readOnly = true)
+public class ReportRepository {
+
+    private static final String STOCK_BY_SECTION =
+        "SELECT l.section_id, CAST(SUM(l.total_amount) AS BIGINT) AS total_amount FROM stock_level l" +
+        " GROUP BY l.section_id ORDER BY l.section_id";
+
+    private static final String STOCK_BY_PRODUCT_TYPE =
+        "SELECT s.product_type, CAST(SUM(l.total_amount) AS BIGINT) AS total_amount FROM stock_level l" +
+        " JOIN section s ON s.id = l.section_id GROUP BY s.product_type ORDER BY s.product_type";
+
+    private static final String VALUE_BY_SECTION =
+        "SELECT l.section_id, CAST(SUM(l.total_amount * CAST(p.price AS DOUBLE PRECISION)) AS DOUBLE PRECISION) AS total_value" +
+        " FROM stock_level l JOIN product p ON p.id = l.product_id GROUP BY l.section_id ORDER BY l.section_id";
+
+    private static final String FRAGILE_LOAD =
+        "SELECT l.section_id, CAST(SUM(CASE WHEN p.fragile THEN l.total_amount ELSE 0 END) AS BIGINT) AS fragile_amount," +
+        " CAST(SUM(l.total_amount) AS BIGINT) AS total_amount" +
+        " FROM stock_level l JOIN product p ON p.id = l.product_id GROUP BY l.section_id ORDER BY l.section_id";
+
+    private final DatabaseClient db;
+    private final ColumnConverter converter;
+
+    public ReportRepository(R2dbcEntityTemplate template, ColumnConverter converter) {
+        this.db = template.getDatabaseClient();
+        this.converter = converter;
+    }
+
+    /**
+     * @return the total amount stored in each section, ordered by section id.
+     */
+    public Flux<SectionStockDTO> stockBySection() {
+        return db
+            .sql(STOCK_BY_SECTION)
+            .map(
+                row ->
+                    new SectionStockDTO(
+                        converter.fromRow(row, "section_id", Long.class),
+                        converter.fromRow(row, "total_amount", Long.class)
+                    )
+            )
+            .all();
+    }
+
+    /**
+     * @return the total amount stored in the sections of each product type, ordered by product type.
+     */
+    public Flux<ProductTypeStockDTO> stockByProductType() {
+        return db
+            .sql(STOCK_BY_PRODUCT_TYPE)
+            .map(
+                row ->
+                    new ProductTypeStockDTO(
+                        converter.fromRow(row, "product_type", ProductType.class),
+                        converter.fromRow(row, "total_amount", Long.class)
+                    )
+            )
+            .all();
+    }
+
+    /**
+     * @return the value of the stock of each section, the amounts times the prices of the products, ordered by section id.
+     */
+    public Flux<SectionValueDTO> valueBySection() {
+        return db
+            .sql(VALUE_BY_SECTION)
+            .map(
+                row ->
+                    new SectionValueDTO(
+                        converter.fromRow(row, "section_id", Long.class),
+                        converter.fromRow(row, "total_value", Double.class)
+                    )
+            )
+            .all();
+    }
+
+    /**
+     * @return the amount of fragile products stored in each section, with its total amount, ordered by section id.
+     */
+    public Flux<FragileLoadDTO> fragileLoad() {
+        return db
+            .sql(FRAGILE_LOAD)
+            .map(
+                row ->
+                    new FragileLoadDTO(
+                        converter.fromRow(row, "section_id", Long.class),
+                        converter.fromRow(row, "fragile_amount", Long.class),
+                        converter.fromRow(row, "total_amount", Long.class)
+                    )
+            )
+            .all();
+    }
+}
@@ -1,10 +1,12 @@
 package com.medmor.inventory.repository;
 
 import com.medmor.inventory.domain.Section;
+import com.medmor.inventory.service.KeysetCursor;
+import com.medmor.inventory.service.criteria.SectionCriteria;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
-import org.springframework.data.relational.core.query.Criteria;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -24,17 +26,46 @@ public interface SectionRepository extends R2dbcRepository<Section, Long>, Secti
     @Override
     Mono<Section> findById(Long id);
 
+    @Query("SELECT version FROM section WHERE id = :id")
+    Mono<Long> findVersionById(Long id);
+
+    /**
+     * Inserts the given section, or updates it with a single statement, conditional on its version when it has one.
+     * @param entity the section to save.
+     * @return the saved section with its new version, empty if the updated row doesn't exist, or an
+     * {@link org.springframework.dao.OptimisticLockingFailureException} if it has another version.
+     */
     @Override
     <S extends Section> Mono<S> save(S entity);
+
+    /**
+     * Updates the non-null properties of the given section with a single statement, conditional on its version when it has one.
+     * @param entity the properties to update, with the id of the section.
+     * @return the updated section, empty if the row doesn't exist, or an
+     * {@link org.springframework.dao.OptimisticLockingFailureException} if it has another version.
+     */
+    @Override
+    Mono<Section> partialUpdate(Section entity);
+
+    @Override
+    Mono<Void> deleteById(Long id);
 }
 
 interface SectionRepositoryInternal {
     <S extends Section> Mono<S> insert(S entity);
     <S extends Section> Mono<S> save(S entity);
     Mono<Integer> update(Section entity);
+    Mono<Section> partialUpdate(Section entity);
+    Mono<Void> deleteById(Long id);
 
     Flux<Section> findAll();
     Mono<Section> findById(Long id);
     Flux<Section> findAllBy(Pageable pageable);
-    Flux<Section> findAllBy(Pageable pageable, Criteria criteria);
+    Flux<Section> findAllAfter(KeysetCursor after, Pageable pageable);
+    Flux<Section> streamAll(Sort sort);
+    Flux<Section> streamAll(SectionCriteria criteria, Sort sort);
+
+    Flux<Section> findByCriteria(SectionCriteria criteria, Pageable pageable);
+    Flux<Section> findByCriteriaAfter(SectionCriteria criteria, KeysetCursor after, Pageable pageable);
+    Mono<Long> countByCriteria(SectionCriteria criteria);
 }
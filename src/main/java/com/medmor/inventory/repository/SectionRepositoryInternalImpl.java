@@ -1,30 +1,37 @@
 package com.medmor.inventory.repository;
 
+import static com.medmor.inventory.service.StatementCache.key;
 import static org.springframework.data.relational.core.query.Criteria.where;
 import static org.springframework.data.relational.core.query.Query.query;
 
 import com.medmor.inventory.domain.Section;
 import com.medmor.inventory.domain.enumeration.ProductType;
 import com.medmor.inventory.repository.rowmapper.SectionRowMapper;
+import com.medmor.inventory.service.CatalogChangeNotifier;
+import com.medmor.inventory.service.ConditionBuilder;
+import com.medmor.inventory.service.EntityCache;
 import com.medmor.inventory.service.EntityManager;
-import io.r2dbc.spi.Row;
-import io.r2dbc.spi.RowMetadata;
+import com.medmor.inventory.service.KeysetCursor;
+import com.medmor.inventory.service.StatementCache;
+import com.medmor.inventory.service.TotalCountService;
+import com.medmor.inventory.service.criteria.SectionCriteria;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Optional;
 import java.util.function.BiFunction;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
-import org.springframework.data.relational.core.query.Criteria;
 import org.springframework.data.relational.core.sql.Column;
 import org.springframework.data.relational.core.sql.Expression;
+import org.springframework.data.relational.core.sql.Expressions;
+import org.springframework.data.relational.core.sql.Functions;
 import org.springframework.data.relational.core.sql.Select;
 import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoin;
+import org.springframework.data.relational.core.sql.SelectBuilder.SelectOrdered;
 import org.springframework.data.relational.core.sql.Table;
 import org.springframework.r2dbc.core.DatabaseClient;
-import org.springframework.r2dbc.core.RowsFetchSpec;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -37,69 +44,133 @@ class SectionRepositoryInternalImpl implements SectionRepositoryInternal {
     private final DatabaseClient db;
     private final R2dbcEntityTemplate r2dbcEntityTemplate;
     private final EntityManager entityManager;
+    private final TotalCountService totalCountService;
+    private final EntityCache<Section> sectionCache;
+    private final CatalogChangeNotifier catalogChangeNotifier;
+    private final StatementCache statementCache;
 
     private final SectionRowMapper sectionMapper;
 
     private static final Table entityTable = Table.aliased("section", EntityManager.ENTITY_ALIAS);
 
-    public SectionRepositoryInternalImpl(R2dbcEntityTemplate template, EntityManager entityManager, SectionRowMapper sectionMapper) {
+    public SectionRepositoryInternalImpl(
+        R2dbcEntityTemplate template,
+        EntityManager entityManager,
+        TotalCountService totalCountService,
+        EntityCache<Section> sectionCache,
+        CatalogChangeNotifier catalogChangeNotifier,
+        StatementCache statementCache,
+        SectionRowMapper sectionMapper
+    ) {
         this.db = template.getDatabaseClient();
         this.r2dbcEntityTemplate = template;
         this.entityManager = entityManager;
+        this.totalCountService = totalCountService;
+        this.sectionCache = sectionCache;
+        this.catalogChangeNotifier = catalogChangeNotifier;
+        this.statementCache = statementCache;
         this.sectionMapper = sectionMapper;
     }
 
     @Override
     public Flux<Section> findAllBy(Pageable pageable) {
-        return findAllBy(pageable, null);
+        return findByCriteria(null, pageable);
     }
 
     @Override
-    public Flux<Section> findAllBy(Pageable pageable, Criteria criteria) {
-        return createQuery(pageable, criteria).all();
+    public Flux<Section> findAllAfter(KeysetCursor after, Pageable pageable) {
+        return findByCriteriaAfter(null, after, pageable);
     }
 
-    RowsFetchSpec<Section> createQuery(Pageable pageable, Criteria criteria) {
+    @Override
+    public Flux<Section> streamAll(Sort sort) {
+        return streamAll(new SectionCriteria(), sort);
+    }
+
+    @Override
+    public Flux<Section> streamAll(SectionCriteria criteria, Sort sort) {
+        ConditionBuilder conditions = buildConditions(criteria);
+        String select = statementCache.get(
+            key("Section.streamAll", sort, conditions.getShape()),
+            () -> {
+                SelectFromAndJoin selectFrom = createSelectFrom();
+                SelectOrdered selectWhere = conditions.isEmpty() ? selectFrom : selectFrom.where(conditions.build());
+                return entityManager.createSelect(selectWhere, Section.class, sort);
+            }
+        );
+        return conditions.bind(db.sql(select)).map(sectionMapper.indexed("e")).all();
+    }
+
+    @Override
+    public Flux<Section> findByCriteria(SectionCriteria criteria, Pageable pageable) {
+        ConditionBuilder conditions = buildConditions(criteria);
+        String select = statementCache.get(
+            key("Section.findByCriteria", pageable != null ? pageable.getSort() : null, conditions.getShape()),
+            () -> entityManager.createSelect(createSelectFrom(), Section.class, pageable, conditions.build())
+        );
+        return entityManager.bindPage(conditions.bind(db.sql(select)), pageable).map(sectionMapper.indexed("e")).all();
+    }
+
+    @Override
+    public Flux<Section> findByCriteriaAfter(SectionCriteria criteria, KeysetCursor after, Pageable pageable) {
+        ConditionBuilder conditions = buildConditions(criteria);
+        String select = statementCache.get(
+            key(
+                "Section.findByCriteriaAfter",
+                pageable.getPageSize(),
+                pageable.getSort(),
+                after != null ? after.isIdOnly() : null,
+                conditions.getShape()
+            ),
+            () -> entityManager.createKeysetSelect(createSelectFrom(), Section.class, pageable, after, conditions.build())
+        );
+        return entityManager.bindKeyset(conditions.bind(db.sql(select)), Section.class, after).map(sectionMapper.indexed("e")).all();
+    }
+
+    @Override
+    public Mono<Long> countByCriteria(SectionCriteria criteria) {
+        ConditionBuilder conditions = buildConditions(criteria);
+        String select = statementCache.get(
+            key("Section.countByCriteria", conditions.getShape()),
+            () -> {
+                SelectFromAndJoin selectFrom = Select.builder().select(Functions.count(Expressions.asterisk())).from(entityTable);
+                return entityManager.createSelect(conditions.isEmpty() ? selectFrom.build() : selectFrom.where(conditions.build()).build());
+            }
+        );
+        return conditions.bind(db.sql(select)).map(row -> row.get(0, Long.class)).one();
+    }
+
+    private ConditionBuilder buildConditions(SectionCriteria criteria) {
+        return SectionSqlHelper.addConditions(new ConditionBuilder(), criteria, entityTable);
+    }
+
+    private SelectFromAndJoin createSelectFrom() {
         List<Expression> columns = SectionSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
-        SelectFromAndJoin selectFrom = Select.builder().select(columns).from(entityTable);
-
-        String select = entityManager.createSelect(selectFrom, Section.class, pageable, criteria);
-        String alias = entityTable.getReferenceName().getReference();
-        String selectWhere = Optional
-            .ofNullable(criteria)
-            .map(
-                crit ->
-                    new StringBuilder(select)
-                        .append(" ")
-                        .append("WHERE")
-                        .append(" ")
-                        .append(alias)
-                        .append(".")
-                        .append(crit.toString())
-                        .toString()
-            )
-            .orElse(select); // TODO remove once https://github.com/spring-projects/spring-data-jdbc/issues/907 will be fixed
-        return db.sql(selectWhere).map(this::process);
+        return Select.builder().select(columns).from(entityTable);
     }
 
     @Override
     public Flux<Section> findAll() {
-        return findAllBy(null, null);
+        return findByCriteria(null, null);
     }
 
     @Override
     public Mono<Section> findById(Long id) {
-        return createQuery(null, where("id").is(id)).one();
-    }
-
-    private Section process(Row row, RowMetadata metadata) {
-        Section entity = sectionMapper.apply(row, "e");
-        return entity;
+        return sectionCache.get(
+            id,
+            key -> {
+                SectionCriteria criteria = new SectionCriteria();
+                criteria.id().setEquals(key);
+                return findByCriteria(criteria, null).singleOrEmpty();
+            }
+        );
     }
 
     @Override
     public <S extends Section> Mono<S> insert(S entity) {
-        return entityManager.insert(entity);
+        return entityManager
+            .insert(entity)
+            .flatMap(saved -> totalCountService.adjust(Section.class, 1).then(catalogChangeNotifier.catalogChanged()).thenReturn(saved));
     }
 
     @Override
@@ -107,22 +178,36 @@ class SectionRepositoryInternalImpl implements SectionRepositoryInternal {
         if (entity.getId() == null) {
             return insert(entity);
         } else {
-            return update(entity)
-                .map(
-                    numberOfUpdates -> {
-                        if (numberOfUpdates.intValue() <= 0) {
-                            throw new IllegalStateException("Unable to update Section with id = " + entity.getId());
-                        }
-                        return entity;
-                    }
-                );
+            return update(entity).flatMap(updated -> updated > 0 ? Mono.just(entity) : entityManager.notUpdated(entity));
         }
     }
 
+    @Override
+    public Mono<Void> deleteById(Long id) {
+        return sectionCache
+            .evict(id)
+            .then(catalogChangeNotifier.catalogChanged())
+            .then(
+                r2dbcEntityTemplate
+                    .delete(Section.class)
+                    .matching(query(where("id").is(id)))
+                    .all()
+                    .flatMap(deleted -> totalCountService.adjust(Section.class, -deleted))
+            );
+    }
+
     @Override
     public Mono<Integer> update(Section entity) {
-        //fixme is this the proper way?
-        return r2dbcEntityTemplate.update(entity).thenReturn(1);
+        return sectionCache.evict(entity.getId()).then(catalogChangeNotifier.catalogChanged()).then(entityManager.update(entity));
+    }
+
+    @Override
+    public Mono<Section> partialUpdate(Section entity) {
+        return sectionCache
+            .evict(entity.getId())
+            .then(catalogChangeNotifier.catalogChanged())
+            .then(entityManager.partialUpdate(entity))
+            .switchIfEmpty(entityManager.notUpdated(entity));
     }
 }
 
@@ -133,7 +218,18 @@ class SectionSqlHelper {
         columns.add(Column.aliased("id", table, columnPrefix + "_id"));
         columns.add(Column.aliased("area", table, columnPrefix + "_area"));
         columns.add(Column.aliased("product_type", table, columnPrefix + "_product_type"));
+        columns.add(Column.aliased("version", table, columnPrefix + "_version"));
 
         return columns;
     }
+
+    static ConditionBuilder addConditions(ConditionBuilder conditions, SectionCriteria criteria, Table table) {
+        if (criteria == null) {
+            return conditions;
+        }
+        return conditions
+            .add(criteria.getId(), table.column("id"))
+            .add(criteria.getArea(), table.column("area"))
+            .add(criteria.getProductType(), table.column("product_type"));
+    }
 }
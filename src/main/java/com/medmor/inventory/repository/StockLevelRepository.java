@@ -0,0 +1,120 @@
+package com.medmor.inventory.repository;
+
+import com.medmor.inventory.domain.StockLevel;
+import com.medmor.inventory.repository.rowmapper.StockLevelRowMapper;
+import com.medmor.inventory.service.ReportService;
+import com.medmor.inventory.service.SectionOccupancyService;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.dialect.H2Dialect;
+import org.springframework.data.r2dbc.dialect.PostgresDialect;
+import org.springframework.data.r2dbc.dialect.R2dbcDialect;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive repository for the {@link StockLevel} projection.
+ * <p>
+ * The projection has a composite key, so it is accessed with plain SQL instead of a Spring Data repository.
+ * It is only written through {@link #add(Long, Long, long)}, by the Registry repository. Each write is checked against the occupancy
+ * of its section, and invalidates the cached reports.
+ */
+@Repository
+public class StockLevelRepository {
+
+    private static final String SELECT =
+        "SELECT e.product_id AS e_product_id, e.section_id AS e_section_id, e.total_amount AS e_total_amount FROM stock_level e";
+
+    private static final String UPSERT =
+        "INSERT INTO stock_level (product_id, section_id, total_amount) VALUES (:product, :section, :delta)" +
+        " ON CONFLICT (product_id, section_id) DO UPDATE SET total_amount = stock_level.total_amount + EXCLUDED.total_amount";
+
+    private static final String UPDATE =
+        "UPDATE stock_level SET total_amount = total_amount + :delta WHERE product_id = :product AND section_id = :section";
+
+    private static final String INSERT = "INSERT INTO stock_level (product_id, section_id, total_amount) VALUES (:product, :section, :delta)";
+
+    private final DatabaseClient db;
+    private final StockLevelRowMapper stockLevelMapper;
+    private final ReportService reportService;
+    private final SectionOccupancyService sectionOccupancyService;
+    private final boolean upsertSupported;
+
+    public StockLevelRepository(
+        R2dbcEntityTemplate template,
+        R2dbcDialect dialect,
+        StockLevelRowMapper stockLevelMapper,
+        ReportService reportService,
+        SectionOccupancyService sectionOccupancyService
+    ) {
+        this.db = template.getDatabaseClient();
+        this.stockLevelMapper = stockLevelMapper;
+        this.reportService = reportService;
+        this.sectionOccupancyService = sectionOccupancyService;
+        // the H2 dialect extends the PostgreSQL one, but H2 has no ON CONFLICT clause
+        this.upsertSupported = dialect instanceof PostgresDialect && !(dialect instanceof H2Dialect);
+    }
+
+    /**
+     * Returns the stock of a product in a section, using the primary key.
+     * @param productId the id of the product.
+     * @param sectionId the id of the section.
+     * @return the stock level, or empty if there was never any registry for them.
+     */
+    public Mono<StockLevel> findByProductAndSection(Long productId, Long sectionId) {
+        return db
+            .sql(SELECT + " WHERE e.product_id = :product AND e.section_id = :section")
+            .bind("product", productId)
+            .bind("section", sectionId)
+            .map(this::process)
+            .one();
+    }
+
+    public Flux<StockLevel> findByProduct(Long productId) {
+        return db.sql(SELECT + " WHERE e.product_id = :product").bind("product", productId).map(this::process).all();
+    }
+
+    public Flux<StockLevel> findBySection(Long sectionId) {
+        return db.sql(SELECT + " WHERE e.section_id = :section").bind("section", sectionId).map(this::process).all();
+    }
+
+    public Flux<StockLevel> findAll() {
+        return db.sql(SELECT).map(this::process).all();
+    }
+
+    /**
+     * Adds the given amount to the stock of a product in a section.
+     * @param productId the id of the product, nothing is done if null.
+     * @param sectionId the id of the section, nothing is done if null.
+     * @param delta the amount to add, negative to remove.
+     * @return a {@link Mono} completing once the stock level is written and the reports are invalidated, or failing with a
+     * {@link com.medmor.inventory.service.SectionCapacityExceededException} if the section has no room left for it.
+     */
+    public Mono<Void> add(Long productId, Long sectionId, long delta) {
+        if (productId == null || sectionId == null || delta == 0) {
+            return Mono.empty();
+        }
+        Mono<Void> write;
+        if (upsertSupported) {
+            write = bind(db.sql(UPSERT), productId, sectionId, delta).then();
+        } else {
+            write =
+                bind(db.sql(UPDATE), productId, sectionId, delta)
+                    .fetch()
+                    .rowsUpdated()
+                    .flatMap(updated -> updated > 0 ? Mono.<Void>empty() : bind(db.sql(INSERT), productId, sectionId, delta).then());
+        }
+        return sectionOccupancyService.add(productId, sectionId, delta).then(write).then(reportService.invalidate());
+    }
+
+    private DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec, Long productId, Long sectionId, long delta) {
+        return spec.bind("product", productId).bind("section", sectionId).bind("delta", delta);
+    }
+
+    private StockLevel process(Row row, RowMetadata metadata) {
+        return stockLevelMapper.apply(row, "e");
+    }
+}
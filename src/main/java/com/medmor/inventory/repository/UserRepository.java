@@ -7,16 +7,20 @@ import com.medmor.inventory.domain.Authority;
 import com.medmor.inventory.domain.User;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
-import org.apache.commons.beanutils.BeanComparator;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.r2dbc.convert.R2dbcConverter;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.relational.core.query.Criteria;
 import org.springframework.data.relational.core.sql.Column;
 import org.springframework.data.relational.core.sql.Expression;
 import org.springframework.data.relational.core.sql.Table;
@@ -94,27 +98,42 @@ class UserRepositoryInternalImpl implements UserRepositoryInternal {
 
     @Override
     public Flux<User> findAllWithAuthorities(Pageable pageable) {
-        String property = pageable.getSort().stream().map(Sort.Order::getProperty).findFirst().get();
-        String direction = String.valueOf(pageable.getSort().stream().map(Sort.Order::getDirection).findFirst().get());
-        long page = pageable.getPageNumber();
-        long size = pageable.getPageSize();
+        // the id breaks the ties of the requested sort, so that the pages don't overlap
+        Sort sort = pageable.getSort().getOrderFor("id") != null ? pageable.getSort() : pageable.getSort().and(Sort.by("id"));
+        Pageable page = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+        return r2dbcEntityTemplate
+            .select(User.class)
+            .matching(query(Criteria.empty()).with(page))
+            .all()
+            .collectList()
+            .flatMapMany(this::withAuthorities);
+    }
 
+    /**
+     * Reads the authorities of the given users with a single query, and sets them.
+     */
+    private Flux<User> withAuthorities(List<User> users) {
+        if (users.isEmpty()) {
+            return Flux.empty();
+        }
+        Map<Long, User> usersById = new HashMap<>();
+        for (User user : users) {
+            user.setAuthorities(new HashSet<>());
+            usersById.put(user.getId(), user);
+        }
         return db
-            .sql("SELECT * FROM jhi_user u LEFT JOIN jhi_user_authority ua ON u.id=ua.user_id")
-            .map(
-                (row, metadata) ->
-                    Tuples.of(r2dbcConverter.read(User.class, row, metadata), Optional.ofNullable(row.get("authority_name", String.class)))
-            )
+            .sql("SELECT user_id, authority_name FROM jhi_user_authority WHERE user_id IN (:userIds)")
+            .bind("userIds", usersById.keySet())
+            .map((row, metadata) -> Tuples.of(row.get("user_id", Long.class), row.get("authority_name", String.class)))
             .all()
-            .groupBy(t -> t.getT1().getLogin())
-            .flatMap(l -> l.collectList().map(t -> updateUserWithAuthorities(t.get(0).getT1(), t)))
-            .sort(
-                Sort.Direction.fromString(direction) == Sort.DEFAULT_DIRECTION
-                    ? new BeanComparator<>(property)
-                    : new BeanComparator<>(property).reversed()
+            .doOnNext(
+                userAuthority -> {
+                    Authority authority = new Authority();
+                    authority.setName(userAuthority.getT2());
+                    usersById.get(userAuthority.getT1()).getAuthorities().add(authority);
+                }
             )
-            .skip(page * size)
-            .take(size);
+            .thenMany(Flux.fromIterable(users));
     }
 
     @Override
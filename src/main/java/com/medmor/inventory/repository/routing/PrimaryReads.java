@@ -0,0 +1,70 @@
+package com.medmor.inventory.repository.routing;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Runs the reads filling the in-memory caches on the primary database, when the read replicas are enabled.
+ * <p>
+ * A replica may lag behind the primary database, so that a cache filled from it right after a write, and evicted once the
+ * write committed, would keep the old rows for its whole time to live. Unless the current transaction is a read-write one,
+ * which already uses the primary database and is joined to see its own writes, the reads are run in a new read-write
+ * transaction. Without replicas, they are run as they are.
+ */
+@Component
+public class PrimaryReads {
+
+    private final TransactionalOperator primaryTransaction;
+
+    public PrimaryReads(ReactiveTransactionManager transactionManager) {
+        if (transactionManager instanceof ReadOnlyRoutingTransactionManager) {
+            DefaultTransactionDefinition definition = new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            this.primaryTransaction = TransactionalOperator.create(transactionManager, definition);
+        } else {
+            this.primaryTransaction = null;
+        }
+    }
+
+    /**
+     * Runs the given read on the primary database.
+     * @param read the read, typically a query whose result is cached.
+     * @param <T> the type of the result.
+     * @return the result of the read.
+     */
+    public <T> Mono<T> read(Mono<T> read) {
+        if (primaryTransaction == null) {
+            return read;
+        }
+        return inReadWriteTransaction().flatMap(readWrite -> readWrite ? read : primaryTransaction.transactional(read));
+    }
+
+    /**
+     * Runs the given read on the primary database.
+     * @param read the read, typically a query whose rows are cached.
+     * @param <T> the type of the rows.
+     * @return the rows of the read.
+     */
+    public <T> Flux<T> readAll(Flux<T> read) {
+        if (primaryTransaction == null) {
+            return read;
+        }
+        return inReadWriteTransaction().flatMapMany(readWrite -> readWrite ? read : primaryTransaction.transactional(read));
+    }
+
+    private static Mono<Boolean> inReadWriteTransaction() {
+        return TransactionSynchronizationManager
+            .forCurrentTransaction()
+            .map(
+                synchronizationManager ->
+                    synchronizationManager.isActualTransactionActive() && !synchronizationManager.isCurrentTransactionReadOnly()
+            )
+            .onErrorResume(NoTransactionException.class, e -> Mono.just(false));
+    }
+}
@@ -0,0 +1,32 @@
+package com.medmor.inventory.repository.routing;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+
+/**
+ * Transaction manager opening the connection of each transaction with its read-only flag in the Reactor context, so that
+ * a {@link ReplicaRoutingConnectionFactory} sends the {@code @Transactional(readOnly = true)} methods to a read replica.
+ * <p>
+ * Other transactions are explicitly marked as read-write, so that they use the primary database even when they are
+ * started from a read-only one with a new propagation.
+ */
+public class ReadOnlyRoutingTransactionManager extends R2dbcTransactionManager {
+
+    public ReadOnlyRoutingTransactionManager(ConnectionFactory connectionFactory) {
+        super(connectionFactory);
+    }
+
+    @Override
+    protected Mono<Void> doBegin(
+        TransactionSynchronizationManager synchronizationManager,
+        Object transaction,
+        TransactionDefinition definition
+    ) {
+        return super
+            .doBegin(synchronizationManager, transaction, definition)
+            .contextWrite(context -> ReplicaRoutingConnectionFactory.withReadOnly(context, definition.isReadOnly()));
+    }
+}
@@ -0,0 +1,134 @@
+package com.medmor.inventory.repository.routing;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * Connection factory opening the connections of read-only transactions on the read replicas, and all the other connections
+ * on the primary database.
+ * <p>
+ * The read-only transactions are marked in the Reactor context by the {@link ReadOnlyRoutingTransactionManager}. The
+ * replicas are used in turn: a replica which fails to open a connection is left out for the retry delay, and the
+ * connection is opened on the primary database instead.
+ */
+public class ReplicaRoutingConnectionFactory implements ConnectionFactory, Disposable {
+
+    private static final String READ_ONLY_KEY = ReplicaRoutingConnectionFactory.class.getName() + ".READ_ONLY";
+
+    private final Logger log = LoggerFactory.getLogger(ReplicaRoutingConnectionFactory.class);
+
+    private final ConnectionFactory primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Duration retryDelay;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingConnectionFactory(ConnectionFactory primary, List<? extends ConnectionFactory> replicas, Duration retryDelay) {
+        this.primary = primary;
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.add(new Replica("replica" + (i + 1), replicas.get(i)));
+        }
+        this.retryDelay = retryDelay;
+    }
+
+    /**
+     * Marks the connections created with the given context as used by a read-only transaction, or not.
+     * @param context the Reactor context of the connection creation.
+     * @param readOnly true if the connection only reads, so that it may be opened on a replica.
+     * @return the marked context.
+     */
+    public static Context withReadOnly(Context context, boolean readOnly) {
+        return context.put(READ_ONLY_KEY, readOnly);
+    }
+
+    @Override
+    public Mono<Connection> create() {
+        return Mono.deferContextual(
+            context -> context.getOrDefault(READ_ONLY_KEY, false) ? createOnReplica() : Mono.from(primary.create())
+        );
+    }
+
+    private Mono<Connection> createOnReplica() {
+        Replica replica = nextAvailableReplica();
+        if (replica == null) {
+            return Mono.from(primary.create());
+        }
+        return Mono
+            .<Connection>from(replica.connectionFactory.create())
+            .onErrorResume(
+                e -> {
+                    replica.markUnavailable();
+                    log.warn("Read replica {} left out for {}, using the primary database: {}", replica.name, retryDelay, e.getMessage());
+                    return Mono.from(primary.create());
+                }
+            );
+    }
+
+    private Replica nextAvailableReplica() {
+        long now = System.nanoTime();
+        int first = Math.floorMod(nextReplica.getAndIncrement(), Math.max(replicas.size(), 1));
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((first + i) % replicas.size());
+            if (replica.isAvailable(now)) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public ConnectionFactoryMetadata getMetadata() {
+        return primary.getMetadata();
+    }
+
+    /**
+     * @return the connection factories of the primary database, then of the replicas.
+     */
+    public List<ConnectionFactory> getConnectionFactories() {
+        List<ConnectionFactory> connectionFactories = new ArrayList<>();
+        connectionFactories.add(primary);
+        replicas.forEach(replica -> connectionFactories.add(replica.connectionFactory));
+        return Collections.unmodifiableList(connectionFactories);
+    }
+
+    @Override
+    public void dispose() {
+        for (ConnectionFactory connectionFactory : getConnectionFactories()) {
+            if (connectionFactory instanceof Disposable) {
+                ((Disposable) connectionFactory).dispose();
+            }
+        }
+    }
+
+    private class Replica {
+
+        private final String name;
+        private final ConnectionFactory connectionFactory;
+        private volatile boolean unavailable;
+        private volatile long retryTime;
+
+        Replica(String name, ConnectionFactory connectionFactory) {
+            this.name = name;
+            this.connectionFactory = connectionFactory;
+        }
+
+        boolean isAvailable(long now) {
+            return !unavailable || now - retryTime >= 0;
+        }
+
+        void markUnavailable() {
+            retryTime = System.nanoTime() + retryDelay.toNanos();
+            unavailable = true;
+        }
+    }
+}
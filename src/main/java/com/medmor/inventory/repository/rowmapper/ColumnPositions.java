@@ -0,0 +1,83 @@
+package com.medmor.inventory.repository.rowmapper;
+
+import com.medmor.inventory.service.ColumnConverter;
+import io.r2dbc.spi.ColumnMetadata;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+
+/**
+ * Positions of the columns of an entity in the rows of a query, so that they are read by index instead of by name.
+ * <p>
+ * The positions, and how each column is converted, are resolved from the metadata of the first row, and then reused for
+ * all the rows without looking the columns up by name: an instance must only be used for the rows of one query.
+ */
+public final class ColumnPositions {
+
+    private final ColumnConverter converter;
+    private final String[] names;
+    private final Class<?>[] types;
+    // written before the indexes, which publish them
+    private ColumnConverter.TypedColumn<?>[] columns;
+    private volatile int[] indexes;
+
+    /**
+     * @param converter the converter of the values.
+     * @param prefix the prefix of the column aliases in the query, such as {@code e}.
+     * @param columns the columns of the entity, without prefix.
+     * @param types the types the columns are read as, in the same order.
+     */
+    public ColumnPositions(ColumnConverter converter, String prefix, String[] columns, Class<?>[] types) {
+        this.converter = converter;
+        this.types = types;
+        this.names = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            names[i] = prefix + "_" + columns[i];
+        }
+    }
+
+    /**
+     * Resolves the positions and the conversions of the columns, on the first row.
+     * @param metadata the metadata of the row.
+     * @return this.
+     */
+    public ColumnPositions resolve(RowMetadata metadata) {
+        if (indexes == null) {
+            int[] resolved = new int[names.length];
+            ColumnConverter.TypedColumn<?>[] resolvedColumns = new ColumnConverter.TypedColumn<?>[names.length];
+            for (int i = 0; i < names.length; i++) {
+                resolved[i] = indexOf(metadata, names[i]);
+                resolvedColumns[i] = converter.column(names[i], types[i]);
+            }
+            columns = resolvedColumns;
+            indexes = resolved;
+        }
+        return this;
+    }
+
+    /**
+     * Reads a column of a row, see {@link ColumnConverter#fromRow(Row, int, String, Class)}.
+     * @param row the row, whose metadata the positions were resolved from.
+     * @param column the position of the column in the columns given to the constructor.
+     * @param target class, the type given to the constructor for the column.
+     * @param <T> the parameter for the intended type.
+     * @return the value of the column.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Row row, int column, Class<T> target) {
+        // the indexes are read first, as they publish the columns
+        int index = indexes[column];
+        return ((ColumnConverter.TypedColumn<T>) columns[column]).read(row, index);
+    }
+
+    private static int indexOf(RowMetadata metadata, String name) {
+        int index = 0;
+        for (ColumnMetadata column : metadata.getColumnMetadatas()) {
+            // some databases, like H2, return the aliases in upper case
+            if (column.getName().equalsIgnoreCase(name)) {
+                return index;
+            }
+            index++;
+        }
+        throw new IllegalArgumentException("Column " + name + " is not in the result of the query");
+    }
+}
@@ -5,6 +5,7 @@ import com.medmor.inventory.domain.enumeration.ContainerType;
 import com.medmor.inventory.domain.enumeration.ProductSize;
 import com.medmor.inventory.service.ColumnConverter;
 import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
 import java.util.function.BiFunction;
 import org.springframework.stereotype.Service;
 
@@ -14,6 +15,18 @@ import org.springframework.stereotype.Service;
 @Service
 public class ProductRowMapper implements BiFunction<Row, String, Product> {
 
+    private static final String[] COLUMNS = { "id", "product_size", "color", "price", "fragile", "lote", "container_type", "version" };
+    private static final Class<?>[] TYPES = {
+        Long.class,
+        ProductSize.class,
+        String.class,
+        Float.class,
+        Boolean.class,
+        String.class,
+        ContainerType.class,
+        Long.class,
+    };
+
     private final ColumnConverter converter;
 
     public ProductRowMapper(ColumnConverter converter) {
@@ -34,6 +47,30 @@ public class ProductRowMapper implements BiFunction<Row, String, Product> {
         entity.setFragile(converter.fromRow(row, prefix + "_fragile", Boolean.class));
         entity.setLote(converter.fromRow(row, prefix + "_lote", String.class));
         entity.setContainerType(converter.fromRow(row, prefix + "_container_type", ContainerType.class));
+        entity.setVersion(converter.fromRow(row, prefix + "_version", Long.class));
         return entity;
     }
+
+    /**
+     * Creates the mapper of the rows of a query, which reads the columns by index: their positions are resolved from the
+     * metadata of the first row, as all the rows of the query have the same.
+     * @param prefix the column prefix.
+     * @return the mapper, for the rows of a single query.
+     */
+    public BiFunction<Row, RowMetadata, Product> indexed(String prefix) {
+        ColumnPositions columns = new ColumnPositions(converter, prefix, COLUMNS, TYPES);
+        return (row, metadata) -> {
+            columns.resolve(metadata);
+            Product entity = new Product();
+            entity.setId(columns.get(row, 0, Long.class));
+            entity.setProductSize(columns.get(row, 1, ProductSize.class));
+            entity.setColor(columns.get(row, 2, String.class));
+            entity.setPrice(columns.get(row, 3, Float.class));
+            entity.setFragile(columns.get(row, 4, Boolean.class));
+            entity.setLote(columns.get(row, 5, String.class));
+            entity.setContainerType(columns.get(row, 6, ContainerType.class));
+            entity.setVersion(columns.get(row, 7, Long.class));
+            return entity;
+        };
+    }
 }
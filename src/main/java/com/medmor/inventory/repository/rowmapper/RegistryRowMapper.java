@@ -3,6 +3,7 @@ package com.medmor.inventory.repository.rowmapper;
 import com.medmor.inventory.domain.Registry;
 import com.medmor.inventory.service.ColumnConverter;
 import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
 import java.util.function.BiFunction;
 import org.springframework.stereotype.Service;
 
@@ -12,6 +13,9 @@ import org.springframework.stereotype.Service;
 @Service
 public class RegistryRowMapper implements BiFunction<Row, String, Registry> {
 
+    private static final String[] COLUMNS = { "id", "amount", "product_id", "section_id", "version" };
+    private static final Class<?>[] TYPES = { Long.class, Integer.class, Long.class, Long.class, Long.class };
+
     private final ColumnConverter converter;
 
     public RegistryRowMapper(ColumnConverter converter) {
@@ -29,6 +33,27 @@ public class RegistryRowMapper implements BiFunction<Row, String, Registry> {
         entity.setAmount(converter.fromRow(row, prefix + "_amount", Integer.class));
         entity.setProductId(converter.fromRow(row, prefix + "_product_id", Long.class));
         entity.setSectionId(converter.fromRow(row, prefix + "_section_id", Long.class));
+        entity.setVersion(converter.fromRow(row, prefix + "_version", Long.class));
         return entity;
     }
+
+    /**
+     * Creates the mapper of the rows of a query, which reads the columns by index: their positions are resolved from the
+     * metadata of the first row, as all the rows of the query have the same.
+     * @param prefix the column prefix.
+     * @return the mapper, for the rows of a single query.
+     */
+    public BiFunction<Row, RowMetadata, Registry> indexed(String prefix) {
+        ColumnPositions columns = new ColumnPositions(converter, prefix, COLUMNS, TYPES);
+        return (row, metadata) -> {
+            columns.resolve(metadata);
+            Registry entity = new Registry();
+            entity.setId(columns.get(row, 0, Long.class));
+            entity.setAmount(columns.get(row, 1, Integer.class));
+            entity.setProductId(columns.get(row, 2, Long.class));
+            entity.setSectionId(columns.get(row, 3, Long.class));
+            entity.setVersion(columns.get(row, 4, Long.class));
+            return entity;
+        };
+    }
 }
@@ -4,6 +4,7 @@ import com.medmor.inventory.domain.Section;
 import com.medmor.inventory.domain.enumeration.ProductType;
 import com.medmor.inventory.service.ColumnConverter;
 import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
 import java.util.function.BiFunction;
 import org.springframework.stereotype.Service;
 
@@ -13,6 +14,9 @@ import org.springframework.stereotype.Service;
 @Service
 public class SectionRowMapper implements BiFunction<Row, String, Section> {
 
+    private static final String[] COLUMNS = { "id", "area", "product_type", "version" };
+    private static final Class<?>[] TYPES = { Long.class, Float.class, ProductType.class, Long.class };
+
     private final ColumnConverter converter;
 
     public SectionRowMapper(ColumnConverter converter) {
@@ -29,6 +33,26 @@ public class SectionRowMapper implements BiFunction<Row, String, Section> {
         entity.setId(converter.fromRow(row, prefix + "_id", Long.class));
         entity.setArea(converter.fromRow(row, prefix + "_area", Float.class));
         entity.setProductType(converter.fromRow(row, prefix + "_product_type", ProductType.class));
+        entity.setVersion(converter.fromRow(row, prefix + "_version", Long.class));
         return entity;
     }
+
+    /**
+     * Creates the mapper of the rows of a query, which reads the columns by index: their positions are resolved from the
+     * metadata of the first row, as all the rows of the query have the same.
+     * @param prefix the column prefix.
+     * @return the mapper, for the rows of a single query.
+     */
+    public BiFunction<Row, RowMetadata, Section> indexed(String prefix) {
+        ColumnPositions columns = new ColumnPositions(converter, prefix, COLUMNS, TYPES);
+        return (row, metadata) -> {
+            columns.resolve(metadata);
+            Section entity = new Section();
+            entity.setId(columns.get(row, 0, Long.class));
+            entity.setArea(columns.get(row, 1, Float.class));
+            entity.setProductType(columns.get(row, 2, ProductType.class));
+            entity.setVersion(columns.get(row, 3, Long.class));
+            return entity;
+        };
+    }
 }
@@ -0,0 +1,33 @@
+package com.medmor.inventory.repository.rowmapper;
+
+import com.medmor.inventory.domain.StockLevel;
+import com.medmor.inventory.service.ColumnConverter;
+import io.r2dbc.spi.Row;
+import java.util.function.BiFunction;
+import org.springframework.stereotype.Service;
+
+/**
+ * Converter between {@link Row} to {@link StockLevel}, with proper type conversions.
+ */
+@Service
+public class StockLevelRowMapper implements BiFunction<Row, String, StockLevel> {
+
+    private final ColumnConverter converter;
+
+    public StockLevelRowMapper(ColumnConverter converter) {
+        this.converter = converter;
+    }
+
+    /**
+     * Take a {@link Row} and a column prefix, and extract all the fields.
+     * @return the {@link StockLevel} stored in the database.
+     */
+    @Override
+    public StockLevel apply(Row row, String prefix) {
+        StockLevel entity = new StockLevel();
+        entity.setProductId(converter.fromRow(row, prefix + "_product_id", Long.class));
+        entity.setSectionId(converter.fromRow(row, prefix + "_section_id", Long.class));
+        entity.setTotalAmount(converter.fromRow(row, prefix + "_total_amount", Long.class));
+        return entity;
+    }
+}
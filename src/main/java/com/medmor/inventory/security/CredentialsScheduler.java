@@ -0,0 +1,56 @@
+package com.medmor.inventory.security;
+
+import com.medmor.inventory.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Dedicated, bounded scheduler for the password hashing and verification, which take around 100ms of CPU each.
+ * <p>
+ * Keeping them off the event loop and off the shared bounded elastic scheduler means a burst of logins only queues up
+ * behind itself, and never delays the other requests. When the queue is full, new hashing tasks are rejected.
+ * <p>
+ * The executor is published to Micrometer under the {@code executor.*} meters, tagged with {@code name=credentials}:
+ * {@code executor.queued} is the number of waiting tasks, {@code executor.idle} their waiting time.
+ */
+@Component
+public class CredentialsScheduler implements DisposableBean {
+
+    public static final String NAME = "credentials";
+
+    private final Scheduler scheduler;
+
+    public CredentialsScheduler(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.CredentialsHashing properties = applicationProperties.getCredentialsHashing();
+        int threads = properties.getThreads() > 0 ? properties.getThreads() : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            threads,
+            threads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(properties.getQueueCapacity()),
+            new CustomizableThreadFactory(NAME + "-")
+        );
+        ExecutorService monitored = ExecutorServiceMetrics.monitor(meterRegistry, executor, NAME, Tags.empty());
+        this.scheduler = Schedulers.fromExecutorService(monitored, NAME);
+    }
+
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.dispose();
+    }
+}
@@ -1,5 +1,9 @@
 package com.medmor.inventory.security.jwt;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.medmor.inventory.config.ApplicationProperties;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.jackson.io.JacksonSerializer;
@@ -7,6 +11,7 @@ import io.jsonwebtoken.security.Keys;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,7 +39,9 @@ public class TokenProvider {
 
     private final long tokenValidityInMillisecondsForRememberMe;
 
-    public TokenProvider(JHipsterProperties jHipsterProperties) {
+    private final Cache<String, CachedAuthentication> authenticationCache;
+
+    public TokenProvider(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
         byte[] keyBytes;
         String secret = jHipsterProperties.getSecurity().getAuthentication().getJwt().getSecret();
         if (!ObjectUtils.isEmpty(secret)) {
@@ -52,6 +59,12 @@ public class TokenProvider {
         this.tokenValidityInMilliseconds = 1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSeconds();
         this.tokenValidityInMillisecondsForRememberMe =
             1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSecondsForRememberMe();
+        this.authenticationCache =
+            Caffeine
+                .newBuilder()
+                .maximumSize(applicationProperties.getAuthenticationCache().getMaxEntries())
+                .expireAfter(new UntilTokenExpiration())
+                .build();
     }
 
     public String createToken(Authentication authentication, boolean rememberMe) {
@@ -75,9 +88,37 @@ public class TokenProvider {
             .compact();
     }
 
+    /**
+     * Returns the authentication of a valid token, verifying its signature only the first time it is seen: the authentication
+     * is then served from memory until the token expires.
+     * @param token the JWT.
+     * @return the authentication, or empty if the token is invalid or expired.
+     */
+    public Optional<Authentication> resolveAuthentication(String token) {
+        CachedAuthentication cached = authenticationCache.getIfPresent(token);
+        if (cached != null) {
+            return Optional.of(cached.authentication);
+        }
+        try {
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
+            Authentication authentication = getAuthentication(token, claims);
+            // tokens without expiration are never cached, as they could not be evicted
+            if (claims.getExpiration() != null) {
+                authenticationCache.put(token, new CachedAuthentication(authentication, claims.getExpiration().getTime()));
+            }
+            return Optional.of(authentication);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.info("Invalid JWT token.");
+            log.trace("Invalid JWT token trace.", e);
+        }
+        return Optional.empty();
+    }
+
     public Authentication getAuthentication(String token) {
-        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        return getAuthentication(token, jwtParser.parseClaimsJws(token).getBody());
+    }
 
+    private Authentication getAuthentication(String token, Claims claims) {
         Collection<? extends GrantedAuthority> authorities = Arrays
             .stream(claims.get(AUTHORITIES_KEY).toString().split(","))
             .filter(auth -> !auth.trim().isEmpty())
@@ -99,4 +140,36 @@ public class TokenProvider {
         }
         return false;
     }
+
+    private static final class CachedAuthentication {
+
+        private final Authentication authentication;
+        private final long expirationTime;
+
+        private CachedAuthentication(Authentication authentication, long expirationTime) {
+            this.authentication = authentication;
+            this.expirationTime = expirationTime;
+        }
+    }
+
+    /**
+     * Expires the cached authentications at the expiration time of their token.
+     */
+    private static final class UntilTokenExpiration implements Expiry<String, CachedAuthentication> {
+
+        @Override
+        public long expireAfterCreate(String token, CachedAuthentication value, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, value.expirationTime - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, CachedAuthentication value, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, CachedAuthentication value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
@@ -0,0 +1,13 @@
+package com.medmor.inventory.service;
+
+/**
+ * Listener of the writes of the catalog, the products and sections, for the services whose in-memory state is derived
+ * from their attributes.
+ */
+public interface CatalogChangeListener {
+    /**
+     * Called when a section is inserted, or a product or section is updated or deleted, and again once the transaction
+     * writing it completes.
+     */
+    void onCatalogChange();
+}
@@ -0,0 +1,26 @@
+package com.medmor.inventory.service;
+
+import java.util.List;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service notifying the {@link CatalogChangeListener} beans of the product and section writes, for the repositories.
+ */
+@Service
+public class CatalogChangeNotifier {
+
+    private final List<CatalogChangeListener> listeners;
+
+    public CatalogChangeNotifier(List<CatalogChangeListener> listeners) {
+        this.listeners = listeners;
+    }
+
+    /**
+     * Notifies the listeners of a catalog write, now and once the current transaction, if any, is completed.
+     * @return a {@link Mono} completing once the listeners are notified and the second notification is registered.
+     */
+    public Mono<Void> catalogChanged() {
+        return TransactionCallbacks.nowAndAfterCompletion(() -> listeners.forEach(CatalogChangeListener::onCatalogChange));
+    }
+}
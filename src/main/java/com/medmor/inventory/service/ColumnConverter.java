@@ -1,6 +1,10 @@
 package com.medmor.inventory.service;
 
 import io.r2dbc.spi.Row;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.data.r2dbc.convert.R2dbcConverter;
 import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
@@ -17,6 +21,11 @@ public class ColumnConverter {
     private final ConversionService conversionService;
     private final R2dbcCustomConversions conversions;
 
+    /**
+     * How each column is read, by target type then column name, resolved from the first non null value of the column.
+     */
+    private final Map<Class<?>, Map<String, TypedColumn<?>>> columns = new ConcurrentHashMap<>();
+
     public ColumnConverter(R2dbcCustomConversions conversions, R2dbcConverter r2dbcConverter) {
         this.conversionService = r2dbcConverter.getConversionService();
         this.conversions = conversions;
@@ -48,6 +57,10 @@ public class ColumnConverter {
 
     /**
      * Convert a value from the {@link Row} to a type - throws an exception, it it's impossible.
+     * <p>
+     * The first non null value of a column tells whether the driver decodes it to the target type by itself, or which
+     * conversion is needed: the decision is kept for the column and the target type, so that the next rows are read without
+     * trial and error.
      * @param row which contains the column values.
      * @param target class.
      * @param columnName the name of the column which to convert.
@@ -55,12 +68,190 @@ public class ColumnConverter {
      * @return the value which can be constructed from the input.
      */
     public <T> T fromRow(Row row, String columnName, Class<T> target) {
-        try {
-            // try, directly the driver
-            return row.get(columnName, target);
-        } catch (Exception e) {
-            Object obj = row.get(columnName);
-            return convert(obj, target);
+        return column(columnName, target).read(row, columnName);
+    }
+
+    /**
+     * Convert a value from the {@link Row} to a type, reading the column by index - throws an exception, it it's impossible.
+     * @see #fromRow(Row, String, Class)
+     * @param row which contains the column values.
+     * @param index the position of the column in the row.
+     * @param columnName the name of the column, which the conversion is kept for.
+     * @param target class.
+     * @param <T> the parameter for the intended type.
+     * @return the value which can be constructed from the input.
+     */
+    public <T> T fromRow(Row row, int index, String columnName, Class<T> target) {
+        return column(columnName, target).read(row, index);
+    }
+
+    /**
+     * Returns how a column is read as a given type, for the callers which resolve their columns once for all the rows of a
+     * query, instead of looking them up on each row.
+     * @param columnName the name of the column, which the conversion is kept for.
+     * @param target class.
+     * @param <T> the parameter for the intended type.
+     * @return the column.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> TypedColumn<T> column(String columnName, Class<T> target) {
+        return (TypedColumn<T>) columns
+            .computeIfAbsent(target, type -> new ConcurrentHashMap<>())
+            .computeIfAbsent(columnName, name -> new TypedColumn<>(target));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> ColumnReader<T> createReader(Object value, Class<T> target, Supplier<T> driverRead) {
+        ColumnReader<T> reader;
+        if (ClassUtils.isAssignableValue(target, value)) {
+            reader = new DriverReader<>(target);
+        } else if (Enum.class.isAssignableFrom(target) && !conversions.hasCustomReadTarget(value.getClass(), target)) {
+            reader = (ColumnReader<T>) new EnumReader<>((Class<? extends Enum<?>>) target);
+        } else {
+            reader = new ConvertingReader<>(target);
+            try {
+                // try, directly the driver
+                driverRead.get();
+                reader = new DriverReader<>(target);
+            } catch (Exception e) {
+                // converted from the value read by the driver
+            }
+        }
+        return reader;
+    }
+
+    /**
+     * A column read as a given type: the reader is chosen on the first non null value, and then kept for the next rows.
+     *
+     * @param <T> the type the column is read as.
+     */
+    public final class TypedColumn<T> {
+
+        private final Class<T> target;
+        private volatile ColumnReader<T> reader;
+
+        private TypedColumn(Class<T> target) {
+            this.target = target;
+        }
+
+        /**
+         * @param row which contains the column values.
+         * @param index the position of the column in the row.
+         * @return the value of the column.
+         */
+        public T read(Row row, int index) {
+            ColumnReader<T> current = reader;
+            if (current == null) {
+                Object value = row.get(index);
+                if (value == null) {
+                    return null;
+                }
+                current = reader = createReader(value, target, () -> row.get(index, target));
+            }
+            return current.read(row, index);
+        }
+
+        T read(Row row, String columnName) {
+            ColumnReader<T> current = reader;
+            if (current == null) {
+                Object value = row.get(columnName);
+                if (value == null) {
+                    return null;
+                }
+                current = reader = createReader(value, target, () -> row.get(columnName, target));
+            }
+            return current.read(row, columnName);
+        }
+    }
+
+    /**
+     * Reads a column of a row as a given type.
+     */
+    private interface ColumnReader<T> {
+        T read(Row row, String columnName);
+
+        T read(Row row, int index);
+    }
+
+    /**
+     * Reads a column decoded to the target type by the driver.
+     */
+    private static final class DriverReader<T> implements ColumnReader<T> {
+
+        private final Class<T> type;
+
+        private DriverReader(Class<T> type) {
+            this.type = type;
+        }
+
+        @Override
+        public T read(Row row, String columnName) {
+            return row.get(columnName, type);
+        }
+
+        @Override
+        public T read(Row row, int index) {
+            return row.get(index, type);
+        }
+    }
+
+    /**
+     * Reads a column as decoded by the driver, and converts it with {@link #convert(Object, Class)}.
+     */
+    private final class ConvertingReader<T> implements ColumnReader<T> {
+
+        private final Class<T> type;
+
+        private ConvertingReader(Class<T> type) {
+            this.type = type;
+        }
+
+        @Override
+        public T read(Row row, String columnName) {
+            return convert(row.get(columnName), type);
+        }
+
+        @Override
+        public T read(Row row, int index) {
+            return convert(row.get(index), type);
+        }
+    }
+
+    /**
+     * Reads an enum stored by name, from a lookup table of its constants.
+     */
+    private static final class EnumReader<E extends Enum<?>> implements ColumnReader<E> {
+
+        private final Class<E> type;
+        private final Map<String, E> constants = new HashMap<>();
+
+        @SuppressWarnings("unchecked")
+        private EnumReader(Class<? extends Enum<?>> type) {
+            this.type = (Class<E>) type;
+            for (E constant : this.type.getEnumConstants()) {
+                constants.put(constant.name(), constant);
+            }
+        }
+
+        @Override
+        public E read(Row row, String columnName) {
+            return toConstant(row.get(columnName));
+        }
+
+        @Override
+        public E read(Row row, int index) {
+            return toConstant(row.get(index));
+        }
+
+        private E toConstant(Object value) {
+            if (value == null) {
+                return null;
+            }
+            E constant = constants.get(value.toString());
+            if (constant == null) {
+                throw new IllegalArgumentException("No enum constant " + type.getCanonicalName() + "." + value);
+            }
+            return constant;
         }
     }
 }
@@ -0,0 +1,162 @@
+package com.medmor.inventory.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.data.relational.core.sql.BindMarker;
+import org.springframework.data.relational.core.sql.Column;
+import org.springframework.data.relational.core.sql.Condition;
+import org.springframework.data.relational.core.sql.Conditions;
+import org.springframework.data.relational.core.sql.Expression;
+import org.springframework.data.relational.core.sql.Functions;
+import org.springframework.data.relational.core.sql.SQL;
+import org.springframework.r2dbc.core.DatabaseClient;
+import tech.jhipster.service.filter.Filter;
+import tech.jhipster.service.filter.RangeFilter;
+import tech.jhipster.service.filter.StringFilter;
+
+/**
+ * Translates the {@link Filter}s of a criteria into a where clause, with a named bind marker for every value.
+ * <p>
+ * The values are never rendered into the SQL: the statement must be bound with {@link #bind(DatabaseClient.GenericExecuteSpec)}.
+ * Conditions of all the filters are combined with {@code AND}, string filters are case insensitive.
+ */
+public class ConditionBuilder {
+
+    private static final String MARKER_PREFIX = "criteria_";
+
+    private final List<Condition> conditions = new ArrayList<>();
+    private final Map<String, Object> bindings = new LinkedHashMap<>();
+    private final StringBuilder shape = new StringBuilder();
+
+    /**
+     * Adds the conditions of a filter on the given column.
+     * @param filter the filter, nothing is added if null.
+     * @param column the filtered column, qualified with its table alias.
+     * @return this builder.
+     */
+    public ConditionBuilder add(Filter<?> filter, Column column) {
+        if (filter == null) {
+            return this;
+        }
+        if (filter.getEquals() != null) {
+            add(column, "=", Conditions.isEqual(column, marker(filter.getEquals())));
+        }
+        if (filter.getNotEquals() != null) {
+            add(column, "<>", Conditions.isNotEqual(column, marker(filter.getNotEquals())));
+        }
+        if (filter.getSpecified() != null) {
+            add(column, filter.getSpecified() ? "IS NOT NULL" : "IS NULL", filter.getSpecified() ? column.isNotNull() : column.isNull());
+        }
+        if (filter.getIn() != null && !filter.getIn().isEmpty()) {
+            add(column, "IN " + filter.getIn().size(), Conditions.in(column, markers(filter.getIn())));
+        }
+        if (filter.getNotIn() != null && !filter.getNotIn().isEmpty()) {
+            add(column, "NOT IN " + filter.getNotIn().size(), Conditions.notIn(column, markers(filter.getNotIn())));
+        }
+        if (filter instanceof RangeFilter) {
+            addRange((RangeFilter<?>) filter, column);
+        }
+        if (filter instanceof StringFilter) {
+            addString((StringFilter) filter, column);
+        }
+        return this;
+    }
+
+    private void addRange(RangeFilter<?> filter, Column column) {
+        if (filter.getGreaterThan() != null) {
+            add(column, ">", Conditions.isGreater(column, marker(filter.getGreaterThan())));
+        }
+        if (filter.getGreaterThanOrEqual() != null) {
+            add(column, ">=", Conditions.isGreaterOrEqualTo(column, marker(filter.getGreaterThanOrEqual())));
+        }
+        if (filter.getLessThan() != null) {
+            add(column, "<", Conditions.isLess(column, marker(filter.getLessThan())));
+        }
+        if (filter.getLessThanOrEqual() != null) {
+            add(column, "<=", Conditions.isLessOrEqualTo(column, marker(filter.getLessThanOrEqual())));
+        }
+    }
+
+    private void addString(StringFilter filter, Column column) {
+        if (filter.getContains() != null) {
+            add(column, "LIKE", Conditions.like(Functions.upper(column), marker(containsPattern(filter.getContains()))));
+        }
+        if (filter.getDoesNotContain() != null) {
+            add(column, "NOT LIKE", Conditions.notLike(Functions.upper(column), marker(containsPattern(filter.getDoesNotContain()))));
+        }
+    }
+
+    private void add(Column column, String operator, Condition condition) {
+        conditions.add(condition);
+        shape
+            .append(column.getTable().getReferenceName().getReference())
+            .append('.')
+            .append(column.getName().getReference())
+            .append(' ')
+            .append(operator)
+            .append(';');
+    }
+
+    /**
+     * @return true, if no filter added a condition.
+     */
+    public boolean isEmpty() {
+        return conditions.isEmpty();
+    }
+
+    /**
+     * @return the conjunction of all the conditions, or null if there is none.
+     */
+    public Condition build() {
+        Condition where = null;
+        for (Condition condition : conditions) {
+            where = where == null ? condition : where.and(condition);
+        }
+        return where;
+    }
+
+    /**
+     * Returns the shape of the where clause: its columns and operators, without the values. Where clauses of the same shape
+     * render to the same SQL, so it can be used in the key of a {@link StatementCache}.
+     * @return the shape, empty if there is no condition.
+     */
+    public String getShape() {
+        return shape.toString();
+    }
+
+    /**
+     * Binds the values of the conditions to a statement rendered from {@link #build()}.
+     * @param spec the statement.
+     * @return the statement with the bound values.
+     */
+    public DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec) {
+        for (Map.Entry<String, Object> binding : bindings.entrySet()) {
+            spec = spec.bind(binding.getKey(), binding.getValue());
+        }
+        return spec;
+    }
+
+    private BindMarker marker(Object value) {
+        String name = MARKER_PREFIX + bindings.size();
+        // enums are stored by name
+        bindings.put(name, value instanceof Enum ? ((Enum<?>) value).name() : value);
+        return SQL.bindMarker(":" + name);
+    }
+
+    private List<Expression> markers(List<?> values) {
+        List<Expression> markers = new ArrayList<>();
+        for (Object value : values) {
+            markers.add(marker(value));
+        }
+        return markers;
+    }
+
+    private static String containsPattern(String value) {
+        // the default escape character of LIKE is the backslash on both PostgreSQL and H2
+        String escaped = value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return "%" + escaped.toUpperCase(Locale.ROOT) + "%";
+    }
+}
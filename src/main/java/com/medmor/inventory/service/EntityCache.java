@@ -0,0 +1,73 @@
+package com.medmor.inventory.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.medmor.inventory.repository.routing.PrimaryReads;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.function.Function;
+import reactor.core.publisher.Mono;
+
+/**
+ * Bounded, in-memory read-through cache of entities by id, for the repositories of rarely changing entities.
+ * <p>
+ * Entries expire after their time to live, or are evicted by the repositories when the entity is written. As other
+ * transactions may read and cache the old row until the write is committed, entries are evicted again once the current
+ * transaction completes. Entries are loaded from the primary database, see {@link PrimaryReads}.
+ * <p>
+ * Hits, misses and evictions are published to Micrometer under the {@code cache.*} meters, tagged with the cache name.
+ *
+ * @param <T> the type of the cached entities.
+ */
+public class EntityCache<T> {
+
+    private final Cache<Long, T> cache;
+    private final PrimaryReads primaryReads;
+
+    public EntityCache(String name, Duration timeToLive, long maximumSize, MeterRegistry meterRegistry, PrimaryReads primaryReads) {
+        this.cache = Caffeine.newBuilder().expireAfterWrite(timeToLive).maximumSize(maximumSize).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        this.primaryReads = primaryReads;
+    }
+
+    /**
+     * Returns the entity with the given id from the cache, or loads it and caches it.
+     * @param id the id of the entity.
+     * @param loader the function reading the entity from the database, on a cache miss.
+     * @return the entity, or empty if the loader didn't find it - which is not cached.
+     */
+    public Mono<T> get(Long id, Function<Long, Mono<T>> loader) {
+        if (id == null) {
+            return loader.apply(null);
+        }
+        return Mono.defer(
+            () -> {
+                T cached = cache.getIfPresent(id);
+                if (cached != null) {
+                    return Mono.just(cached);
+                }
+                return primaryReads.read(loader.apply(id)).doOnNext(entity -> cache.put(id, entity));
+            }
+        );
+    }
+
+    /**
+     * Evicts the entity with the given id, now and once the current transaction, if any, is completed.
+     * @param id the id of the entity.
+     * @return a {@link Mono} completing once the eviction is done or registered.
+     */
+    public Mono<Void> evict(Long id) {
+        if (id == null) {
+            return Mono.empty();
+        }
+        return TransactionCallbacks.nowAndAfterCompletion(() -> cache.invalidate(id));
+    }
+
+    /**
+     * Drops all the cached entities, for writes which aren't done through the repository.
+     */
+    public void clear() {
+        cache.invalidateAll();
+    }
+}
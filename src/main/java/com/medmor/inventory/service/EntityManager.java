@@ -2,28 +2,44 @@ package com.medmor.inventory.service;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.stream.Stream;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
 import org.springframework.data.r2dbc.convert.R2dbcConverter;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
 import org.springframework.data.r2dbc.core.StatementMapper;
+import org.springframework.data.r2dbc.dialect.H2Dialect;
+import org.springframework.data.r2dbc.dialect.PostgresDialect;
+import org.springframework.data.r2dbc.dialect.R2dbcDialect;
 import org.springframework.data.r2dbc.mapping.OutboundRow;
 import org.springframework.data.r2dbc.query.UpdateMapper;
 import org.springframework.data.relational.core.mapping.RelationalPersistentEntity;
+import org.springframework.data.relational.core.mapping.RelationalPersistentProperty;
 import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.data.relational.core.sql.BindMarker;
+import org.springframework.data.relational.core.sql.Column;
+import org.springframework.data.relational.core.sql.Condition;
 import org.springframework.data.relational.core.sql.Conditions;
+import org.springframework.data.relational.core.sql.IdentifierProcessing;
 import org.springframework.data.relational.core.sql.OrderByField;
+import org.springframework.data.relational.core.sql.SQL;
 import org.springframework.data.relational.core.sql.Select;
 import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoin;
 import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoinCondition;
 import org.springframework.data.relational.core.sql.SelectBuilder.SelectOrdered;
+import org.springframework.data.relational.core.sql.SelectBuilder.SelectWhere;
 import org.springframework.data.relational.core.sql.SqlIdentifier;
 import org.springframework.data.relational.core.sql.Table;
 import org.springframework.data.relational.core.sql.render.SqlRenderer;
+import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.r2dbc.core.Parameter;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
@@ -39,6 +55,10 @@ public class EntityManager {
 
     public static final String ENTITY_ALIAS = "e";
     public static final String ALIAS_PREFIX = "e_";
+    public static final String KEYSET_VALUE_MARKER = "keyset_value";
+    public static final String KEYSET_ID_MARKER = "keyset_id";
+    public static final String PAGE_SIZE_MARKER = "page_size";
+    public static final String PAGE_OFFSET_MARKER = "page_offset";
 
     public static class LinkTable {
 
@@ -60,74 +80,195 @@ public class EntityManager {
     private final UpdateMapper updateMapper;
     private final R2dbcEntityTemplate r2dbcEntityTemplate;
     private final StatementMapper statementMapper;
+    private final boolean returningSupported;
 
-    public EntityManager(SqlRenderer sqlRenderer, UpdateMapper updateMapper, R2dbcEntityTemplate r2dbcEntityTemplate) {
+    public EntityManager(
+        SqlRenderer sqlRenderer,
+        UpdateMapper updateMapper,
+        R2dbcEntityTemplate r2dbcEntityTemplate,
+        R2dbcDialect dialect
+    ) {
         this.sqlRenderer = sqlRenderer;
         this.updateMapper = updateMapper;
         this.r2dbcEntityTemplate = r2dbcEntityTemplate;
         this.statementMapper = r2dbcEntityTemplate.getDataAccessStrategy().getStatementMapper();
+        // the H2 dialect extends the PostgreSQL one, but H2 has no RETURNING clause
+        this.returningSupported = dialect instanceof PostgresDialect && !(dialect instanceof H2Dialect);
     }
 
     /**
-     * Creates an SQL select statement from the given fragment and pagination parameters.
+     * Creates an SQL select statement from the given fragment, pagination parameters and where clause.
+     * When a page is requested, the statement contains the {@link #PAGE_SIZE_MARKER} and {@link #PAGE_OFFSET_MARKER} bind markers,
+     * which must be bound with {@link #bindPage(DatabaseClient.GenericExecuteSpec, Pageable)}: the SQL only depends on the sort,
+     * so that it can be cached and prepared once for all the pages.
      * @param selectFrom a representation of a select statement.
      * @param entityType the entity type which holds the table name.
      * @param pageable page parameter, or null, if everything needs to be returned
+     * @param whereClause the condition of the rows, built by a {@link ConditionBuilder}, or null for all the rows.
      * @return sql select statement
      */
-    public String createSelect(SelectFromAndJoin selectFrom, Class<?> entityType, Pageable pageable, Criteria criteria) {
-        if (pageable != null) {
-            if (criteria != null) {
-                return createSelectImpl(
-                    selectFrom.limitOffset(pageable.getPageSize(), pageable.getOffset()).where(Conditions.just(criteria.toString())),
-                    entityType,
-                    pageable.getSort()
-                );
-            } else {
-                return createSelectImpl(
-                    selectFrom.limitOffset(pageable.getPageSize(), pageable.getOffset()),
-                    entityType,
-                    pageable.getSort()
-                );
-            }
-        } else {
-            if (criteria != null) {
-                return createSelectImpl(selectFrom.where(Conditions.just(criteria.toString())), entityType, null);
-            } else {
-                return createSelectImpl(selectFrom, entityType, null);
-            }
-        }
+    public String createSelect(SelectFromAndJoin selectFrom, Class<?> entityType, Pageable pageable, Condition whereClause) {
+        return createPagedSelectImpl(where(selectFrom, whereClause), entityType, pageable);
     }
 
     /**
-     * Creates an SQL select statement from the given fragment and pagination parameters.
+     * Creates an SQL select statement from the given fragment, pagination parameters and where clause.
+     * When a page is requested, the statement must be bound with {@link #bindPage(DatabaseClient.GenericExecuteSpec, Pageable)}.
+     * @see #createSelect(SelectFromAndJoin, Class, Pageable, Condition)
      * @param selectFrom a representation of a select statement.
      * @param entityType the entity type which holds the table name.
      * @param pageable page parameter, or null, if everything needs to be returned
+     * @param whereClause the condition of the rows, built by a {@link ConditionBuilder}, or null for all the rows.
      * @return sql select statement
      */
-    public String createSelect(SelectFromAndJoinCondition selectFrom, Class<?> entityType, Pageable pageable, Criteria criteria) {
-        if (pageable != null) {
-            if (criteria != null) {
-                return createSelectImpl(
-                    selectFrom.limitOffset(pageable.getPageSize(), pageable.getOffset()).where(Conditions.just(criteria.toString())),
-                    entityType,
-                    pageable.getSort()
-                );
-            } else {
-                return createSelectImpl(
-                    selectFrom.limitOffset(pageable.getPageSize(), pageable.getOffset()),
-                    entityType,
-                    pageable.getSort()
-                );
-            }
-        } else {
-            if (criteria != null) {
-                return createSelectImpl(selectFrom.where(Conditions.just(criteria.toString())), entityType, null);
-            } else {
-                return createSelectImpl(selectFrom, entityType, null);
+    public String createSelect(SelectFromAndJoinCondition selectFrom, Class<?> entityType, Pageable pageable, Condition whereClause) {
+        return createPagedSelectImpl(where(selectFrom, whereClause), entityType, pageable);
+    }
+
+    /**
+     * Creates an SQL select statement returning every row in the given order, for streaming whole tables.
+     * @param selectFrom a representation of a select statement.
+     * @param entityType the entity type which holds the table name.
+     * @param sort the order of the rows, unsorted for the natural order of the table.
+     * @return sql select statement
+     */
+    public String createSelect(SelectOrdered selectFrom, Class<?> entityType, Sort sort) {
+        return createSelectImpl(selectFrom, entityType, sort);
+    }
+
+    /**
+     * Creates an SQL select statement which seeks past the given cursor, instead of skipping rows with an offset, restricted to
+     * the rows matching a where clause.
+     * When a cursor is given, the statement contains the {@link #KEYSET_VALUE_MARKER} and {@link #KEYSET_ID_MARKER} bind markers,
+     * which must be bound with {@link #bindKeyset(DatabaseClient.GenericExecuteSpec, Class, KeysetCursor)}.
+     * @param selectFrom a representation of a select statement.
+     * @param entityType the entity type which holds the table name.
+     * @param pageable page parameter, only the page size and the sort are used.
+     * @param after the position of the last row of the previous page, or null for the first page.
+     * @param whereClause the condition of the rows, built by a {@link ConditionBuilder}, or null for all the rows.
+     * @return sql select statement
+     */
+    public String createKeysetSelect(
+        SelectFromAndJoin selectFrom,
+        Class<?> entityType,
+        Pageable pageable,
+        KeysetCursor after,
+        Condition whereClause
+    ) {
+        return createKeysetSelectImpl(selectFrom.limit(pageable.getPageSize()), entityType, pageable.getSort(), after, whereClause);
+    }
+
+    /**
+     * Creates an SQL select statement which seeks past the given cursor, instead of skipping rows with an offset, restricted to
+     * the rows matching a where clause.
+     * When a cursor is given, the statement contains the {@link #KEYSET_VALUE_MARKER} and {@link #KEYSET_ID_MARKER} bind markers,
+     * which must be bound with {@link #bindKeyset(DatabaseClient.GenericExecuteSpec, Class, KeysetCursor)}.
+     * @param selectFrom a representation of a select statement.
+     * @param entityType the entity type which holds the table name.
+     * @param pageable page parameter, only the page size and the sort are used.
+     * @param after the position of the last row of the previous page, or null for the first page.
+     * @param whereClause the condition of the rows, built by a {@link ConditionBuilder}, or null for all the rows.
+     * @return sql select statement
+     */
+    public String createKeysetSelect(
+        SelectFromAndJoinCondition selectFrom,
+        Class<?> entityType,
+        Pageable pageable,
+        KeysetCursor after,
+        Condition whereClause
+    ) {
+        return createKeysetSelectImpl(selectFrom.limit(pageable.getPageSize()), entityType, pageable.getSort(), after, whereClause);
+    }
+
+    /**
+     * Binds the size and offset of the page to a statement created from a {@link Pageable} and a where clause by {@link #createSelect}.
+     * @param spec the statement.
+     * @param pageable the page, or null if everything is returned.
+     * @return the statement with the bound values.
+     */
+    public DatabaseClient.GenericExecuteSpec bindPage(DatabaseClient.GenericExecuteSpec spec, Pageable pageable) {
+        if (pageable == null) {
+            return spec;
+        }
+        return spec.bind(PAGE_SIZE_MARKER, pageable.getPageSize()).bind(PAGE_OFFSET_MARKER, pageable.getOffset());
+    }
+
+    /**
+     * Binds the values of the cursor to the statement created by {@link #createKeysetSelect}, converted to the type of the sort property.
+     * @param spec the statement.
+     * @param entityType the entity type which holds the table name.
+     * @param after the cursor, or null for the first page.
+     * @return the statement with the bound values.
+     */
+    public DatabaseClient.GenericExecuteSpec bindKeyset(DatabaseClient.GenericExecuteSpec spec, Class<?> entityType, KeysetCursor after) {
+        if (after == null) {
+            return spec;
+        }
+        spec = spec.bind(KEYSET_ID_MARKER, after.getId());
+        if (after.isIdOnly()) {
+            return spec;
+        }
+        Class<?> type = getPersistentEntity(entityType).getRequiredPersistentProperty(after.getProperty()).getType();
+        // enums are stored by name
+        Object value = type.isEnum() ? after.getValue() : getConversionService().convert(after.getValue(), type);
+        return spec.bind(KEYSET_VALUE_MARKER, value);
+    }
+
+    private String createKeysetSelectImpl(
+        SelectFromAndJoin selectFrom,
+        Class<?> entityType,
+        Sort sort,
+        KeysetCursor after,
+        Condition whereClause
+    ) {
+        RelationalPersistentEntity<?> entity = getPersistentEntity(entityType);
+        Table table = Table.create(entity.getTableName()).as(EntityManager.ENTITY_ALIAS);
+        Sort.Order order = KeysetCursor.getOrder(sort);
+        Column idColumn = table.column(entity.getRequiredIdProperty().getColumnName());
+        Column sortColumn = table.column(entity.getRequiredPersistentProperty(order.getProperty()).getColumnName());
+
+        Condition condition = null;
+        if (after != null) {
+            condition = keysetComparison(idColumn, SQL.bindMarker(":" + KEYSET_ID_MARKER), order);
+            if (!after.isIdOnly()) {
+                BindMarker valueMarker = SQL.bindMarker(":" + KEYSET_VALUE_MARKER);
+                Condition sameValue = Conditions.isEqual(sortColumn, valueMarker).and(condition);
+                condition = keysetComparison(sortColumn, valueMarker, order).or(Conditions.nest(sameValue));
             }
         }
+        if (whereClause != null) {
+            condition = condition == null ? whereClause : Conditions.nest(condition).and(Conditions.nest(whereClause));
+        }
+        SelectOrdered select = where(selectFrom, condition);
+
+        List<OrderByField> orderBy = new ArrayList<>();
+        if (!KeysetCursor.ID_PROPERTY.equals(order.getProperty())) {
+            orderBy.add(keysetOrderByField(sortColumn, order));
+        }
+        orderBy.add(keysetOrderByField(idColumn, order));
+        return createSelect(select.orderBy(orderBy).build());
+    }
+
+    private String createPagedSelectImpl(SelectOrdered select, Class<?> entityType, Pageable pageable) {
+        if (pageable == null) {
+            return createSelectImpl(select, entityType, null);
+        }
+        // the renderer writes the limit and offset as literals: bind them instead, with the clause common to PostgreSQL and H2
+        return createSelectImpl(select, entityType, pageable.getSort()) + " LIMIT :" + PAGE_SIZE_MARKER + " OFFSET :" + PAGE_OFFSET_MARKER;
+    }
+
+    private static SelectOrdered where(SelectWhere select, Condition whereClause) {
+        return whereClause != null ? select.where(whereClause) : select;
+    }
+
+    private static Condition keysetComparison(Column column, BindMarker marker, Sort.Order order) {
+        return order.isAscending() ? Conditions.isGreater(column, marker) : Conditions.isLess(column, marker);
+    }
+
+    private static OrderByField keysetOrderByField(Column column, Sort.Order order) {
+        // order by the select alias, as the unqualified column could be ambiguous with joined tables
+        OrderByField field = OrderByField.from(column.as(EntityManager.ALIAS_PREFIX + column.getName().getReference()));
+        return order.isAscending() ? field.asc() : field.desc();
     }
 
     private String createSelectImpl(SelectOrdered selectFrom, Class<?> entityType, Sort sortParameter) {
@@ -146,6 +287,15 @@ public class EntityManager {
         return r2dbcEntityTemplate.getConverter().getMappingContext().getPersistentEntity(entityType);
     }
 
+    @SuppressWarnings("unchecked")
+    private <S> RelationalPersistentEntity<S> getPersistentEntityOf(S entity) {
+        return (RelationalPersistentEntity<S>) getPersistentEntity(entity.getClass());
+    }
+
+    private ConversionService getConversionService() {
+        return r2dbcEntityTemplate.getConverter().getConversionService();
+    }
+
     /**
      * Delete all the entity with the given type, and return the number of deletions.
      * @param entityType the entity type which holds the table name.
@@ -184,6 +334,156 @@ public class EntityManager {
         return r2dbcEntityTemplate.insert(entity);
     }
 
+    /**
+     * Updates the given entity with a single statement, which increments its version.
+     * If the entity has a version, the row is only updated if it still has this version, and the version of the entity
+     * is incremented. Otherwise the row is overwritten, and the version of the entity is left null, as its new value
+     * isn't read back.
+     * @param <S> the type of the persisted entity, with a {@code Long} {@link org.springframework.data.annotation.Version}.
+     * @param entity the entity to be updated in the database.
+     * @return the number of updated rows, 0 if the row doesn't exist or has another version.
+     * @see #notUpdated(Object)
+     */
+    public <S> Mono<Integer> update(S entity) {
+        VersionedUpdate<S> update = new VersionedUpdate<>(entity, false);
+        return update
+            .statement("")
+            .fetch()
+            .rowsUpdated()
+            .doOnNext(
+                updated -> {
+                    if (updated > 0) {
+                        update.incrementVersion();
+                    }
+                }
+            );
+    }
+
+    /**
+     * Updates the non-null properties of the given entity with a single statement, which increments its version, and
+     * is conditional on it when the entity has one.
+     * The updated row is returned by the statement on PostgreSQL. H2 has no {@code RETURNING} clause, so it is read
+     * again there.
+     * @param <S> the type of the persisted entity, with a {@code Long} {@link org.springframework.data.annotation.Version}.
+     * @param entity the entity with the properties to update, and its id.
+     * @return the updated entity, or empty if the row doesn't exist or has another version.
+     * @see #notUpdated(Object)
+     */
+    public <S> Mono<S> partialUpdate(S entity) {
+        VersionedUpdate<S> update = new VersionedUpdate<>(entity, true);
+        Class<S> entityType = update.persistentEntity.getType();
+        if (returningSupported) {
+            return update.statement(" RETURNING *").map(r2dbcEntityTemplate.getDataAccessStrategy().getRowMapper(entityType)).one();
+        }
+        return update
+            .statement("")
+            .fetch()
+            .rowsUpdated()
+            .filter(updated -> updated > 0)
+            .flatMap(updated -> r2dbcEntityTemplate.selectOne(update.whereId(), entityType));
+    }
+
+    /**
+     * Finds out why {@link #update(Object)} didn't update the row of an entity, which is only read for a versioned update.
+     * @param <S> the type of the entity.
+     * @param entity the entity which wasn't updated.
+     * @return an empty {@link Mono} if the row doesn't exist, or an {@link OptimisticLockingFailureException} if it has another
+     * version than the entity.
+     */
+    public <S> Mono<S> notUpdated(S entity) {
+        RelationalPersistentEntity<S> persistentEntity = getPersistentEntityOf(entity);
+        PersistentPropertyAccessor<S> accessor = persistentEntity.getPropertyAccessor(entity);
+        Object id = accessor.getProperty(persistentEntity.getRequiredIdProperty());
+        if (accessor.getProperty(persistentEntity.getRequiredVersionProperty()) == null) {
+            return Mono.empty();
+        }
+        return r2dbcEntityTemplate
+            .exists(Query.query(Criteria.where(persistentEntity.getRequiredIdProperty().getName()).is(id)), entity.getClass())
+            .flatMap(
+                exists ->
+                    exists
+                        ? Mono.error(
+                            new OptimisticLockingFailureException(
+                                String.format(
+                                    "Failed to update table [%s]. Version does not match for row with Id [%s].",
+                                    persistentEntity.getTableName(),
+                                    id
+                                )
+                            )
+                        )
+                        : Mono.empty()
+            );
+    }
+
+    /**
+     * Update statement of a versioned entity, which increments the version, and is conditional on it when it is known.
+     */
+    private class VersionedUpdate<S> {
+
+        private final S entity;
+        private final RelationalPersistentEntity<S> persistentEntity;
+        private final RelationalPersistentProperty versionProperty;
+        private final Parameter id;
+        private final Long version;
+        private final StringBuilder sql = new StringBuilder();
+        private final Map<String, Parameter> bindings = new LinkedHashMap<>();
+
+        VersionedUpdate(S entity, boolean nonNullOnly) {
+            this.entity = entity;
+            this.persistentEntity = getPersistentEntityOf(entity);
+            this.versionProperty = persistentEntity.getRequiredVersionProperty();
+            SqlIdentifier idColumn = persistentEntity.getRequiredIdProperty().getColumnName();
+            SqlIdentifier versionColumn = versionProperty.getColumnName();
+            OutboundRow row = r2dbcEntityTemplate.getDataAccessStrategy().getOutboundRow(entity);
+            this.id = row.remove(idColumn);
+            this.version = (Long) row.remove(versionColumn).getValue();
+
+            sql.append("UPDATE ").append(toSql(persistentEntity.getTableName())).append(" SET ");
+            row.forEach(
+                (column, value) -> {
+                    if (!nonNullOnly || value.hasValue()) {
+                        sql.append(toSql(column)).append(" = :").append(bindMarker(column)).append(", ");
+                        bindings.put(bindMarker(column), r2dbcEntityTemplate.getDataAccessStrategy().getBindValue(value));
+                    }
+                }
+            );
+            String versionSql = toSql(versionColumn);
+            sql.append(versionSql).append(" = ").append(versionSql).append(" + 1");
+            sql.append(" WHERE ").append(toSql(idColumn)).append(" = :").append(bindMarker(idColumn));
+            bindings.put(bindMarker(idColumn), id);
+            if (version != null) {
+                sql.append(" AND ").append(versionSql).append(" = :").append(bindMarker(versionColumn));
+                bindings.put(bindMarker(versionColumn), Parameter.from(version));
+            }
+        }
+
+        private String toSql(SqlIdentifier identifier) {
+            return r2dbcEntityTemplate.getDataAccessStrategy().toSql(identifier);
+        }
+
+        DatabaseClient.GenericExecuteSpec statement(String suffix) {
+            DatabaseClient.GenericExecuteSpec spec = r2dbcEntityTemplate.getDatabaseClient().sql(sql + suffix);
+            for (Entry<String, Parameter> binding : bindings.entrySet()) {
+                spec = spec.bind(binding.getKey(), binding.getValue());
+            }
+            return spec;
+        }
+
+        Query whereId() {
+            return Query.query(Criteria.where(persistentEntity.getRequiredIdProperty().getName()).is(id.getValue()));
+        }
+
+        void incrementVersion() {
+            if (version != null) {
+                persistentEntity.getPropertyAccessor(entity).setProperty(versionProperty, version + 1);
+            }
+        }
+    }
+
+    private static String bindMarker(SqlIdentifier column) {
+        return column.getReference(IdentifierProcessing.NONE);
+    }
+
     /**
      * Updates the table, which links the entity with the referred entities.
      * @param table describes the link table, it contains a table name, the column name for the id, and for the referred entity id.
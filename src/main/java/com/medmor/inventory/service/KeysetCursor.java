@@ -0,0 +1,188 @@
+package com.medmor.inventory.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.Assert;
+
+/**
+ * Position in a keyset (seek) paginated result: the sort property value and the id of the last row of the previous page.
+ * <p>
+ * Only a single sort property is supported, the id is always used as the tie breaker, so that the order is total.
+ * The cursor is handed to clients as an opaque, url safe token by {@link #encode()}.
+ */
+public final class KeysetCursor {
+
+    public static final String ID_PROPERTY = "id";
+
+    private static final String SEPARATOR = "|";
+
+    private final String property;
+    private final Sort.Direction direction;
+    private final Long id;
+    private final String value;
+
+    private KeysetCursor(String property, Sort.Direction direction, Long id, String value) {
+        Assert.notNull(property, "property is null");
+        Assert.notNull(direction, "direction is null");
+        Assert.notNull(id, "id is null");
+        this.property = property;
+        this.direction = direction;
+        this.id = id;
+        this.value = value;
+    }
+
+    /**
+     * Returns the order keyset pagination is done by for the given sort: its only non-id property, or the id itself.
+     * @param sort the requested sort.
+     * @return the order used to seek through the rows.
+     * @throws IllegalArgumentException if the sort is on more than one property besides the id.
+     */
+    public static Sort.Order getOrder(Sort sort) {
+        List<Sort.Order> orders = new ArrayList<>();
+        Sort.Order idOrder = null;
+        for (Sort.Order order : sort) {
+            if (ID_PROPERTY.equals(order.getProperty())) {
+                idOrder = order;
+            } else {
+                orders.add(order);
+            }
+        }
+        if (orders.size() > 1) {
+            throw new IllegalArgumentException("Keyset pagination supports a single sort property, got " + sort);
+        }
+        if (orders.isEmpty()) {
+            return idOrder != null ? idOrder : Sort.Order.asc(ID_PROPERTY);
+        }
+        return orders.get(0);
+    }
+
+    /**
+     * Checks if the given sort can be used for keyset pagination.
+     * @param sort the requested sort.
+     * @return true, if the sort is on at most one property besides the id.
+     */
+    public static boolean isSupported(Sort sort) {
+        try {
+            getOrder(sort);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Creates the cursor which points after the given entity.
+     * @param entity the last entity of a page.
+     * @param id the id of the entity.
+     * @param sort the sort of the page.
+     * @return the cursor for the next page.
+     */
+    public static KeysetCursor after(Object entity, Long id, Sort sort) {
+        Sort.Order order = getOrder(sort);
+        if (ID_PROPERTY.equals(order.getProperty())) {
+            return new KeysetCursor(ID_PROPERTY, order.getDirection(), id, null);
+        }
+        BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(entity);
+        Object propertyValue = wrapper.getPropertyValue(order.getProperty());
+        Assert.notNull(propertyValue, () -> "Keyset pagination is not supported on null values of " + order.getProperty());
+        String value = propertyValue instanceof Enum ? ((Enum<?>) propertyValue).name() : propertyValue.toString();
+        return new KeysetCursor(order.getProperty(), order.getDirection(), id, value);
+    }
+
+    /**
+     * Parses a token created by {@link #encode()}.
+     * @param token the token sent by the client.
+     * @return the cursor.
+     * @throws IllegalArgumentException if the token is not a valid cursor.
+     */
+    public static KeysetCursor decode(String token) {
+        String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        String[] parts = decoded.split("\\" + SEPARATOR, 4);
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Invalid keyset cursor");
+        }
+        try {
+            boolean idOnly = ID_PROPERTY.equals(parts[0]);
+            return new KeysetCursor(parts[0], Sort.Direction.fromString(parts[1]), Long.valueOf(parts[2]), idOnly ? null : parts[3]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid keyset cursor", e);
+        }
+    }
+
+    /**
+     * @return the opaque, url safe representation of this cursor.
+     */
+    public String encode() {
+        String raw = property + SEPARATOR + direction.name() + SEPARATOR + id + SEPARATOR + (value != null ? value : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Checks if this cursor was created for the given sort, so that it can't be replayed against another ordering.
+     * @param sort the requested sort.
+     * @return true, if the cursor can be used with the sort.
+     */
+    public boolean isCompatibleWith(Sort sort) {
+        if (!isSupported(sort)) {
+            return false;
+        }
+        Sort.Order order = getOrder(sort);
+        return property.equals(order.getProperty()) && direction == order.getDirection();
+    }
+
+    public boolean isIdOnly() {
+        return ID_PROPERTY.equals(property);
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof KeysetCursor)) {
+            return false;
+        }
+        KeysetCursor that = (KeysetCursor) o;
+        return (
+            property.equals(that.property) && direction == that.direction && id.equals(that.id) && Objects.equals(value, that.value)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(property, direction, id, value);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "KeysetCursor{" +
+            "property='" + property + "'" +
+            ", direction=" + direction +
+            ", id=" + id +
+            ", value='" + value + "'" +
+            "}";
+    }
+}
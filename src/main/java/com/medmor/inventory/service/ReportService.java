@@ -0,0 +1,119 @@
+package com.medmor.inventory.service;
+
+import com.medmor.inventory.config.ApplicationProperties;
+import com.medmor.inventory.repository.ReportRepository;
+import com.medmor.inventory.repository.routing.PrimaryReads;
+import com.medmor.inventory.service.dto.FragileLoadDTO;
+import com.medmor.inventory.service.dto.ProductTypeStockDTO;
+import com.medmor.inventory.service.dto.SectionStockDTO;
+import com.medmor.inventory.service.dto.SectionValueDTO;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service serving the inventory reports, aggregated by the database.
+ * <p>
+ * When enabled, the rows of each report are kept in memory until their time to live expires, or until they are invalidated
+ * by a stock level write, or by a product or section write through the {@link CatalogChangeNotifier}. As other transactions
+ * may read and cache the old rows until the write is committed, the reports are invalidated again once it completes. The
+ * cached reports are read on the primary database rather than on a replica, with {@link PrimaryReads}.
+ */
+@Service
+public class ReportService implements CatalogChangeListener {
+
+    private static final class CachedReport {
+
+        private final List<?> rows;
+        private final long expiresAt;
+
+        private CachedReport(List<?> rows, long expiresAt) {
+            this.rows = rows;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final Map<String, CachedReport> reports = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    private final ReportRepository reportRepository;
+    private final PrimaryReads primaryReads;
+    private final boolean cacheEnabled;
+    private final long timeToLive;
+
+    public ReportService(ReportRepository reportRepository, PrimaryReads primaryReads, ApplicationProperties applicationProperties) {
+        this.reportRepository = reportRepository;
+        this.primaryReads = primaryReads;
+        this.cacheEnabled = applicationProperties.getReports().isCacheEnabled();
+        this.timeToLive = TimeUnit.SECONDS.toNanos(applicationProperties.getReports().getTimeToLiveInSeconds());
+    }
+
+    public Flux<SectionStockDTO> stockBySection() {
+        return cached("stock-by-section", reportRepository::stockBySection);
+    }
+
+    public Flux<ProductTypeStockDTO> stockByProductType() {
+        return cached("stock-by-product-type", reportRepository::stockByProductType);
+    }
+
+    public Flux<SectionValueDTO> valueBySection() {
+        return cached("value-by-section", reportRepository::valueBySection);
+    }
+
+    public Flux<FragileLoadDTO> fragileLoad() {
+        return cached("fragile-load", reportRepository::fragileLoad);
+    }
+
+    /**
+     * Drops the cached reports after a stock level write, now and once the current transaction, if any, is completed.
+     * @return a {@link Mono} completing once the invalidation is done or registered.
+     */
+    public Mono<Void> invalidate() {
+        if (!cacheEnabled) {
+            return Mono.empty();
+        }
+        return TransactionCallbacks.nowAndAfterCompletion(this::clear);
+    }
+
+    @Override
+    public void onCatalogChange() {
+        clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Flux<T> cached(String report, Supplier<Flux<T>> query) {
+        if (!cacheEnabled) {
+            return query.get();
+        }
+        return Flux.defer(
+            () -> {
+                CachedReport cached = reports.get(report);
+                if (cached != null && System.nanoTime() - cached.expiresAt < 0) {
+                    return Flux.fromIterable((List<T>) cached.rows);
+                }
+                long queryGeneration = generation.get();
+                List<T> rows = new ArrayList<>();
+                return primaryReads.readAll(query.get()).doOnNext(rows::add).doOnComplete(() -> store(report, queryGeneration, rows));
+            }
+        );
+    }
+
+    private synchronized void store(String report, long queryGeneration, List<?> rows) {
+        // a write happened while querying, the rows may be stale already
+        if (generation.get() == queryGeneration) {
+            reports.put(report, new CachedReport(List.copyOf(rows), System.nanoTime() + timeToLive));
+        }
+    }
+
+    private synchronized void clear() {
+        generation.incrementAndGet();
+        reports.clear();
+    }
+}
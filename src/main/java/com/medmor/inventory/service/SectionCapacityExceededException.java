@@ -0,0 +1,10 @@
+package com.medmor.inventory.service;
+
+public class SectionCapacityExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public SectionCapacityExceededException(Long sectionId) {
+        super("Section " + sectionId + " has no room left for this registry");
+    }
+}
@@ -0,0 +1,379 @@
+package com.medmor.inventory.service;
+
+import com.medmor.inventory.config.ApplicationProperties;
+import com.medmor.inventory.domain.enumeration.ContainerType;
+import com.medmor.inventory.domain.enumeration.ProductSize;
+import com.medmor.inventory.repository.routing.PrimaryReads;
+import com.medmor.inventory.service.dto.SectionOccupancyDTO;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+/**
+ * Service keeping the occupancy of each section: the area taken by its stock, from the stock levels and the footprint of
+ * one unit of each product, according to its size and container type.
+ * <p>
+ * The occupancy of a section is loaded on first use, then kept up to date by the stock level writes, which are checked
+ * against the area of the section: a write exceeding it is rejected or logged, depending on the configuration, and the
+ * writes of a transaction which is rolled back are reverted once it completes. The figures are dropped on product and
+ * section writes, which change the footprints and areas, and after their time to live, as other instances may write the
+ * stock too. The figures are always loaded from the primary database, as the writes are applied to them.
+ * <p>
+ * The sections are kept ordered by free area, so that the best section for a product is the first one, without scanning them.
+ */
+@Service
+public class SectionOccupancyService implements CatalogChangeListener {
+
+    private final Logger log = LoggerFactory.getLogger(SectionOccupancyService.class);
+
+    private static final String SECTION_QUERY = "SELECT id, CAST(area AS DOUBLE PRECISION) AS area FROM section";
+
+    private static final String USAGE_QUERY =
+        "SELECT l.section_id, p.product_size, p.container_type, CAST(SUM(l.total_amount) AS BIGINT) AS total_amount" +
+        " FROM stock_level l JOIN product p ON p.id = l.product_id";
+
+    private static final String USAGE_GROUP_BY = " GROUP BY l.section_id, p.product_size, p.container_type";
+
+    private static final String PRODUCT_QUERY = "SELECT product_size, container_type FROM product WHERE id = :id";
+
+    /**
+     * Area taken by one unit of a product, in the unit of the section areas, by {@link ProductSize} then {@link ContainerType}:
+     * glass takes more room for its padding, nylon bags less than rigid containers.
+     */
+    private static final Map<ProductSize, Map<ContainerType, Double>> FOOTPRINTS = new EnumMap<>(ProductSize.class);
+
+    static {
+        putFootprints(ProductSize.S, 0.01);
+        putFootprints(ProductSize.M, 0.04);
+        putFootprints(ProductSize.L, 0.09);
+        putFootprints(ProductSize.XL, 0.16);
+        putFootprints(ProductSize.XXL, 0.25);
+    }
+
+    // the occupancy is a sum of floating point footprints, which must not exceed an area filled exactly
+    private static final double TOLERANCE = 1e-6;
+
+    private static final class SectionOccupancy {
+
+        private final long id;
+        private final double area;
+        private double used;
+
+        private SectionOccupancy(long id, double area, double used) {
+            this.id = id;
+            this.area = area;
+            this.used = used;
+        }
+    }
+
+    private static final Comparator<SectionOccupancy> BY_FREE_AREA = Comparator
+        .comparingDouble((SectionOccupancy section) -> section.used - section.area)
+        .thenComparingLong(section -> section.id);
+
+    // guarded by this
+    private final Map<Long, SectionOccupancy> sections = new HashMap<>();
+    private final NavigableSet<SectionOccupancy> byFreeArea = new TreeSet<>(BY_FREE_AREA);
+    private final Map<Long, Double> footprints = new HashMap<>();
+    private boolean complete;
+    private long generation;
+    private long expiresAt;
+
+    private final DatabaseClient db;
+    private final PrimaryReads primaryReads;
+    private final boolean rejectOverCapacity;
+    private final long timeToLive;
+
+    public SectionOccupancyService(
+        R2dbcEntityTemplate r2dbcEntityTemplate,
+        PrimaryReads primaryReads,
+        ApplicationProperties applicationProperties
+    ) {
+        this.db = r2dbcEntityTemplate.getDatabaseClient();
+        this.primaryReads = primaryReads;
+        this.rejectOverCapacity = applicationProperties.getOccupancy().isRejectOverCapacity();
+        this.timeToLive = TimeUnit.SECONDS.toNanos(applicationProperties.getOccupancy().getTimeToLiveInSeconds());
+        this.expiresAt = System.nanoTime() + timeToLive;
+    }
+
+    /**
+     * Returns the area taken by one unit of a product.
+     * @param productSize the size of the product, a medium size is assumed if null.
+     * @param containerType the container of the product, a cardboard box is assumed if null.
+     * @return the footprint of one unit.
+     */
+    public static double footprint(ProductSize productSize, ContainerType containerType) {
+        ProductSize size = productSize != null ? productSize : ProductSize.M;
+        ContainerType container = containerType != null ? containerType : ContainerType.Cardboard;
+        Double footprint = FOOTPRINTS.getOrDefault(size, Map.of()).get(container);
+        if (footprint == null) {
+            throw new IllegalStateException("No footprint for size " + size + " and container " + container);
+        }
+        return footprint;
+    }
+
+    private static void putFootprints(ProductSize size, double area) {
+        Map<ContainerType, Double> byContainer = new EnumMap<>(ContainerType.class);
+        byContainer.put(ContainerType.Cardboard, area);
+        byContainer.put(ContainerType.Plastic, area);
+        byContainer.put(ContainerType.Glass, area * 1.25);
+        byContainer.put(ContainerType.Nylon, area * 0.75);
+        FOOTPRINTS.put(size, byContainer);
+    }
+
+    /**
+     * Accounts for the given amount of a product added to a section, before it is written.
+     * @param productId the id of the product, nothing is done if null.
+     * @param sectionId the id of the section, nothing is done if null.
+     * @param delta the amount to add, negative to remove.
+     * @return a {@link Mono} completing once the occupancy is updated, or failing with a
+     * {@link SectionCapacityExceededException} if the section has no room left and over-capacity writes are rejected.
+     */
+    public Mono<Void> add(Long productId, Long sectionId, long delta) {
+        if (productId == null || sectionId == null || delta == 0) {
+            return Mono.empty();
+        }
+        return footprint(productId).flatMap(footprint -> section(sectionId).flatMap(section -> apply(section, footprint * delta)));
+    }
+
+    /**
+     * Returns the section with the most free area, if it has room for the given amount of a product.
+     * @param productId the id of the product.
+     * @param amount the amount to store.
+     * @return the id of the section, or empty if none has room left or the product doesn't exist.
+     */
+    public Mono<Long> bestSectionFor(Long productId, long amount) {
+        return loadAll().then(footprint(productId)).flatMap(footprint -> Mono.justOrEmpty(bestSection(footprint * amount)));
+    }
+
+    /**
+     * Returns the occupancy of a section.
+     * @param sectionId the id of the section.
+     * @return the occupancy, or empty if the section doesn't exist.
+     */
+    public Mono<SectionOccupancyDTO> occupancy(Long sectionId) {
+        return section(sectionId).map(this::toDTO);
+    }
+
+    /**
+     * Drops the occupancy of all the sections, as products and sections carry the footprints and areas.
+     */
+    @Override
+    public void onCatalogChange() {
+        clear();
+    }
+
+    private Mono<Void> apply(SectionOccupancy section, double required) {
+        boolean overCapacity;
+        double used;
+        long appliedGeneration;
+        synchronized (this) {
+            if (sections.get(section.id) != section) {
+                // dropped while loading, the next load reads the stock levels again
+                return Mono.empty();
+            }
+            overCapacity = required > 0 && section.used + required > section.area + TOLERANCE;
+            if (overCapacity && rejectOverCapacity) {
+                return Mono.error(new SectionCapacityExceededException(section.id));
+            }
+            used = section.used + required;
+            setUsed(section, used);
+            appliedGeneration = generation;
+        }
+        if (overCapacity) {
+            log.warn("Section {} is over capacity, {} used of {}", section.id, used, section.area);
+        }
+        return TransactionCallbacks.afterCompletion(
+            status -> {
+                if (status != TransactionSynchronization.STATUS_COMMITTED) {
+                    revert(section, required, appliedGeneration);
+                }
+            }
+        );
+    }
+
+    private synchronized void revert(SectionOccupancy section, double required, long appliedGeneration) {
+        if (generation == appliedGeneration && sections.get(section.id) == section) {
+            setUsed(section, section.used - required);
+        }
+    }
+
+    private void setUsed(SectionOccupancy section, double used) {
+        // the position of the section in the ordered set depends on its occupancy
+        byFreeArea.remove(section);
+        section.used = used;
+        byFreeArea.add(section);
+    }
+
+    private synchronized Long bestSection(double required) {
+        if (byFreeArea.isEmpty()) {
+            return null;
+        }
+        SectionOccupancy best = byFreeArea.first();
+        return best.area - best.used + TOLERANCE >= required ? best.id : null;
+    }
+
+    private synchronized SectionOccupancyDTO toDTO(SectionOccupancy section) {
+        return new SectionOccupancyDTO(section.id, section.area, section.used);
+    }
+
+    private Mono<Double> footprint(Long productId) {
+        return Mono.defer(
+            () -> {
+                long loadGeneration;
+                synchronized (this) {
+                    expire();
+                    Double cached = footprints.get(productId);
+                    if (cached != null) {
+                        return Mono.just(cached);
+                    }
+                    loadGeneration = generation;
+                }
+                Mono<Double> query = db
+                    .sql(PRODUCT_QUERY)
+                    .bind("id", productId)
+                    .map(
+                        row ->
+                            footprint(
+                                toEnum(ProductSize.class, row.get("product_size", String.class)),
+                                toEnum(ContainerType.class, row.get("container_type", String.class))
+                            )
+                    )
+                    .one();
+                return primaryReads
+                    .read(query)
+                    .doOnNext(footprint -> storeFootprint(productId, footprint, loadGeneration));
+            }
+        );
+    }
+
+    private Mono<SectionOccupancy> section(Long sectionId) {
+        return Mono.defer(
+            () -> {
+                long loadGeneration;
+                synchronized (this) {
+                    expire();
+                    SectionOccupancy cached = sections.get(sectionId);
+                    if (cached != null) {
+                        return Mono.just(cached);
+                    }
+                    loadGeneration = generation;
+                }
+                return load(sectionId, loadGeneration).then(Mono.fromCallable(() -> getSection(sectionId)));
+            }
+        );
+    }
+
+    private Mono<Void> loadAll() {
+        return Mono.defer(
+            () -> {
+                long loadGeneration;
+                synchronized (this) {
+                    expire();
+                    if (complete) {
+                        return Mono.empty();
+                    }
+                    loadGeneration = generation;
+                }
+                return load(null, loadGeneration);
+            }
+        );
+    }
+
+    /**
+     * Reads the area and the occupancy of a section, or of all of them if the id is null, from the stock levels.
+     */
+    private Mono<Void> load(Long sectionId, long loadGeneration) {
+        String sectionWhere = sectionId != null ? " WHERE id = :section" : "";
+        String usageWhere = sectionId != null ? " WHERE l.section_id = :section" : "";
+        Mono<Map<Long, Double>> areas = bindSection(db.sql(SECTION_QUERY + sectionWhere), sectionId)
+            .map(row -> Tuples.of(row.get("id", Long.class), row.get("area", Double.class)))
+            .all()
+            .collectMap(Tuple2::getT1, Tuple2::getT2);
+        Mono<Map<Long, Double>> usages = bindSection(db.sql(USAGE_QUERY + usageWhere + USAGE_GROUP_BY), sectionId)
+            .map(
+                row ->
+                    Tuples.of(
+                        row.get("section_id", Long.class),
+                        row.get("total_amount", Long.class) *
+                        footprint(
+                            toEnum(ProductSize.class, row.get("product_size", String.class)),
+                            toEnum(ContainerType.class, row.get("container_type", String.class))
+                        )
+                    )
+            )
+            .all()
+            .collect(
+                HashMap::new,
+                (Map<Long, Double> used, Tuple2<Long, Double> usage) -> used.merge(usage.getT1(), usage.getT2(), Double::sum)
+            );
+        // one query after the other, as they may share the connection of the current transaction
+        Mono<Void> loaded = areas
+            .flatMap(loadedAreas -> usages.doOnNext(loadedUsages -> store(loadedAreas, loadedUsages, loadGeneration, sectionId == null)))
+            .then();
+        return primaryReads.read(loaded);
+    }
+
+    private DatabaseClient.GenericExecuteSpec bindSection(DatabaseClient.GenericExecuteSpec spec, Long sectionId) {
+        return sectionId != null ? spec.bind("section", sectionId) : spec;
+    }
+
+    private synchronized void store(Map<Long, Double> areas, Map<Long, Double> usages, long loadGeneration, boolean all) {
+        // a product or section was written while loading, the figures may be stale already
+        if (generation != loadGeneration) {
+            return;
+        }
+        areas.forEach(
+            (id, area) -> {
+                // the sections already loaded also count the writes done since
+                if (!sections.containsKey(id)) {
+                    SectionOccupancy section = new SectionOccupancy(id, area, usages.getOrDefault(id, 0d));
+                    sections.put(id, section);
+                    byFreeArea.add(section);
+                }
+            }
+        );
+        complete |= all;
+    }
+
+    private synchronized void storeFootprint(Long productId, double footprint, long loadGeneration) {
+        if (generation == loadGeneration) {
+            footprints.put(productId, footprint);
+        }
+    }
+
+    private synchronized SectionOccupancy getSection(Long sectionId) {
+        return sections.get(sectionId);
+    }
+
+    private void expire() {
+        if (System.nanoTime() - expiresAt >= 0) {
+            clear();
+        }
+    }
+
+    private synchronized void clear() {
+        generation++;
+        sections.clear();
+        byFreeArea.clear();
+        footprints.clear();
+        complete = false;
+        expiresAt = System.nanoTime() + timeToLive;
+    }
+
+    private static <E extends Enum<E>> E toEnum(Class<E> enumType, String name) {
+        return name != null ? Enum.valueOf(enumType, name) : null;
+    }
+}
@@ -0,0 +1,51 @@
+package com.medmor.inventory.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of the SQL rendered by the repositories, keyed by the shape of the query.
+ * <p>
+ * The key must hold everything the SQL text depends on - the query, its sort, the shape of its where clause - but none of
+ * the bound values: the same text is then sent for every execution, so that it is rendered once, and the database can
+ * reuse its prepared statement.
+ * <p>
+ * Hits and misses are published to Micrometer under the {@code cache.*} meters, tagged with the cache name.
+ */
+public class StatementCache {
+
+    private final Cache<List<Object>, String> cache;
+
+    public StatementCache(String name, long maximumSize, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder().maximumSize(maximumSize).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+
+    /**
+     * Creates the key of a statement.
+     * @param parts the query name, followed by everything its SQL depends on; nulls are allowed.
+     * @return the key.
+     */
+    public static List<Object> key(Object... parts) {
+        return Arrays.asList(parts);
+    }
+
+    /**
+     * Returns the SQL of the given key, rendering it on a cache miss.
+     * @param key the key of the statement, see {@link #key(Object...)}.
+     * @param renderer the function rendering the SQL.
+     * @return the SQL.
+     */
+    public String get(List<Object> key, Supplier<String> renderer) {
+        return cache.get(key, k -> renderer.get());
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,62 @@
+package com.medmor.inventory.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service reading the state of versioned entity tables, for the tags of the list endpoints, so that their conditional
+ * requests are answered without running the page and count queries.
+ * <p>
+ * The state of a table is its number of rows, its greatest id and the sum of the versions of its rows, read with a single
+ * aggregate which neither sorts nor returns the rows. Inserts raise the greatest id, as the ids are generated in increasing
+ * order, deletes lower the number of rows and updates raise the sum of the versions: every committed write changes it,
+ * whichever instance did it.
+ */
+@Service
+public class TableStateService {
+
+    private final R2dbcEntityTemplate r2dbcEntityTemplate;
+
+    private final Map<Class<?>, String> queries = new ConcurrentHashMap<>();
+
+    public TableStateService(R2dbcEntityTemplate r2dbcEntityTemplate) {
+        this.r2dbcEntityTemplate = r2dbcEntityTemplate;
+    }
+
+    /**
+     * Reads the state of the tables of the given entities.
+     * @param entityTypes the entity types which hold the table names, with an id and a version.
+     * @return the number of rows, greatest id and sum of the versions of each table, in the order of the types.
+     */
+    public Mono<List<Long>> state(Class<?>... entityTypes) {
+        return Flux.fromArray(entityTypes).concatMap(this::readState).collectList();
+    }
+
+    private Flux<Long> readState(Class<?> entityType) {
+        return r2dbcEntityTemplate
+            .getDatabaseClient()
+            .sql(queries.computeIfAbsent(entityType, this::createQuery))
+            .map(row -> List.of(row.get(0, Long.class), row.get(1, Long.class), row.get(2, Long.class)))
+            .one()
+            .flatMapIterable(state -> state);
+    }
+
+    private String createQuery(Class<?> entityType) {
+        String table = r2dbcEntityTemplate
+            .getConverter()
+            .getMappingContext()
+            .getRequiredPersistentEntity(entityType)
+            .getTableName()
+            .getReference();
+        // the casts keep the values BIGINT on both PostgreSQL and H2, whose sums are wider
+        return (
+            "SELECT CAST(COUNT(*) AS BIGINT), CAST(COALESCE(MAX(id), 0) AS BIGINT), CAST(COALESCE(SUM(version), 0) AS BIGINT) FROM " +
+            table
+        );
+    }
+}
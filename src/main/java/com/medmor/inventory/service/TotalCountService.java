@@ -0,0 +1,140 @@
+package com.medmor.inventory.service;
+
+import com.medmor.inventory.config.ApplicationProperties;
+import com.medmor.inventory.repository.routing.PrimaryReads;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.dialect.H2Dialect;
+import org.springframework.data.r2dbc.dialect.PostgresDialect;
+import org.springframework.data.r2dbc.dialect.R2dbcDialect;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service serving the total number of rows of entity tables, for the {@code X-Total-Count} header of the list endpoints.
+ * <p>
+ * Counts are kept in memory, adjusted by the repositories once their inserts and deletes commit, and recomputed once their time
+ * to live expires.
+ * On PostgreSQL, tables larger than the estimate threshold are counted with the planner statistics from {@code pg_class}
+ * instead of a full scan. The counts are read on the primary database, with {@link PrimaryReads}.
+ */
+@Service
+public class TotalCountService {
+
+    private final Logger log = LoggerFactory.getLogger(TotalCountService.class);
+
+    private static final String ESTIMATE_QUERY = "SELECT CAST(reltuples AS BIGINT) AS estimate FROM pg_class WHERE oid = to_regclass(:table)";
+
+    private static final class CachedCount {
+
+        private final AtomicLong generation = new AtomicLong();
+        private volatile long value;
+        private volatile long expiresAt;
+        private volatile boolean present;
+    }
+
+    private final Map<Class<?>, CachedCount> counts = new ConcurrentHashMap<>();
+
+    private final R2dbcEntityTemplate r2dbcEntityTemplate;
+    private final PrimaryReads primaryReads;
+    private final boolean estimateSupported;
+    private final long timeToLive;
+    private final long estimateThreshold;
+
+    public TotalCountService(
+        R2dbcEntityTemplate r2dbcEntityTemplate,
+        R2dbcDialect dialect,
+        PrimaryReads primaryReads,
+        ApplicationProperties applicationProperties
+    ) {
+        this.r2dbcEntityTemplate = r2dbcEntityTemplate;
+        this.primaryReads = primaryReads;
+        // the H2 dialect extends the PostgreSQL one, but H2 has no planner statistics
+        this.estimateSupported = dialect instanceof PostgresDialect && !(dialect instanceof H2Dialect);
+        this.timeToLive = TimeUnit.SECONDS.toNanos(applicationProperties.getTotalCount().getTimeToLiveInSeconds());
+        this.estimateThreshold = applicationProperties.getTotalCount().getEstimateThreshold();
+    }
+
+    /**
+     * Returns the number of rows of the given entity, from the cache if possible - the value can be approximate.
+     * @param entityType the entity type which holds the table name.
+     * @return the number of rows.
+     */
+    public Mono<Long> count(Class<?> entityType) {
+        CachedCount cached = counts.computeIfAbsent(entityType, type -> new CachedCount());
+        if (cached.present && System.nanoTime() - cached.expiresAt < 0) {
+            return Mono.just(cached.value);
+        }
+        long generation = cached.generation.get();
+        Mono<Long> count = estimateSupported && estimateThreshold > 0 ? estimateOrCount(entityType) : countRows(entityType);
+        return primaryReads.read(count).doOnNext(value -> store(cached, generation, value));
+    }
+
+    /**
+     * Counts the rows of the given entity in the database, and refreshes the cache with the result.
+     * @param entityType the entity type which holds the table name.
+     * @return the exact number of rows.
+     */
+    public Mono<Long> exactCount(Class<?> entityType) {
+        CachedCount cached = counts.computeIfAbsent(entityType, type -> new CachedCount());
+        long generation = cached.generation.get();
+        return primaryReads.read(countRows(entityType)).doOnNext(value -> store(cached, generation, value));
+    }
+
+    /**
+     * Adjusts the cached count of the given entity after rows were inserted or deleted, once the current transaction, if
+     * any, commits - rolled back writes leave the count unchanged.
+     * @param entityType the entity type which holds the table name.
+     * @param delta the number of inserted rows, negative for deleted rows.
+     * @return a {@link Mono} completing once the adjustment is registered or done.
+     */
+    public Mono<Void> adjust(Class<?> entityType, long delta) {
+        return TransactionCallbacks.afterCommit(() -> applyAdjustment(entityType, delta));
+    }
+
+    private void applyAdjustment(Class<?> entityType, long delta) {
+        CachedCount cached = counts.get(entityType);
+        if (cached != null) {
+            synchronized (cached) {
+                cached.generation.incrementAndGet();
+                cached.value = Math.max(0, cached.value + delta);
+            }
+        }
+    }
+
+    private void store(CachedCount cached, long generation, long value) {
+        synchronized (cached) {
+            // a write happened while counting, the value may be stale already
+            if (cached.generation.get() != generation) {
+                return;
+            }
+            cached.value = value;
+            cached.expiresAt = System.nanoTime() + timeToLive;
+            cached.present = true;
+        }
+    }
+
+    private Mono<Long> countRows(Class<?> entityType) {
+        return r2dbcEntityTemplate.count(Query.empty(), entityType);
+    }
+
+    private Mono<Long> estimateOrCount(Class<?> entityType) {
+        String table = r2dbcEntityTemplate.getDataAccessStrategy().getTableName(entityType).getReference();
+        return r2dbcEntityTemplate
+            .getDatabaseClient()
+            .sql(ESTIMATE_QUERY)
+            .bind("table", table)
+            .map(row -> row.get("estimate", Long.class))
+            .one()
+            // never analyzed tables have a negative estimate
+            .filter(estimate -> estimate >= estimateThreshold)
+            .doOnNext(estimate -> log.debug("Using estimated count {} for table {}", estimate, table))
+            .switchIfEmpty(Mono.defer(() -> countRows(entityType)));
+    }
+}
@@ -0,0 +1,78 @@
+package com.medmor.inventory.service;
+
+import java.util.function.IntConsumer;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+
+/**
+ * Utility class registering callbacks on the completion of the current reactive transaction, for the in-memory state
+ * which must follow what the transaction actually committed.
+ */
+public final class TransactionCallbacks {
+
+    private TransactionCallbacks() {}
+
+    /**
+     * Registers a callback run once the current transaction completes.
+     * @param callback the callback, given the {@link TransactionSynchronization} completion status.
+     * @return a {@link Mono} completing once the callback is registered, or at once if there is no transaction - the callback
+     * is not run then.
+     */
+    public static Mono<Void> afterCompletion(IntConsumer callback) {
+        return TransactionSynchronizationManager
+            .forCurrentTransaction()
+            .filter(TransactionSynchronizationManager::isSynchronizationActive)
+            .doOnNext(
+                synchronizationManager ->
+                    synchronizationManager.registerSynchronization(
+                        new TransactionSynchronization() {
+                            @Override
+                            public Mono<Void> afterCompletion(int status) {
+                                return Mono.fromRunnable(() -> callback.accept(status));
+                            }
+                        }
+                    )
+            )
+            .onErrorResume(NoTransactionException.class, e -> Mono.empty())
+            .then();
+    }
+
+    /**
+     * Runs the given action once the current transaction commits, or at once if there is no transaction.
+     * @param action the action, typically an update of in-memory state following the written rows.
+     * @return a {@link Mono} completing once the action is registered or done.
+     */
+    public static Mono<Void> afterCommit(Runnable action) {
+        return TransactionSynchronizationManager
+            .forCurrentTransaction()
+            .filter(TransactionSynchronizationManager::isSynchronizationActive)
+            .map(
+                synchronizationManager -> {
+                    synchronizationManager.registerSynchronization(
+                        new TransactionSynchronization() {
+                            @Override
+                            public Mono<Void> afterCommit() {
+                                return Mono.fromRunnable(action);
+                            }
+                        }
+                    );
+                    return true;
+                }
+            )
+            .onErrorResume(NoTransactionException.class, e -> Mono.empty())
+            .switchIfEmpty(Mono.fromRunnable(action))
+            .then();
+    }
+
+    /**
+     * Runs the given action at once, and again once the current transaction, if any, is completed: for caches which other
+     * transactions may fill with the old rows until the write is committed.
+     * @param action the action, typically an eviction.
+     * @return a {@link Mono} completing once the action is done and registered.
+     */
+    public static Mono<Void> nowAndAfterCompletion(Runnable action) {
+        return Mono.fromRunnable(action).then(afterCompletion(status -> action.run()));
+    }
+}
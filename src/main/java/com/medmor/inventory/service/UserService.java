@@ -6,6 +6,7 @@ import com.medmor.inventory.domain.User;
 import com.medmor.inventory.repository.AuthorityRepository;
 import com.medmor.inventory.repository.UserRepository;
 import com.medmor.inventory.security.AuthoritiesConstants;
+import com.medmor.inventory.security.CredentialsScheduler;
 import com.medmor.inventory.security.SecurityUtils;
 import com.medmor.inventory.service.dto.AdminUserDTO;
 import com.medmor.inventory.service.dto.UserDTO;
@@ -23,6 +24,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 import tech.jhipster.security.RandomUtil;
 
@@ -40,10 +42,18 @@ public class UserService {
 
     private final AuthorityRepository authorityRepository;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, AuthorityRepository authorityRepository) {
+    private final Scheduler credentialsScheduler;
+
+    public UserService(
+        UserRepository userRepository,
+        PasswordEncoder passwordEncoder,
+        AuthorityRepository authorityRepository,
+        CredentialsScheduler credentialsScheduler
+    ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authorityRepository = authorityRepository;
+        this.credentialsScheduler = credentialsScheduler.getScheduler();
     }
 
     @Transactional
@@ -68,7 +78,7 @@ public class UserService {
         return userRepository
             .findOneByResetKey(key)
             .filter(user -> user.getResetDate().isAfter(Instant.now().minusSeconds(86400)))
-            .publishOn(Schedulers.boundedElastic())
+            .publishOn(credentialsScheduler)
             .map(
                 user -> {
                     user.setPassword(passwordEncoder.encode(newPassword));
@@ -119,7 +129,7 @@ public class UserService {
                     }
                 }
             )
-            .publishOn(Schedulers.boundedElastic())
+            .publishOn(credentialsScheduler)
             .then(
                 Mono.fromCallable(
                     () -> {
@@ -177,7 +187,7 @@ public class UserService {
             .flatMap(authorityRepository::findById)
             .doOnNext(authority -> user.getAuthorities().add(authority))
             .then(Mono.just(user))
-            .publishOn(Schedulers.boundedElastic())
+            .publishOn(credentialsScheduler)
             .map(
                 newUser -> {
                     String encryptedPassword = passwordEncoder.encode(RandomUtil.generatePassword());
@@ -299,7 +309,7 @@ public class UserService {
         return SecurityUtils
             .getCurrentUserLogin()
             .flatMap(userRepository::findOneByLogin)
-            .publishOn(Schedulers.boundedElastic())
+            .publishOn(credentialsScheduler)
             .map(
                 user -> {
                     String currentEncryptedPassword = user.getPassword();
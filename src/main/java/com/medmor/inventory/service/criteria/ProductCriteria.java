@@ -0,0 +1,235 @@
+package com.medmor.inventory.service.criteria;
+
+import com.medmor.inventory.domain.enumeration.ContainerType;
+import com.medmor.inventory.domain.enumeration.ProductSize;
+import java.io.Serializable;
+import java.util.Objects;
+import tech.jhipster.service.Criteria;
+import tech.jhipster.service.filter.BooleanFilter;
+import tech.jhipster.service.filter.Filter;
+import tech.jhipster.service.filter.FloatFilter;
+import tech.jhipster.service.filter.LongFilter;
+import tech.jhipster.service.filter.StringFilter;
+
+/**
+ * Criteria class for the {@link com.medmor.inventory.domain.Product} entity. This class is used
+ * in {@link com.medmor.inventory.web.rest.ProductResource} to receive all the possible filtering options from
+ * the Http GET request parameters.
+ * For example the following could be a valid request:
+ * {@code /products?price.greaterThan=5&lote.contains=something&fragile.specified=false}
+ * As Spring is unable to properly convert the types, unless specific {@link Filter} class are used, we need to use
+ * fix type specific filters.
+ */
+public class ProductCriteria implements Serializable, Criteria {
+
+    /**
+     * Class for filtering ProductSize
+     */
+    public static class ProductSizeFilter extends Filter<ProductSize> {
+
+        public ProductSizeFilter() {}
+
+        public ProductSizeFilter(ProductSizeFilter filter) {
+            super(filter);
+        }
+
+        @Override
+        public ProductSizeFilter copy() {
+            return new ProductSizeFilter(this);
+        }
+    }
+
+    /**
+     * Class for filtering ContainerType
+     */
+    public static class ContainerTypeFilter extends Filter<ContainerType> {
+
+        public ContainerTypeFilter() {}
+
+        public ContainerTypeFilter(ContainerTypeFilter filter) {
+            super(filter);
+        }
+
+        @Override
+        public ContainerTypeFilter copy() {
+            return new ContainerTypeFilter(this);
+        }
+    }
+
+    private static final long serialVersionUID = 1L;
+
+    private LongFilter id;
+
+    private ProductSizeFilter productSize;
+
+    private StringFilter color;
+
+    private FloatFilter price;
+
+    private BooleanFilter fragile;
+
+    private StringFilter lote;
+
+    private ContainerTypeFilter containerType;
+
+    public ProductCriteria() {}
+
+    public ProductCriteria(ProductCriteria other) {
+        this.id = other.id == null ? null : other.id.copy();
+        this.productSize = other.productSize == null ? null : other.productSize.copy();
+        this.color = other.color == null ? null : other.color.copy();
+        this.price = other.price == null ? null : other.price.copy();
+        this.fragile = other.fragile == null ? null : other.fragile.copy();
+        this.lote = other.lote == null ? null : other.lote.copy();
+        this.containerType = other.containerType == null ? null : other.containerType.copy();
+    }
+
+    @Override
+    public ProductCriteria copy() {
+        return new ProductCriteria(this);
+    }
+
+    public LongFilter getId() {
+        return id;
+    }
+
+    public LongFilter id() {
+        if (id == null) {
+            id = new LongFilter();
+        }
+        return id;
+    }
+
+    public void setId(LongFilter id) {
+        this.id = id;
+    }
+
+    public ProductSizeFilter getProductSize() {
+        return productSize;
+    }
+
+    public ProductSizeFilter productSize() {
+        if (productSize == null) {
+            productSize = new ProductSizeFilter();
+        }
+        return productSize;
+    }
+
+    public void setProductSize(ProductSizeFilter productSize) {
+        this.productSize = productSize;
+    }
+
+    public StringFilter getColor() {
+        return color;
+    }
+
+    public StringFilter color() {
+        if (color == null) {
+            color = new StringFilter();
+        }
+        return color;
+    }
+
+    public void setColor(StringFilter color) {
+        this.color = color;
+    }
+
+    public FloatFilter getPrice() {
+        return price;
+    }
+
+    public FloatFilter price() {
+        if (price == null) {
+            price = new FloatFilter();
+        }
+        return price;
+    }
+
+    public void setPrice(FloatFilter price) {
+        this.price = price;
+    }
+
+    public BooleanFilter getFragile() {
+        return fragile;
+    }
+
+    public BooleanFilter fragile() {
+        if (fragile == null) {
+            fragile = new BooleanFilter();
+        }
+        return fragile;
+    }
+
+    public void setFragile(BooleanFilter fragile) {
+        this.fragile = fragile;
+    }
+
+    public StringFilter getLote() {
+        return lote;
+    }
+
+    public StringFilter lote() {
+        if (lote == null) {
+            lote = new StringFilter();
+        }
+        return lote;
+    }
+
+    public void setLote(StringFilter lote) {
+        this.lote = lote;
+    }
+
+    public ContainerTypeFilter getContainerType() {
+        return containerType;
+    }
+
+    public ContainerTypeFilter containerType() {
+        if (containerType == null) {
+            containerType = new ContainerTypeFilter();
+        }
+        return containerType;
+    }
+
+    public void setContainerType(ContainerTypeFilter containerType) {
+        this.containerType = containerType;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final ProductCriteria that = (ProductCriteria) o;
+        return (
+            Objects.equals(id, that.id) &&
+            Objects.equals(productSize, that.productSize) &&
+            Objects.equals(color, that.color) &&
+            Objects.equals(price, that.price) &&
+            Objects.equals(fragile, that.fragile) &&
+            Objects.equals(lote, that.lote) &&
+            Objects.equals(containerType, that.containerType)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, productSize, color, price, fragile, lote, containerType);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ProductCriteria{" +
+            (id != null ? "id=" + id + ", " : "") +
+            (productSize != null ? "productSize=" + productSize + ", " : "") +
+            (color != null ? "color=" + color + ", " : "") +
+            (price != null ? "price=" + price + ", " : "") +
+            (fragile != null ? "fragile=" + fragile + ", " : "") +
+            (lote != null ? "lote=" + lote + ", " : "") +
+            (containerType != null ? "containerType=" + containerType + ", " : "") +
+            "}";
+    }
+}
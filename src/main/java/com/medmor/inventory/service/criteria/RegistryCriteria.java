@@ -0,0 +1,175 @@
+package com.medmor.inventory.service.criteria;
+
+import java.io.Serializable;
+import java.util.Objects;
+import tech.jhipster.service.Criteria;
+import tech.jhipster.service.filter.IntegerFilter;
+import tech.jhipster.service.filter.LongFilter;
+
+/**
+ * Criteria class for the {@link com.medmor.inventory.domain.Registry} entity. This class is used
+ * in {@link com.medmor.inventory.web.rest.RegistryResource} to receive all the possible filtering options from
+ * the Http GET request parameters.
+ * For example the following could be a valid request:
+ * {@code /registries?amount.greaterThan=5&productId.equals=1&section.productType.in=Tools}
+ * The nested {@link ProductCriteria} and {@link SectionCriteria} filter on the product and section the registry refers to.
+ */
+public class RegistryCriteria implements Serializable, Criteria {
+
+    private static final long serialVersionUID = 1L;
+
+    private LongFilter id;
+
+    private IntegerFilter amount;
+
+    private LongFilter productId;
+
+    private LongFilter sectionId;
+
+    private ProductCriteria product;
+
+    private SectionCriteria section;
+
+    public RegistryCriteria() {}
+
+    public RegistryCriteria(RegistryCriteria other) {
+        this.id = other.id == null ? null : other.id.copy();
+        this.amount = other.amount == null ? null : other.amount.copy();
+        this.productId = other.productId == null ? null : other.productId.copy();
+        this.sectionId = other.sectionId == null ? null : other.sectionId.copy();
+        this.product = other.product == null ? null : other.product.copy();
+        this.section = other.section == null ? null : other.section.copy();
+    }
+
+    @Override
+    public RegistryCriteria copy() {
+        return new RegistryCriteria(this);
+    }
+
+    public LongFilter getId() {
+        return id;
+    }
+
+    public LongFilter id() {
+        if (id == null) {
+            id = new LongFilter();
+        }
+        return id;
+    }
+
+    public void setId(LongFilter id) {
+        this.id = id;
+    }
+
+    public IntegerFilter getAmount() {
+        return amount;
+    }
+
+    public IntegerFilter amount() {
+        if (amount == null) {
+            amount = new IntegerFilter();
+        }
+        return amount;
+    }
+
+    public void setAmount(IntegerFilter amount) {
+        this.amount = amount;
+    }
+
+    public LongFilter getProductId() {
+        return productId;
+    }
+
+    public LongFilter productId() {
+        if (productId == null) {
+            productId = new LongFilter();
+        }
+        return productId;
+    }
+
+    public void setProductId(LongFilter productId) {
+        this.productId = productId;
+    }
+
+    public LongFilter getSectionId() {
+        return sectionId;
+    }
+
+    public LongFilter sectionId() {
+        if (sectionId == null) {
+            sectionId = new LongFilter();
+        }
+        return sectionId;
+    }
+
+    public void setSectionId(LongFilter sectionId) {
+        this.sectionId = sectionId;
+    }
+
+    public ProductCriteria getProduct() {
+        return product;
+    }
+
+    public ProductCriteria product() {
+        if (product == null) {
+            product = new ProductCriteria();
+        }
+        return product;
+    }
+
+    public void setProduct(ProductCriteria product) {
+        this.product = product;
+    }
+
+    public SectionCriteria getSection() {
+        return section;
+    }
+
+    public SectionCriteria section() {
+        if (section == null) {
+            section = new SectionCriteria();
+        }
+        return section;
+    }
+
+    public void setSection(SectionCriteria section) {
+        this.section = section;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final RegistryCriteria that = (RegistryCriteria) o;
+        return (
+            Objects.equals(id, that.id) &&
+            Objects.equals(amount, that.amount) &&
+            Objects.equals(productId, that.productId) &&
+            Objects.equals(sectionId, that.sectionId) &&
+            Objects.equals(product, that.product) &&
+            Objects.equals(section, that.section)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, amount, productId, sectionId, product, section);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "RegistryCriteria{" +
+            (id != null ? "id=" + id + ", " : "") +
+            (amount != null ? "amount=" + amount + ", " : "") +
+            (productId != null ? "productId=" + productId + ", " : "") +
+            (sectionId != null ? "sectionId=" + sectionId + ", " : "") +
+            (product != null ? "product=" + product + ", " : "") +
+            (section != null ? "section=" + section + ", " : "") +
+            "}";
+    }
+}
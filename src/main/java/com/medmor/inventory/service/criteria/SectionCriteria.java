@@ -0,0 +1,131 @@
+package com.medmor.inventory.service.criteria;
+
+import com.medmor.inventory.domain.enumeration.ProductType;
+import java.io.Serializable;
+import java.util.Objects;
+import tech.jhipster.service.Criteria;
+import tech.jhipster.service.filter.Filter;
+import tech.jhipster.service.filter.FloatFilter;
+import tech.jhipster.service.filter.LongFilter;
+
+/**
+ * Criteria class for the {@link com.medmor.inventory.domain.Section} entity. This class is used
+ * in {@link com.medmor.inventory.web.rest.SectionResource} to receive all the possible filtering options from
+ * the Http GET request parameters.
+ * For example the following could be a valid request:
+ * {@code /sections?area.greaterThan=5&productType.in=Tools,Plumbing&id.specified=true}
+ * As Spring is unable to properly convert the types, unless specific {@link Filter} class are used, we need to use
+ * fix type specific filters.
+ */
+public class SectionCriteria implements Serializable, Criteria {
+
+    /**
+     * Class for filtering ProductType
+     */
+    public static class ProductTypeFilter extends Filter<ProductType> {
+
+        public ProductTypeFilter() {}
+
+        public ProductTypeFilter(ProductTypeFilter filter) {
+            super(filter);
+        }
+
+        @Override
+        public ProductTypeFilter copy() {
+            return new ProductTypeFilter(this);
+        }
+    }
+
+    private static final long serialVersionUID = 1L;
+
+    private LongFilter id;
+
+    private FloatFilter area;
+
+    private ProductTypeFilter productType;
+
+    public SectionCriteria() {}
+
+    public SectionCriteria(SectionCriteria other) {
+        this.id = other.id == null ? null : other.id.copy();
+        this.area = other.area == null ? null : other.area.copy();
+        this.productType = other.productType == null ? null : other.productType.copy();
+    }
+
+    @Override
+    public SectionCriteria copy() {
+        return new SectionCriteria(this);
+    }
+
+    public LongFilter getId() {
+        return id;
+    }
+
+    public LongFilter id() {
+        if (id == null) {
+            id = new LongFilter();
+        }
+        return id;
+    }
+
+    public void setId(LongFilter id) {
+        this.id = id;
+    }
+
+    public FloatFilter getArea() {
+        return area;
+    }
+
+    public FloatFilter area() {
+        if (area == null) {
+            area = new FloatFilter();
+        }
+        return area;
+    }
+
+    public void setArea(FloatFilter area) {
+        this.area = area;
+    }
+
+    public ProductTypeFilter getProductType() {
+        return productType;
+    }
+
+    public ProductTypeFilter productType() {
+        if (productType == null) {
+            productType = new ProductTypeFilter();
+        }
+        return productType;
+    }
+
+    public void setProductType(ProductTypeFilter productType) {
+        this.productType = productType;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final SectionCriteria that = (SectionCriteria) o;
+        return Objects.equals(id, that.id) && Objects.equals(area, that.area) && Objects.equals(productType, that.productType);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, area, productType);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SectionCriteria{" +
+            (id != null ? "id=" + id + ", " : "") +
+            (area != null ? "area=" + area + ", " : "") +
+            (productType != null ? "productType=" + productType + ", " : "") +
+            "}";
+    }
+}
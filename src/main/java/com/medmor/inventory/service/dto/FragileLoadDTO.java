@@ -0,0 +1,55 @@
+package com.medmor.inventory.service.dto;
+
+/**
+ * A DTO representing the registry amount of fragile products stored in a section, out of its total amount.
+ */
+public class FragileLoadDTO {
+
+    private Long sectionId;
+    private Long fragileAmount;
+    private Long totalAmount;
+
+    public FragileLoadDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public FragileLoadDTO(Long sectionId, Long fragileAmount, Long totalAmount) {
+        this.sectionId = sectionId;
+        this.fragileAmount = fragileAmount;
+        this.totalAmount = totalAmount;
+    }
+
+    public Long getSectionId() {
+        return sectionId;
+    }
+
+    public void setSectionId(Long sectionId) {
+        this.sectionId = sectionId;
+    }
+
+    public Long getFragileAmount() {
+        return fragileAmount;
+    }
+
+    public void setFragileAmount(Long fragileAmount) {
+        this.fragileAmount = fragileAmount;
+    }
+
+    public Long getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(Long totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "FragileLoadDTO{" +
+            "sectionId=" + sectionId +
+            ", fragileAmount=" + fragileAmount +
+            ", totalAmount=" + totalAmount +
+            "}";
+    }
+}
@@ -0,0 +1,46 @@
+package com.medmor.inventory.service.dto;
+
+import com.medmor.inventory.domain.enumeration.ProductType;
+
+/**
+ * A DTO representing the total registry amount stored in the sections of a product type.
+ */
+public class ProductTypeStockDTO {
+
+    private ProductType productType;
+    private Long totalAmount;
+
+    public ProductTypeStockDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public ProductTypeStockDTO(ProductType productType, Long totalAmount) {
+        this.productType = productType;
+        this.totalAmount = totalAmount;
+    }
+
+    public ProductType getProductType() {
+        return productType;
+    }
+
+    public void setProductType(ProductType productType) {
+        this.productType = productType;
+    }
+
+    public Long getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(Long totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ProductTypeStockDTO{" +
+            "productType=" + productType +
+            ", totalAmount=" + totalAmount +
+            "}";
+    }
+}
@@ -0,0 +1,55 @@
+package com.medmor.inventory.service.dto;
+
+/**
+ * A DTO representing the occupancy of a section, the area taken by its stock against its own area.
+ */
+public class SectionOccupancyDTO {
+
+    private Long sectionId;
+    private Double area;
+    private Double usedArea;
+
+    public SectionOccupancyDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public SectionOccupancyDTO(Long sectionId, Double area, Double usedArea) {
+        this.sectionId = sectionId;
+        this.area = area;
+        this.usedArea = usedArea;
+    }
+
+    public Long getSectionId() {
+        return sectionId;
+    }
+
+    public void setSectionId(Long sectionId) {
+        this.sectionId = sectionId;
+    }
+
+    public Double getArea() {
+        return area;
+    }
+
+    public void setArea(Double area) {
+        this.area = area;
+    }
+
+    public Double getUsedArea() {
+        return usedArea;
+    }
+
+    public void setUsedArea(Double usedArea) {
+        this.usedArea = usedArea;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SectionOccupancyDTO{" +
+            "sectionId=" + sectionId +
+            ", area=" + area +
+            ", usedArea=" + usedArea +
+            "}";
+    }
+}
@@ -0,0 +1,44 @@
+package com.medmor.inventory.service.dto;
+
+/**
+ * A DTO representing the total registry amount stored in a section.
+ */
+public class SectionStockDTO {
+
+    private Long sectionId;
+    private Long totalAmount;
+
+    public SectionStockDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public SectionStockDTO(Long sectionId, Long totalAmount) {
+        this.sectionId = sectionId;
+        this.totalAmount = totalAmount;
+    }
+
+    public Long getSectionId() {
+        return sectionId;
+    }
+
+    public void setSectionId(Long sectionId) {
+        this.sectionId = sectionId;
+    }
+
+    public Long getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(Long totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SectionStockDTO{" +
+            "sectionId=" + sectionId +
+            ", totalAmount=" + totalAmount +
+            "}";
+    }
+}
@@ -0,0 +1,44 @@
+package com.medmor.inventory.service.dto;
+
+/**
+ * A DTO representing the value of the stock of a section, the registry amounts times the product prices.
+ */
+public class SectionValueDTO {
+
+    private Long sectionId;
+    private Double totalValue;
+
+    public SectionValueDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public SectionValueDTO(Long sectionId, Double totalValue) {
+        this.sectionId = sectionId;
+        this.totalValue = totalValue;
+    }
+
+    public Long getSectionId() {
+        return sectionId;
+    }
+
+    public void setSectionId(Long sectionId) {
+        this.sectionId = sectionId;
+    }
+
+    public Double getTotalValue() {
+        return totalValue;
+    }
+
+    public void setTotalValue(Double totalValue) {
+        this.totalValue = totalValue;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SectionValueDTO{" +
+            "sectionId=" + sectionId +
+            ", totalValue=" + totalValue +
+            "}";
+    }
+}
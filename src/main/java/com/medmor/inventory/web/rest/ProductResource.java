@@ -1,12 +1,21 @@
 package com.medmor.inventory.web.rest;
 
 import com.medmor.inventory.domain.Product;
+import com.medmor.inventory.domain.enumeration.ContainerType;
+import com.medmor.inventory.domain.enumeration.ProductSize;
 import com.medmor.inventory.repository.ProductRepository;
+import com.medmor.inventory.service.KeysetCursor;
+import com.medmor.inventory.service.TableStateService;
+import com.medmor.inventory.service.TotalCountService;
+import com.medmor.inventory.service.criteria.ProductCriteria;
 import com.medmor.inventory.web.rest.errors.BadRequestAlertException;
+import com.medmor.inventory.web.rest.util.ETagUtil;
+import com.medmor.inventory.web.rest.util.KeysetPaginationUtil;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import javax.validation.Valid;
@@ -14,9 +23,11 @@ import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -24,13 +35,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.reactive.ResponseUtil;
 
 /**
  * REST controller for managing {@link com.medmor.inventory.domain.Product}.
@@ -44,13 +53,40 @@ public class ProductResource {
 
     private static final String ENTITY_NAME = "product";
 
+    private static final Map<String, Class<?>> KEYSET_SORT_PROPERTIES = Map.of(
+        "id",
+        Long.class,
+        "productSize",
+        ProductSize.class,
+        "color",
+        String.class,
+        "price",
+        Float.class,
+        "fragile",
+        Boolean.class,
+        "lote",
+        String.class,
+        "containerType",
+        ContainerType.class
+    );
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final ProductRepository productRepository;
 
-    public ProductResource(ProductRepository productRepository) {
+    private final TotalCountService totalCountService;
+
+    private final TableStateService tableStateService;
+
+    public ProductResource(
+        ProductRepository productRepository,
+        TotalCountService totalCountService,
+        TableStateService tableStateService
+    ) {
         this.productRepository = productRepository;
+        this.totalCountService = totalCountService;
+        this.tableStateService = tableStateService;
     }
 
     /**
@@ -86,16 +122,20 @@ public class ProductResource {
      * {@code PUT  /products/:id} : Updates an existing product.
      *
      * @param id the id of the product to save.
-     * @param product the product to update.
+     * @param product the product to update, its version is the one expected when there is no {@code If-Match} header.
+     * @param ifMatch the tag of the product being updated, from its last read.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated product,
-     * or with status {@code 400 (Bad Request)} if the product is not valid,
+     * or with status {@code 400 (Bad Request)} if the product is not valid or doesn't exist,
+     * or with status {@code 409 (Conflict)} if the version in the body is not the current one,
+     * or with status {@code 412 (Precondition Failed)} if the {@code If-Match} tag is not the current one,
      * or with status {@code 500 (Internal Server Error)} if the product couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/products/{id}")
     public Mono<ResponseEntity<Product>> updateProduct(
         @PathVariable(value = "id", required = false) final Long id,
-        @Valid @RequestBody Product product
+        @Valid @RequestBody Product product,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         log.debug("REST request to update Product : {}, {}", id, product);
         if (product.getId() == null) {
@@ -105,45 +145,42 @@ public class ProductResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        return productRepository
-            .existsById(id)
-            .flatMap(
-                exists -> {
-                    if (!exists) {
-                        return Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
-                    }
+        if (ifMatch != null) {
+            product.setVersion(ETagUtil.parseVersion(ifMatch));
+        }
 
-                    return productRepository
-                        .save(product)
-                        .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
-                        .map(
-                            result ->
-                                ResponseEntity
-                                    .ok()
-                                    .headers(
-                                        HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString())
-                                    )
-                                    .body(result)
-                        );
-                }
-            );
+        // without an expected version, the update overwrites the current one
+        return productRepository
+            .save(product)
+            .switchIfEmpty(Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound")))
+            .map(
+                result ->
+                    ETagUtil
+                        .ok(result.getVersion())
+                        .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+                        .body(result)
+            )
+            .onErrorMap(OptimisticLockingFailureException.class, ETagUtil.onVersionConflict(ifMatch));
     }
 
     /**
      * {@code PATCH  /products/:id} : Partial updates given fields of an existing product, field will ignore if it is null
      *
      * @param id the id of the product to save.
-     * @param product the product to update.
+     * @param product the product to update, its version is the one expected when there is no {@code If-Match} header.
+     * @param ifMatch the tag of the product being updated, from its last read.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated product,
-     * or with status {@code 400 (Bad Request)} if the product is not valid,
-     * or with status {@code 404 (Not Found)} if the product is not found,
+     * or with status {@code 400 (Bad Request)} if the product is not valid or doesn't exist,
+     * or with status {@code 409 (Conflict)} if the version in the body is not the current one,
+     * or with status {@code 412 (Precondition Failed)} if the {@code If-Match} tag is not the current one,
      * or with status {@code 500 (Internal Server Error)} if the product couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/products/{id}", consumes = "application/merge-patch+json")
     public Mono<ResponseEntity<Product>> partialUpdateProduct(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody Product product
+        @NotNull @RequestBody Product product,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         log.debug("REST request to partial update Product partially : {}, {}", id, product);
         if (product.getId() == null) {
@@ -153,94 +190,149 @@ public class ProductResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        return productRepository
-            .existsById(id)
-            .flatMap(
-                exists -> {
-                    if (!exists) {
-                        return Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
-                    }
-
-                    Mono<Product> result = productRepository
-                        .findById(product.getId())
-                        .map(
-                            existingProduct -> {
-                                if (product.getProductSize() != null) {
-                                    existingProduct.setProductSize(product.getProductSize());
-                                }
-                                if (product.getColor() != null) {
-                                    existingProduct.setColor(product.getColor());
-                                }
-                                if (product.getPrice() != null) {
-                                    existingProduct.setPrice(product.getPrice());
-                                }
-                                if (product.getFragile() != null) {
-                                    existingProduct.setFragile(product.getFragile());
-                                }
-                                if (product.getLote() != null) {
-                                    existingProduct.setLote(product.getLote());
-                                }
-                                if (product.getContainerType() != null) {
-                                    existingProduct.setContainerType(product.getContainerType());
-                                }
-
-                                return existingProduct;
-                            }
-                        )
-                        .flatMap(productRepository::save);
+        if (ifMatch != null) {
+            product.setVersion(ETagUtil.parseVersion(ifMatch));
+        }
 
-                    return result
-                        .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
-                        .map(
-                            res ->
-                                ResponseEntity
-                                    .ok()
-                                    .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, res.getId().toString()))
-                                    .body(res)
-                        );
-                }
-            );
+        return productRepository
+            .partialUpdate(product)
+            .switchIfEmpty(Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound")))
+            .map(
+                result ->
+                    ETagUtil
+                        .ok(result.getVersion())
+                        .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+                        .body(result)
+            )
+            .onErrorMap(OptimisticLockingFailureException.class, ETagUtil.onVersionConflict(ifMatch));
     }
 
     /**
      * {@code GET  /products} : get all the products.
      *
      * @param pageable the pagination information.
+     * @param criteria the criteria which the requested entities should match.
+     * @param after the keyset cursor of the page, empty for the first page; offset pagination is used when absent.
+     * @param exact if the total count has to be computed from the database, instead of the cached or estimated one.
+     * @param ifNoneMatch the tag of the page, from its last read.
      * @param request a {@link ServerHttpRequest} request.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of products in body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of products in body,
+     * or with status {@code 304 (Not Modified)} if the products didn't change since the page was tagged.
      */
     @GetMapping("/products")
-    public Mono<ResponseEntity<List<Product>>> getAllProducts(Pageable pageable, ServerHttpRequest request) {
-        log.debug("REST request to get a page of Products");
-        return productRepository
-            .count()
-            .zipWith(productRepository.findAllBy(pageable).collectList())
-            .map(
-                countWithEntities -> {
-                    return ResponseEntity
-                        .ok()
-                        .headers(
-                            PaginationUtil.generatePaginationHttpHeaders(
-                                UriComponentsBuilder.fromHttpRequest(request),
-                                new PageImpl<>(countWithEntities.getT2(), pageable, countWithEntities.getT1())
-                            )
-                        )
-                        .body(countWithEntities.getT2());
-                }
-            );
+    @Transactional(readOnly = true)
+    public Mono<ResponseEntity<List<Product>>> getAllProducts(
+        Pageable pageable,
+        ProductCriteria criteria,
+        @RequestParam(value = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after,
+        @RequestParam(value = "exact", defaultValue = "false") boolean exact,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+        ServerHttpRequest request
+    ) {
+        if (after != null) {
+            return getProductsAfter(after, criteria, pageable, ifNoneMatch, request);
+        }
+        log.debug("REST request to get a page of Products by criteria: {}", criteria);
+        Mono<Long> count;
+        if (criteria.equals(new ProductCriteria())) {
+            count = exact ? totalCountService.exactCount(Product.class) : totalCountService.count(Product.class);
+        } else {
+            // the cached and estimated totals are per table, filtered totals are always counted
+            count = productRepository.countByCriteria(criteria);
+        }
+        return ETagUtil.notModifiedOr(
+            ifNoneMatch,
+            tableStateService.state(Product.class),
+            tag ->
+                count
+                    .zipWith(productRepository.findByCriteria(criteria, pageable).collectList())
+                    .map(
+                        countWithEntities -> {
+                            return ResponseEntity
+                                .ok()
+                                .eTag(tag)
+                                .headers(
+                                    PaginationUtil.generatePaginationHttpHeaders(
+                                        UriComponentsBuilder.fromHttpRequest(request),
+                                        new PageImpl<>(countWithEntities.getT2(), pageable, countWithEntities.getT1())
+                                    )
+                                )
+                                .body(countWithEntities.getT2());
+                        }
+                    )
+        );
+    }
+
+    private Mono<ResponseEntity<List<Product>>> getProductsAfter(
+        String after,
+        ProductCriteria criteria,
+        Pageable pageable,
+        String ifNoneMatch,
+        ServerHttpRequest request
+    ) {
+        log.debug("REST request to get a keyset page of Products after : {}", after);
+        KeysetCursor cursor = KeysetPaginationUtil.parseCursor(after, pageable.getSort(), KEYSET_SORT_PROPERTIES, ENTITY_NAME);
+        return ETagUtil.notModifiedOr(
+            ifNoneMatch,
+            tableStateService.state(Product.class),
+            tag ->
+                productRepository
+                    .findByCriteriaAfter(criteria, cursor, pageable)
+                    .collectList()
+                    .map(
+                        products -> {
+                            String next = null;
+                            if (products.size() == pageable.getPageSize()) {
+                                Product last = products.get(products.size() - 1);
+                                next = KeysetCursor.after(last, last.getId(), pageable.getSort()).encode();
+                            }
+                            return ResponseEntity
+                                .ok()
+                                .eTag(tag)
+                                .headers(
+                                    KeysetPaginationUtil.generateKeysetHttpHeaders(UriComponentsBuilder.fromHttpRequest(request), next)
+                                )
+                                .body(products);
+                        }
+                    )
+        );
+    }
+
+    /**
+     * {@code GET  /products} : stream all the products, as newline delimited JSON or server-sent events.
+     * <p>
+     * The rows are written to the response as they are read from the database, so that whole tables can be exported
+     * without holding them in memory.
+     *
+     * @param criteria the criteria which the streamed entities should match.
+     * @param sort the order of the products.
+     * @return the {@link Flux} of all the products.
+     */
+    @GetMapping(value = "/products", produces = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE })
+    @Transactional(readOnly = true)
+    public Flux<Product> streamAllProducts(ProductCriteria criteria, Sort sort) {
+        log.debug("REST request to stream all Products by criteria: {}", criteria);
+        return productRepository.streamAll(criteria, sort);
     }
 
     /**
      * {@code GET  /products/:id} : get the "id" product.
      *
      * @param id the id of the product to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the product, or with status {@code 404 (Not Found)}.
+     * @param ifNoneMatch the tag of the product, from its last read.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the product, or with status {@code 404 (Not Found)},
+     * or with status {@code 304 (Not Modified)} if the product didn't change since it was tagged.
      */
     @GetMapping("/products/{id}")
-    public Mono<ResponseEntity<Product>> getProduct(@PathVariable Long id) {
+    @Transactional(readOnly = true)
+    public Mono<ResponseEntity<Product>> getProduct(
+        @PathVariable Long id,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
         log.debug("REST request to get Product : {}", id);
         Mono<Product> product = productRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(product);
+        Mono<String> currentTag = productRepository.findVersionById(id).map(ETagUtil::entityTag);
+        return ETagUtil.wrapOrNotFound(ifNoneMatch, currentTag, product, found -> ETagUtil.entityTag(found.getVersion()));
     }
 
     /**
@@ -1,12 +1,22 @@
 package com.medmor.inventory.web.rest;
 
+import com.medmor.inventory.config.ApplicationProperties;
+import com.medmor.inventory.domain.Product;
 import com.medmor.inventory.domain.Registry;
+import com.medmor.inventory.domain.Section;
 import com.medmor.inventory.repository.RegistryRepository;
+import com.medmor.inventory.service.KeysetCursor;
+import com.medmor.inventory.service.TableStateService;
+import com.medmor.inventory.service.TotalCountService;
+import com.medmor.inventory.service.criteria.RegistryCriteria;
 import com.medmor.inventory.web.rest.errors.BadRequestAlertException;
+import com.medmor.inventory.web.rest.util.ETagUtil;
+import com.medmor.inventory.web.rest.util.KeysetPaginationUtil;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import javax.validation.Valid;
@@ -14,9 +24,11 @@ import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -24,13 +36,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.reactive.ResponseUtil;
 
 /**
  * REST controller for managing {@link com.medmor.inventory.domain.Registry}.
@@ -44,13 +54,42 @@ public class RegistryResource {
 
     private static final String ENTITY_NAME = "registry";
 
+    private static final Map<String, Class<?>> KEYSET_SORT_PROPERTIES = Map.of(
+        "id",
+        Long.class,
+        "amount",
+        Integer.class,
+        "productId",
+        Long.class,
+        "sectionId",
+        Long.class
+    );
+
+    private static final String EXPAND_ALL = "all";
+
+    private static final String EXPAND_NONE = "none";
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final RegistryRepository registryRepository;
 
-    public RegistryResource(RegistryRepository registryRepository) {
+    private final TotalCountService totalCountService;
+
+    private final TableStateService tableStateService;
+
+    private final int batchSize;
+
+    public RegistryResource(
+        RegistryRepository registryRepository,
+        TotalCountService totalCountService,
+        TableStateService tableStateService,
+        ApplicationProperties applicationProperties
+    ) {
         this.registryRepository = registryRepository;
+        this.totalCountService = totalCountService;
+        this.tableStateService = tableStateService;
+        this.batchSize = applicationProperties.getIngestion().getBatchSize();
     }
 
     /**
@@ -82,20 +121,60 @@ public class RegistryResource {
             );
     }
 
+    /**
+     * {@code POST  /registries/batch} : Create new registries in bulk.
+     * <p>
+     * The registries are sent as a JSON array or as a newline delimited JSON stream, and are written in batches of
+     * {@code application.ingestion.batch-size} rows, all in the same transaction.
+     *
+     * @param registries the registries to create.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the ids of the new registries in the order they were sent,
+     * or with status {@code 400 (Bad Request)} if a registry is not valid or has already an ID.
+     */
+    @PostMapping(value = "/registries/batch", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Mono<ResponseEntity<List<Long>>> createRegistries(@Valid @RequestBody Flux<Registry> registries) {
+        log.debug("REST request to save a batch of Registries");
+        return registries
+            .doOnNext(
+                registry -> {
+                    if (registry.getId() != null) {
+                        throw new BadRequestAlertException("A new registry cannot already have an ID", ENTITY_NAME, "idexists");
+                    }
+                }
+            )
+            .buffer(batchSize)
+            .concatMap(registryRepository::insertAll)
+            .map(Registry::getId)
+            .collectList()
+            .map(
+                ids ->
+                    ResponseEntity
+                        .status(HttpStatus.CREATED)
+                        .headers(
+                            HeaderUtil.createAlert(applicationName, applicationName + "." + ENTITY_NAME + ".created", String.valueOf(ids.size()))
+                        )
+                        .body(ids)
+            );
+    }
+
     /**
      * {@code PUT  /registries/:id} : Updates an existing registry.
      *
      * @param id the id of the registry to save.
-     * @param registry the registry to update.
+     * @param registry the registry to update, its version is the one expected when there is no {@code If-Match} header.
+     * @param ifMatch the tag of the registry being updated, from its last read.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated registry,
-     * or with status {@code 400 (Bad Request)} if the registry is not valid,
+     * or with status {@code 400 (Bad Request)} if the registry is not valid or doesn't exist,
+     * or with status {@code 409 (Conflict)} if the version in the body is not the current one,
+     * or with status {@code 412 (Precondition Failed)} if the {@code If-Match} tag is not the current one,
      * or with status {@code 500 (Internal Server Error)} if the registry couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/registries/{id}")
     public Mono<ResponseEntity<Registry>> updateRegistry(
         @PathVariable(value = "id", required = false) final Long id,
-        @Valid @RequestBody Registry registry
+        @Valid @RequestBody Registry registry,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         log.debug("REST request to update Registry : {}, {}", id, registry);
         if (registry.getId() == null) {
@@ -105,45 +184,42 @@ public class RegistryResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        return registryRepository
-            .existsById(id)
-            .flatMap(
-                exists -> {
-                    if (!exists) {
-                        return Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
-                    }
+        if (ifMatch != null) {
+            registry.setVersion(ETagUtil.parseVersion(ifMatch));
+        }
 
-                    return registryRepository
-                        .save(registry)
-                        .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
-                        .map(
-                            result ->
-                                ResponseEntity
-                                    .ok()
-                                    .headers(
-                                        HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString())
-                                    )
-                                    .body(result)
-                        );
-                }
-            );
+        // without an expected version, the update overwrites the current one
+        return registryRepository
+            .save(registry)
+            .switchIfEmpty(Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound")))
+            .map(
+                result ->
+                    ETagUtil
+                        .ok(result.getVersion())
+                        .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+                        .body(result)
+            )
+            .onErrorMap(OptimisticLockingFailureException.class, ETagUtil.onVersionConflict(ifMatch));
     }
 
     /**
      * {@code PATCH  /registries/:id} : Partial updates given fields of an existing registry, field will ignore if it is null
      *
      * @param id the id of the registry to save.
-     * @param registry the registry to update.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated registry,
-     * or with status {@code 400 (Bad Request)} if the registry is not valid,
-     * or with status {@code 404 (Not Found)} if the registry is not found,
+     * @param registry the registry to update, its version is the one expected when there is no {@code If-Match} header.
+     * @param ifMatch the tag of the registry being updated, from its last read.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated registry and its tag,
+     * or with status {@code 400 (Bad Request)} if the registry is not valid or doesn't exist,
+     * or with status {@code 409 (Conflict)} if the version in the body is not the current one,
+     * or with status {@code 412 (Precondition Failed)} if the {@code If-Match} tag is not the current one,
      * or with status {@code 500 (Internal Server Error)} if the registry couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/registries/{id}", consumes = "application/merge-patch+json")
     public Mono<ResponseEntity<Registry>> partialUpdateRegistry(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody Registry registry
+        @NotNull @RequestBody Registry registry,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         log.debug("REST request to partial update Registry partially : {}, {}", id, registry);
         if (registry.getId() == null) {
@@ -153,79 +229,188 @@ public class RegistryResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        return registryRepository
-            .existsById(id)
-            .flatMap(
-                exists -> {
-                    if (!exists) {
-                        return Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
-                    }
-
-                    Mono<Registry> result = registryRepository
-                        .findById(registry.getId())
-                        .map(
-                            existingRegistry -> {
-                                if (registry.getAmount() != null) {
-                                    existingRegistry.setAmount(registry.getAmount());
-                                }
+        if (ifMatch != null) {
+            registry.setVersion(ETagUtil.parseVersion(ifMatch));
+        }
 
-                                return existingRegistry;
-                            }
-                        )
-                        .flatMap(registryRepository::save);
-
-                    return result
-                        .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
-                        .map(
-                            res ->
-                                ResponseEntity
-                                    .ok()
-                                    .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, res.getId().toString()))
-                                    .body(res)
-                        );
-                }
-            );
+        return registryRepository
+            .partialUpdate(registry)
+            .switchIfEmpty(Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound")))
+            .map(
+                result ->
+                    ResponseEntity
+                        .ok()
+                        .eTag(entityTag(result))
+                        .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+                        .body(result)
+            )
+            .onErrorMap(OptimisticLockingFailureException.class, ETagUtil.onVersionConflict(ifMatch));
     }
 
     /**
      * {@code GET  /registries} : get all the registries.
      *
      * @param pageable the pagination information.
+     * @param criteria the criteria which the requested entities should match.
+     * @param after the keyset cursor of the page, empty for the first page; offset pagination is used when absent.
+     * @param exact if the total count has to be computed from the database, instead of the cached or estimated one.
+     * @param expand {@code all} to embed the product and section of each registry, {@code none} to only return their ids.
+     * @param ifNoneMatch the tag of the page, from its last read.
      * @param request a {@link ServerHttpRequest} request.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of registries in body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of registries in body,
+     * or with status {@code 304 (Not Modified)} if the registries didn't change since the page was tagged.
      */
     @GetMapping("/registries")
-    public Mono<ResponseEntity<List<Registry>>> getAllRegistries(Pageable pageable, ServerHttpRequest request) {
-        log.debug("REST request to get a page of Registries");
-        return registryRepository
-            .count()
-            .zipWith(registryRepository.findAllBy(pageable).collectList())
-            .map(
-                countWithEntities -> {
-                    return ResponseEntity
-                        .ok()
-                        .headers(
-                            PaginationUtil.generatePaginationHttpHeaders(
-                                UriComponentsBuilder.fromHttpRequest(request),
-                                new PageImpl<>(countWithEntities.getT2(), pageable, countWithEntities.getT1())
-                            )
-                        )
-                        .body(countWithEntities.getT2());
-                }
-            );
+    @Transactional(readOnly = true)
+    public Mono<ResponseEntity<List<Registry>>> getAllRegistries(
+        Pageable pageable,
+        RegistryCriteria criteria,
+        @RequestParam(value = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after,
+        @RequestParam(value = "exact", defaultValue = "false") boolean exact,
+        @RequestParam(value = "expand", defaultValue = EXPAND_ALL) String expand,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+        ServerHttpRequest request
+    ) {
+        boolean expandRelationships = isExpanded(expand);
+        if (after != null) {
+            return getRegistriesAfter(after, criteria, pageable, expandRelationships, ifNoneMatch, request);
+        }
+        log.debug("REST request to get a page of Registries by criteria: {}", criteria);
+        Mono<Long> count;
+        if (criteria.equals(new RegistryCriteria())) {
+            count = exact ? totalCountService.exactCount(Registry.class) : totalCountService.count(Registry.class);
+        } else {
+            // the cached and estimated totals are per table, filtered totals are always counted
+            count = registryRepository.countByCriteria(criteria);
+        }
+        return ETagUtil.notModifiedOr(
+            ifNoneMatch,
+            tableState(criteria, expandRelationships),
+            tag ->
+                count
+                    .zipWith(registryRepository.findByCriteria(criteria, pageable, expandRelationships).collectList())
+                    .map(
+                        countWithEntities -> {
+                            return ResponseEntity
+                                .ok()
+                                .eTag(tag)
+                                .headers(
+                                    PaginationUtil.generatePaginationHttpHeaders(
+                                        UriComponentsBuilder.fromHttpRequest(request),
+                                        new PageImpl<>(countWithEntities.getT2(), pageable, countWithEntities.getT1())
+                                    )
+                                )
+                                .body(countWithEntities.getT2());
+                        }
+                    )
+        );
+    }
+
+    private Mono<ResponseEntity<List<Registry>>> getRegistriesAfter(
+        String after,
+        RegistryCriteria criteria,
+        Pageable pageable,
+        boolean expand,
+        String ifNoneMatch,
+        ServerHttpRequest request
+    ) {
+        log.debug("REST request to get a keyset page of Registries after : {}", after);
+        KeysetCursor cursor = KeysetPaginationUtil.parseCursor(after, pageable.getSort(), KEYSET_SORT_PROPERTIES, ENTITY_NAME);
+        return ETagUtil.notModifiedOr(
+            ifNoneMatch,
+            tableState(criteria, expand),
+            tag ->
+                registryRepository
+                    .findByCriteriaAfter(criteria, cursor, pageable, expand)
+                    .collectList()
+                    .map(
+                        registries -> {
+                            String next = null;
+                            if (registries.size() == pageable.getPageSize()) {
+                                Registry last = registries.get(registries.size() - 1);
+                                next = KeysetCursor.after(last, last.getId(), pageable.getSort()).encode();
+                            }
+                            return ResponseEntity
+                                .ok()
+                                .eTag(tag)
+                                .headers(
+                                    KeysetPaginationUtil.generateKeysetHttpHeaders(UriComponentsBuilder.fromHttpRequest(request), next)
+                                )
+                                .body(registries);
+                        }
+                    )
+        );
+    }
+
+    /**
+     * Reads the state of the tables a page of registries depends on: the product and section ones too, when they are
+     * embedded in the page or filtered on.
+     */
+    private Mono<List<Long>> tableState(RegistryCriteria criteria, boolean expand) {
+        if (expand || criteria.getProduct() != null || criteria.getSection() != null) {
+            return tableStateService.state(Registry.class, Product.class, Section.class);
+        }
+        return tableStateService.state(Registry.class);
+    }
+
+    /**
+     * {@code GET  /registries} : stream all the registries, as newline delimited JSON or server-sent events.
+     * <p>
+     * The rows are written to the response as they are read from the database, so that whole tables can be exported
+     * without holding them in memory.
+     *
+     * @param criteria the criteria which the streamed entities should match.
+     * @param sort the order of the registries.
+     * @param expand {@code all} to embed the product and section of each registry, {@code none} to only return their ids.
+     * @return the {@link Flux} of all the registries.
+     */
+    @GetMapping(value = "/registries", produces = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE })
+    @Transactional(readOnly = true)
+    public Flux<Registry> streamAllRegistries(
+        RegistryCriteria criteria,
+        Sort sort,
+        @RequestParam(value = "expand", defaultValue = EXPAND_ALL) String expand
+    ) {
+        log.debug("REST request to stream all Registries by criteria: {}", criteria);
+        return registryRepository.streamAll(criteria, sort, isExpanded(expand));
+    }
+
+    private static boolean isExpanded(String expand) {
+        if (EXPAND_ALL.equals(expand)) {
+            return true;
+        }
+        if (EXPAND_NONE.equals(expand)) {
+            return false;
+        }
+        throw new BadRequestAlertException("Invalid expand, must be " + EXPAND_ALL + " or " + EXPAND_NONE, ENTITY_NAME, "expandinvalid");
     }
 
     /**
      * {@code GET  /registries/:id} : get the "id" registry.
      *
      * @param id the id of the registry to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the registry, or with status {@code 404 (Not Found)}.
+     * @param ifNoneMatch the tag of the registry, from its last read.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the registry, or with status {@code 404 (Not Found)},
+     * or with status {@code 304 (Not Modified)} if the registry, its product and its section didn't change since it was tagged.
      */
     @GetMapping("/registries/{id}")
-    public Mono<ResponseEntity<Registry>> getRegistry(@PathVariable Long id) {
+    @Transactional(readOnly = true)
+    public Mono<ResponseEntity<Registry>> getRegistry(
+        @PathVariable Long id,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
         log.debug("REST request to get Registry : {}", id);
         Mono<Registry> registry = registryRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(registry);
+        Mono<String> currentTag = registryRepository.findVersionsById(id).map(RegistryResource::entityTag);
+        return ETagUtil.wrapOrNotFound(ifNoneMatch, currentTag, registry, RegistryResource::entityTag);
+    }
+
+    private static String entityTag(Registry registry) {
+        return ETagUtil.entityTag(
+            registry.getVersion(),
+            registry.getProduct() != null ? registry.getProduct().getVersion() : null,
+            registry.getSection() != null ? registry.getSection().getVersion() : null
+        );
     }
 
     /**
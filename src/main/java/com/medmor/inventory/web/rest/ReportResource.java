@@ -0,0 +1,74 @@
+package com.medmor.inventory.web.rest;
+
+import com.medmor.inventory.service.ReportService;
+import com.medmor.inventory.service.dto.FragileLoadDTO;
+import com.medmor.inventory.service.dto.ProductTypeStockDTO;
+import com.medmor.inventory.service.dto.SectionStockDTO;
+import com.medmor.inventory.service.dto.SectionValueDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+/**
+ * REST controller for the inventory reports, aggregated from the stock levels by the database.
+ * <p>
+ * The reports are returned as a JSON array, or streamed as newline delimited JSON.
+ */
+@RestController
+@RequestMapping("/api/reports")
+public class ReportResource {
+
+    private final Logger log = LoggerFactory.getLogger(ReportResource.class);
+
+    private final ReportService reportService;
+
+    public ReportResource(ReportService reportService) {
+        this.reportService = reportService;
+    }
+
+    /**
+     * {@code GET  /reports/stock-by-section} : get the total amount stored in each section.
+     *
+     * @return the {@link Flux} of the sections with stock, ordered by id.
+     */
+    @GetMapping(value = "/stock-by-section", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<SectionStockDTO> getStockBySection() {
+        log.debug("REST request to get the stock by section");
+        return reportService.stockBySection();
+    }
+
+    /**
+     * {@code GET  /reports/stock-by-product-type} : get the total amount stored in the sections of each product type.
+     *
+     * @return the {@link Flux} of the product types with stock.
+     */
+    @GetMapping(value = "/stock-by-product-type", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<ProductTypeStockDTO> getStockByProductType() {
+        log.debug("REST request to get the stock by product type");
+        return reportService.stockByProductType();
+    }
+
+    /**
+     * {@code GET  /reports/value-by-section} : get the value of the stock of each section, the amounts times the prices.
+     *
+     * @return the {@link Flux} of the sections with stock, ordered by id.
+     */
+    @GetMapping(value = "/value-by-section", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<SectionValueDTO> getValueBySection() {
+        log.debug("REST request to get the stock value by section");
+        return reportService.valueBySection();
+    }
+
+    /**
+     * {@code GET  /reports/fragile-load} : get the amount of fragile products stored in each section, with its total amount.
+     *
+     * @return the {@link Flux} of the sections with stock, ordered by id.
+     */
+    @GetMapping(value = "/fragile-load", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<FragileLoadDTO> getFragileLoad() {
+        log.debug("REST request to get the fragile load by section");
+        return reportService.fragileLoad();
+    }
+}
@@ -1,12 +1,22 @@
 package com.medmor.inventory.web.rest;
 
 import com.medmor.inventory.domain.Section;
+import com.medmor.inventory.domain.enumeration.ProductType;
 import com.medmor.inventory.repository.SectionRepository;
+import com.medmor.inventory.service.KeysetCursor;
+import com.medmor.inventory.service.SectionOccupancyService;
+import com.medmor.inventory.service.TableStateService;
+import com.medmor.inventory.service.TotalCountService;
+import com.medmor.inventory.service.criteria.SectionCriteria;
+import com.medmor.inventory.service.dto.SectionOccupancyDTO;
 import com.medmor.inventory.web.rest.errors.BadRequestAlertException;
+import com.medmor.inventory.web.rest.util.ETagUtil;
+import com.medmor.inventory.web.rest.util.KeysetPaginationUtil;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import javax.validation.Valid;
@@ -14,9 +24,11 @@ import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -24,7 +36,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -44,13 +55,36 @@ public class SectionResource {
 
     private static final String ENTITY_NAME = "section";
 
+    private static final Map<String, Class<?>> KEYSET_SORT_PROPERTIES = Map.of(
+        "id",
+        Long.class,
+        "area",
+        Float.class,
+        "productType",
+        ProductType.class
+    );
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final SectionRepository sectionRepository;
 
-    public SectionResource(SectionRepository sectionRepository) {
+    private final TotalCountService totalCountService;
+
+    private final SectionOccupancyService sectionOccupancyService;
+
+    private final TableStateService tableStateService;
+
+    public SectionResource(
+        SectionRepository sectionRepository,
+        TotalCountService totalCountService,
+        SectionOccupancyService sectionOccupancyService,
+        TableStateService tableStateService
+    ) {
         this.sectionRepository = sectionRepository;
+        this.totalCountService = totalCountService;
+        this.sectionOccupancyService = sectionOccupancyService;
+        this.tableStateService = tableStateService;
     }
 
     /**
@@ -86,16 +120,20 @@ public class SectionResource {
      * {@code PUT  /sections/:id} : Updates an existing section.
      *
      * @param id the id of the section to save.
-     * @param section the section to update.
+     * @param section the section to update, its version is the one expected when there is no {@code If-Match} header.
+     * @param ifMatch the tag of the section being updated, from its last read.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated section,
-     * or with status {@code 400 (Bad Request)} if the section is not valid,
+     * or with status {@code 400 (Bad Request)} if the section is not valid or doesn't exist,
+     * or with status {@code 409 (Conflict)} if the version in the body is not the current one,
+     * or with status {@code 412 (Precondition Failed)} if the {@code If-Match} tag is not the current one,
      * or with status {@code 500 (Internal Server Error)} if the section couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/sections/{id}")
     public Mono<ResponseEntity<Section>> updateSection(
         @PathVariable(value = "id", required = false) final Long id,
-        @Valid @RequestBody Section section
+        @Valid @RequestBody Section section,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         log.debug("REST request to update Section : {}, {}", id, section);
         if (section.getId() == null) {
@@ -105,45 +143,42 @@ public class SectionResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        return sectionRepository
-            .existsById(id)
-            .flatMap(
-                exists -> {
-                    if (!exists) {
-                        return Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
-                    }
+        if (ifMatch != null) {
+            section.setVersion(ETagUtil.parseVersion(ifMatch));
+        }
 
-                    return sectionRepository
-                        .save(section)
-                        .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
-                        .map(
-                            result ->
-                                ResponseEntity
-                                    .ok()
-                                    .headers(
-                                        HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString())
-                                    )
-                                    .body(result)
-                        );
-                }
-            );
+        // without an expected version, the update overwrites the current one
+        return sectionRepository
+            .save(section)
+            .switchIfEmpty(Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound")))
+            .map(
+                result ->
+                    ETagUtil
+                        .ok(result.getVersion())
+                        .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+                        .body(result)
+            )
+            .onErrorMap(OptimisticLockingFailureException.class, ETagUtil.onVersionConflict(ifMatch));
     }
 
     /**
      * {@code PATCH  /sections/:id} : Partial updates given fields of an existing section, field will ignore if it is null
      *
      * @param id the id of the section to save.
-     * @param section the section to update.
+     * @param section the section to update, its version is the one expected when there is no {@code If-Match} header.
+     * @param ifMatch the tag of the section being updated, from its last read.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated section,
-     * or with status {@code 400 (Bad Request)} if the section is not valid,
-     * or with status {@code 404 (Not Found)} if the section is not found,
+     * or with status {@code 400 (Bad Request)} if the section is not valid or doesn't exist,
+     * or with status {@code 409 (Conflict)} if the version in the body is not the current one,
+     * or with status {@code 412 (Precondition Failed)} if the {@code If-Match} tag is not the current one,
      * or with status {@code 500 (Internal Server Error)} if the section couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/sections/{id}", consumes = "application/merge-patch+json")
     public Mono<ResponseEntity<Section>> partialUpdateSection(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody Section section
+        @NotNull @RequestBody Section section,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         log.debug("REST request to partial update Section partially : {}, {}", id, section);
         if (section.getId() == null) {
@@ -153,82 +188,180 @@ public class SectionResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        return sectionRepository
-            .existsById(id)
-            .flatMap(
-                exists -> {
-                    if (!exists) {
-                        return Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
-                    }
+        if (ifMatch != null) {
+            section.setVersion(ETagUtil.parseVersion(ifMatch));
+        }
 
-                    Mono<Section> result = sectionRepository
-                        .findById(section.getId())
-                        .map(
-                            existingSection -> {
-                                if (section.getArea() != null) {
-                                    existingSection.setArea(section.getArea());
-                                }
-                                if (section.getProductType() != null) {
-                                    existingSection.setProductType(section.getProductType());
-                                }
-
-                                return existingSection;
-                            }
-                        )
-                        .flatMap(sectionRepository::save);
-
-                    return result
-                        .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
-                        .map(
-                            res ->
-                                ResponseEntity
-                                    .ok()
-                                    .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, res.getId().toString()))
-                                    .body(res)
-                        );
-                }
-            );
+        return sectionRepository
+            .partialUpdate(section)
+            .switchIfEmpty(Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound")))
+            .map(
+                result ->
+                    ETagUtil
+                        .ok(result.getVersion())
+                        .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+                        .body(result)
+            )
+            .onErrorMap(OptimisticLockingFailureException.class, ETagUtil.onVersionConflict(ifMatch));
     }
 
     /**
      * {@code GET  /sections} : get all the sections.
      *
      * @param pageable the pagination information.
+     * @param criteria the criteria which the requested entities should match.
+     * @param after the keyset cursor of the page, empty for the first page; offset pagination is used when absent.
+     * @param exact if the total count has to be computed from the database, instead of the cached or estimated one.
+     * @param ifNoneMatch the tag of the page, from its last read.
      * @param request a {@link ServerHttpRequest} request.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of sections in body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of sections in body,
+     * or with status {@code 304 (Not Modified)} if the sections didn't change since the page was tagged.
      */
     @GetMapping("/sections")
-    public Mono<ResponseEntity<List<Section>>> getAllSections(Pageable pageable, ServerHttpRequest request) {
-        log.debug("REST request to get a page of Sections");
-        return sectionRepository
-            .count()
-            .zipWith(sectionRepository.findAllBy(pageable).collectList())
-            .map(
-                countWithEntities -> {
-                    return ResponseEntity
-                        .ok()
-                        .headers(
-                            PaginationUtil.generatePaginationHttpHeaders(
-                                UriComponentsBuilder.fromHttpRequest(request),
-                                new PageImpl<>(countWithEntities.getT2(), pageable, countWithEntities.getT1())
-                            )
-                        )
-                        .body(countWithEntities.getT2());
-                }
-            );
+    @Transactional(readOnly = true)
+    public Mono<ResponseEntity<List<Section>>> getAllSections(
+        Pageable pageable,
+        SectionCriteria criteria,
+        @RequestParam(value = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after,
+        @RequestParam(value = "exact", defaultValue = "false") boolean exact,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+        ServerHttpRequest request
+    ) {
+        if (after != null) {
+            return getSectionsAfter(after, criteria, pageable, ifNoneMatch, request);
+        }
+        log.debug("REST request to get a page of Sections by criteria: {}", criteria);
+        Mono<Long> count;
+        if (criteria.equals(new SectionCriteria())) {
+            count = exact ? totalCountService.exactCount(Section.class) : totalCountService.count(Section.class);
+        } else {
+            // the cached and estimated totals are per table, filtered totals are always counted
+            count = sectionRepository.countByCriteria(criteria);
+        }
+        return ETagUtil.notModifiedOr(
+            ifNoneMatch,
+            tableStateService.state(Section.class),
+            tag ->
+                count
+                    .zipWith(sectionRepository.findByCriteria(criteria, pageable).collectList())
+                    .map(
+                        countWithEntities -> {
+                            return ResponseEntity
+                                .ok()
+                                .eTag(tag)
+                                .headers(
+                                    PaginationUtil.generatePaginationHttpHeaders(
+                                        UriComponentsBuilder.fromHttpRequest(request),
+                                        new PageImpl<>(countWithEntities.getT2(), pageable, countWithEntities.getT1())
+                                    )
+                                )
+                                .body(countWithEntities.getT2());
+                        }
+                    )
+        );
+    }
+
+    private Mono<ResponseEntity<List<Section>>> getSectionsAfter(
+        String after,
+        SectionCriteria criteria,
+        Pageable pageable,
+        String ifNoneMatch,
+        ServerHttpRequest request
+    ) {
+        log.debug("REST request to get a keyset page of Sections after : {}", after);
+        KeysetCursor cursor = KeysetPaginationUtil.parseCursor(after, pageable.getSort(), KEYSET_SORT_PROPERTIES, ENTITY_NAME);
+        return ETagUtil.notModifiedOr(
+            ifNoneMatch,
+            tableStateService.state(Section.class),
+            tag ->
+                sectionRepository
+                    .findByCriteriaAfter(criteria, cursor, pageable)
+                    .collectList()
+                    .map(
+                        sections -> {
+                            String next = null;
+                            if (sections.size() == pageable.getPageSize()) {
+                                Section last = sections.get(sections.size() - 1);
+                                next = KeysetCursor.after(last, last.getId(), pageable.getSort()).encode();
+                            }
+                            return ResponseEntity
+                                .ok()
+                                .eTag(tag)
+                                .headers(
+                                    KeysetPaginationUtil.generateKeysetHttpHeaders(UriComponentsBuilder.fromHttpRequest(request), next)
+                                )
+                                .body(sections);
+                        }
+                    )
+        );
+    }
+
+    /**
+     * {@code GET  /sections} : stream all the sections, as newline delimited JSON or server-sent events.
+     * <p>
+     * The rows are written to the response as they are read from the database, so that whole tables can be exported
+     * without holding them in memory.
+     *
+     * @param criteria the criteria which the streamed entities should match.
+     * @param sort the order of the sections.
+     * @return the {@link Flux} of all the sections.
+     */
+    @GetMapping(value = "/sections", produces = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE })
+    @Transactional(readOnly = true)
+    public Flux<Section> streamAllSections(SectionCriteria criteria, Sort sort) {
+        log.debug("REST request to stream all Sections by criteria: {}", criteria);
+        return sectionRepository.streamAll(criteria, sort);
     }
 
     /**
      * {@code GET  /sections/:id} : get the "id" section.
      *
      * @param id the id of the section to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the section, or with status {@code 404 (Not Found)}.
+     * @param ifNoneMatch the tag of the section, from its last read.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the section, or with status {@code 404 (Not Found)},
+     * or with status {@code 304 (Not Modified)} if the section didn't change since it was tagged.
      */
     @GetMapping("/sections/{id}")
-    public Mono<ResponseEntity<Section>> getSection(@PathVariable Long id) {
+    @Transactional(readOnly = true)
+    public Mono<ResponseEntity<Section>> getSection(
+        @PathVariable Long id,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
         log.debug("REST request to get Section : {}", id);
         Mono<Section> section = sectionRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(section);
+        Mono<String> currentTag = sectionRepository.findVersionById(id).map(ETagUtil::entityTag);
+        return ETagUtil.wrapOrNotFound(ifNoneMatch, currentTag, section, found -> ETagUtil.entityTag(found.getVersion()));
+    }
+
+    /**
+     * {@code GET  /sections/:id/occupancy} : get the occupancy of the "id" section.
+     *
+     * @param id the id of the section.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the area used by the stock of the section, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/sections/{id}/occupancy")
+    @Transactional(readOnly = true)
+    public Mono<ResponseEntity<SectionOccupancyDTO>> getSectionOccupancy(@PathVariable Long id) {
+        log.debug("REST request to get the occupancy of Section : {}", id);
+        return ResponseUtil.wrapOrNotFound(sectionOccupancyService.occupancy(id));
+    }
+
+    /**
+     * {@code GET  /sections/best} : get the section with the most free area, to store an amount of a product.
+     *
+     * @param productId the id of the product to store.
+     * @param amount the amount to store.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the section, or with status {@code 404 (Not Found)} if no section has room left for it.
+     */
+    @GetMapping("/sections/best")
+    @Transactional(readOnly = true)
+    public Mono<ResponseEntity<Section>> getBestSection(
+        @RequestParam(value = "productId") Long productId,
+        @RequestParam(value = "amount", defaultValue = "1") long amount
+    ) {
+        log.debug("REST request to get the best Section for {} of product {}", amount, productId);
+        Mono<Section> section = sectionOccupancyService.bestSectionFor(productId, amount).flatMap(sectionRepository::findById);
+        return ETagUtil.wrapOrNotFound(section, found -> ETagUtil.entityTag(found.getVersion()));
     }
 
     /**
@@ -0,0 +1,69 @@
+package com.medmor.inventory.web.rest;
+
+import com.medmor.inventory.domain.StockLevel;
+import com.medmor.inventory.repository.StockLevelRepository;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * REST controller for reading the {@link StockLevel} projection.
+ */
+@RestController
+@RequestMapping("/api")
+@Transactional(readOnly = true)
+public class StockResource {
+
+    private final Logger log = LoggerFactory.getLogger(StockResource.class);
+
+    private final StockLevelRepository stockLevelRepository;
+
+    public StockResource(StockLevelRepository stockLevelRepository) {
+        this.stockLevelRepository = stockLevelRepository;
+    }
+
+    /**
+     * {@code GET  /stock} : get the stock levels, optionally of a single product or section.
+     *
+     * @param productId the id of the product to filter on, optional.
+     * @param sectionId the id of the section to filter on, optional.
+     * @return the list of stock levels.
+     */
+    @GetMapping("/stock")
+    public Mono<List<StockLevel>> getAllStockLevels(
+        @RequestParam(value = "productId", required = false) Long productId,
+        @RequestParam(value = "sectionId", required = false) Long sectionId
+    ) {
+        log.debug("REST request to get stock levels of product {} in section {}", productId, sectionId);
+        Flux<StockLevel> stockLevels;
+        if (productId != null && sectionId != null) {
+            stockLevels = stockLevelRepository.findByProductAndSection(productId, sectionId).flux();
+        } else if (productId != null) {
+            stockLevels = stockLevelRepository.findByProduct(productId);
+        } else if (sectionId != null) {
+            stockLevels = stockLevelRepository.findBySection(sectionId);
+        } else {
+            stockLevels = stockLevelRepository.findAll();
+        }
+        return stockLevels.collectList();
+    }
+
+    /**
+     * {@code GET  /stock/:productId/:sectionId} : get the stock of a product in a section.
+     *
+     * @param productId the id of the product.
+     * @param sectionId the id of the section.
+     * @return the stock level, with a total amount of zero if there was never any registry for them.
+     */
+    @GetMapping("/stock/{productId}/{sectionId}")
+    public Mono<StockLevel> getStockLevel(@PathVariable Long productId, @PathVariable Long sectionId) {
+        log.debug("REST request to get stock level of product {} in section {}", productId, sectionId);
+        return stockLevelRepository
+            .findByProductAndSection(productId, sectionId)
+            .defaultIfEmpty(new StockLevel().productId(productId).sectionId(sectionId).totalAmount(0L));
+    }
+}
@@ -150,6 +150,19 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
         return create(new InvalidPasswordException(), request);
     }
 
+    @ExceptionHandler
+    public Mono<ResponseEntity<Problem>> handleSectionCapacityExceededException(
+        com.medmor.inventory.service.SectionCapacityExceededException ex,
+        ServerWebExchange request
+    ) {
+        BadRequestAlertException problem = new BadRequestAlertException(ex.getMessage(), "registry", "sectioncapacityexceeded");
+        return create(
+            problem,
+            request,
+            HeaderUtil.createFailureAlert(applicationName, true, problem.getEntityName(), problem.getErrorKey(), problem.getMessage())
+        );
+    }
+
     @ExceptionHandler
     public Mono<ResponseEntity<Problem>> handleBadRequestAlertException(BadRequestAlertException ex, ServerWebExchange request) {
         return create(
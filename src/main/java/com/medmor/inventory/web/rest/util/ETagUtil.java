@@ -0,0 +1,175 @@
+package com.medmor.inventory.web.rest.util;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.function.Function;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Utility class for the strong entity tags of the versioned entities and of their pages.
+ * <p>
+ * The tag of an entity is its version, followed by the versions of the related entities returned with it, such as
+ * {@code "3"} or {@code "3.0.1"}. The tag of a page is a digest of the state of the tables it is read from, see
+ * {@link com.medmor.inventory.service.TableStateService}. Requests with an {@code If-None-Match} header are checked against
+ * the current version or table state before the entities are loaded, and answered with {@code 304 (Not Modified)} when it
+ * matches.
+ */
+public final class ETagUtil {
+
+    private static final String ANY = "*";
+
+    private ETagUtil() {}
+
+    /**
+     * Create the tag of an entity.
+     *
+     * @param version the version of the entity.
+     * @param relatedVersions the versions of the related entities in the response, null if they are not included.
+     * @return the quoted entity tag.
+     */
+    public static String entityTag(Long version, Long... relatedVersions) {
+        StringBuilder tag = new StringBuilder().append('"').append(version);
+        for (Long relatedVersion : relatedVersions) {
+            tag.append('.').append(relatedVersion != null ? relatedVersion.toString() : "");
+        }
+        return tag.append('"').toString();
+    }
+
+    /**
+     * Create a builder of a response with status {@code 200 (OK)} and the tag of the given version, if it is known.
+     *
+     * @param version the version of the entity, null if its new value wasn't read back.
+     * @return the response builder.
+     */
+    public static ResponseEntity.BodyBuilder ok(Long version) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        return version != null ? builder.eTag(entityTag(version)) : builder;
+    }
+
+    /**
+     * Answer a conditional request of a page with status {@code 304 (Not Modified)} if its {@code If-None-Match} header
+     * matches the tag of the current state of the tables, or else with the response built with that tag.
+     *
+     * @param ifNoneMatch the value of the header, null if absent.
+     * @param tableState the current state of the tables the page is read from.
+     * @param response the function building the response of the page with its tag, only called if the header doesn't match.
+     * @param <X> type of the response.
+     * @return the response.
+     */
+    public static <X> Mono<ResponseEntity<X>> notModifiedOr(
+        String ifNoneMatch,
+        Mono<List<Long>> tableState,
+        Function<String, Mono<ResponseEntity<X>>> response
+    ) {
+        return tableState
+            .map(ETagUtil::pageTag)
+            .flatMap(tag -> matches(ifNoneMatch, tag) ? Mono.just(notModified(tag)) : response.apply(tag));
+    }
+
+    private static String pageTag(List<Long> tableState) {
+        ByteBuffer bytes = ByteBuffer.allocate(tableState.size() * Long.BYTES);
+        tableState.forEach(bytes::putLong);
+        return '"' + DigestUtils.md5DigestAsHex(bytes.array()) + '"';
+    }
+
+    /**
+     * Wrap the entity into a {@link ResponseEntity} with status {@code 200 (OK)} and its tag, or return a
+     * {@link ResponseStatusException} with status {@code 404 (Not Found)} if it is empty.
+     *
+     * @param maybeResponse response to return if present.
+     * @param entityTag the function creating the tag of the entity.
+     * @param <X> type of the response.
+     * @return response containing {@code maybeResponse} if present.
+     */
+    public static <X> Mono<ResponseEntity<X>> wrapOrNotFound(Mono<X> maybeResponse, Function<X, String> entityTag) {
+        return maybeResponse
+            .map(response -> ResponseEntity.ok().eTag(entityTag.apply(response)).body(response))
+            .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)));
+    }
+
+    /**
+     * Wrap the entity into a {@link ResponseEntity} like {@link #wrapOrNotFound(Mono, Function)}, unless the
+     * {@code If-None-Match} header matches its current tag, in which case it isn't loaded and the response has status
+     * {@code 304 (Not Modified)}.
+     *
+     * @param ifNoneMatch the value of the header, null if absent.
+     * @param currentTag the current tag of the entity, read without loading it, empty if it doesn't exist.
+     * @param maybeResponse response to return if present, only subscribed to if the header doesn't match.
+     * @param entityTag the function creating the tag of the entity.
+     * @param <X> type of the response.
+     * @return response containing {@code maybeResponse} if present and modified.
+     */
+    public static <X> Mono<ResponseEntity<X>> wrapOrNotFound(
+        String ifNoneMatch,
+        Mono<String> currentTag,
+        Mono<X> maybeResponse,
+        Function<X, String> entityTag
+    ) {
+        if (ifNoneMatch == null) {
+            return wrapOrNotFound(maybeResponse, entityTag);
+        }
+        return currentTag
+            .filter(tag -> matches(ifNoneMatch, tag))
+            .map(ETagUtil::<X>notModified)
+            .switchIfEmpty(Mono.defer(() -> wrapOrNotFound(maybeResponse, entityTag)));
+    }
+
+    private static <X> ResponseEntity<X> notModified(String tag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tag).build();
+    }
+
+    private static boolean matches(String ifNoneMatch, String tag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            // the comparison of If-None-Match is the weak one
+            if (ANY.equals(trimmed) || tag.equals(trimmed.startsWith("W/") ? trimmed.substring(2) : trimmed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parse the version expected by the {@code If-Match} header of an update.
+     *
+     * @param ifMatch the value of the header, null if absent.
+     * @return the version of the entity in the tag, or null if any version matches.
+     * @throws ResponseStatusException with status {@code 412 (Precondition Failed)} if the header is not a tag of this API,
+     * which can't match the current one.
+     */
+    public static Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ANY.equals(ifMatch.trim())) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED);
+        }
+        int end = tag.indexOf('.');
+        try {
+            return Long.valueOf(tag.substring(1, end < 0 ? tag.length() - 1 : end));
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED);
+        }
+    }
+
+    /**
+     * Translate the failure of a conditional update.
+     *
+     * @param ifMatch the value of the {@code If-Match} header of the update, null if absent.
+     * @return a function returning a {@link ResponseStatusException} with status {@code 412 (Precondition Failed)} if the
+     * expected version came from the header, or the failure itself, answered with {@code 409 (Conflict)}, if it came from
+     * the body.
+     */
+    public static Function<OptimisticLockingFailureException, Throwable> onVersionConflict(String ifMatch) {
+        return e -> ifMatch != null ? new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, null, e) : e;
+    }
+}
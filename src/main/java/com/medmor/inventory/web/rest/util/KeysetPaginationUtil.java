@@ -0,0 +1,86 @@
+package com.medmor.inventory.web.rest.util;
+
+import com.medmor.inventory.service.KeysetCursor;
+import com.medmor.inventory.web.rest.errors.BadRequestAlertException;
+import java.text.MessageFormat;
+import java.util.Map;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for handling keyset (seek) pagination.
+ * <p>
+ * Unlike offset pagination, only a {@code next} link is generated, and no total count is computed, which is the whole point.
+ */
+public final class KeysetPaginationUtil {
+
+    public static final String AFTER_PARAMETER = "after";
+
+    private static final String HEADER_LINK_FORMAT = "<{0}>; rel=\"{1}\"";
+
+    private KeysetPaginationUtil() {}
+
+    /**
+     * Parse the cursor sent by the client.
+     *
+     * @param after the value of the {@code after} parameter, empty for the first page.
+     * @param sort the requested sort.
+     * @param sortProperties the types of the properties keyset pagination can be done by: the ones mapped to non-null
+     * columns, as the rows with a null value would never be sought past.
+     * @param entityName the name of the paginated entity, used in the error alert.
+     * @return the cursor, or null for the first page.
+     * @throws BadRequestAlertException if the sort is not supported, or the cursor is invalid or was created for another sort.
+     */
+    public static KeysetCursor parseCursor(String after, Sort sort, Map<String, Class<?>> sortProperties, String entityName) {
+        if (!KeysetCursor.isSupported(sort)) {
+            throw new BadRequestAlertException("Keyset pagination supports a single sort property", entityName, "sortinvalid");
+        }
+        String property = KeysetCursor.getOrder(sort).getProperty();
+        if (!sortProperties.containsKey(property)) {
+            throw new BadRequestAlertException("Keyset pagination is not supported by " + property, entityName, "sortinvalid");
+        }
+        if (after.isEmpty()) {
+            return null;
+        }
+        KeysetCursor cursor;
+        try {
+            cursor = KeysetCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", entityName, "cursorinvalid");
+        }
+        if (!cursor.isCompatibleWith(sort)) {
+            throw new BadRequestAlertException("Cursor does not match the requested sort", entityName, "cursorinvalid");
+        }
+        if (!cursor.isIdOnly() && !isValueOf(cursor.getValue(), sortProperties.get(property))) {
+            throw new BadRequestAlertException("Invalid cursor", entityName, "cursorinvalid");
+        }
+        return cursor;
+    }
+
+    private static boolean isValueOf(String value, Class<?> type) {
+        try {
+            return DefaultConversionService.getSharedInstance().convert(value, type) != null;
+        } catch (ConversionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Generate pagination headers for a keyset paginated page.
+     *
+     * @param uriBuilder the uri builder of the current request.
+     * @param nextCursor the encoded cursor of the next page, or null if this is the last page.
+     * @return http header.
+     */
+    public static HttpHeaders generateKeysetHttpHeaders(UriComponentsBuilder uriBuilder, String nextCursor) {
+        HttpHeaders headers = new HttpHeaders();
+        if (nextCursor != null) {
+            String link = uriBuilder.replaceQueryParam(AFTER_PARAMETER, nextCursor).replaceQueryParam("page").toUriString();
+            headers.add(HttpHeaders.LINK, MessageFormat.format(HEADER_LINK_FORMAT, link, "next"));
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Utility classes for the REST controllers.
+ */
+package com.medmor.inventory.web.rest.util;
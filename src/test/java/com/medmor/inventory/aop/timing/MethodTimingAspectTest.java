@@ -0,0 +1,100 @@
+package com.medmor.inventory.aop.timing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class MethodTimingAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void testMonoIsTimedFromSubscription() throws Throwable {
+        MethodTimingAspect aspect = new MethodTimingAspect(meterRegistry, 1.0, false);
+
+        Mono<?> result = (Mono<?>) aspect.timeAround(joinPoint("findOne", Mono.delay(Duration.ofMillis(50))));
+
+        assertThat(meterRegistry.find(MethodTimingAspect.METRIC_NAME).timers()).allMatch(timer -> timer.count() == 0);
+        result.block();
+        Timer timer = timer("findOne", "success");
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(50);
+    }
+
+    @Test
+    void testFluxOutcomes() throws Throwable {
+        MethodTimingAspect aspect = new MethodTimingAspect(meterRegistry, 1.0, false);
+
+        ((Flux<?>) aspect.timeAround(joinPoint("findAll", Flux.error(new IllegalStateException())))).onErrorResume(e -> Flux.empty())
+            .blockLast();
+        ((Flux<?>) aspect.timeAround(joinPoint("findAll", Flux.range(0, 10)))).take(1).blockLast();
+
+        assertThat(timer("findAll", "error").count()).isEqualTo(1);
+        assertThat(timer("findAll", "cancelled").count()).isEqualTo(1);
+    }
+
+    @Test
+    void testBlockingMethodIsTimed() throws Throwable {
+        MethodTimingAspect aspect = new MethodTimingAspect(meterRegistry, 1.0, false);
+
+        assertThat(aspect.timeAround(joinPoint("count", 1L))).isEqualTo(1L);
+        ProceedingJoinPoint failing = joinPoint("count", null);
+        when(failing.proceed()).thenThrow(new IllegalArgumentException());
+        assertThatThrownBy(() -> aspect.timeAround(failing)).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(timer("count", "success").count()).isEqualTo(1);
+        assertThat(timer("count", "error").count()).isEqualTo(1);
+    }
+
+    @Test
+    void testUnsampledCallsAreNotTimed() throws Throwable {
+        MethodTimingAspect aspect = new MethodTimingAspect(meterRegistry, 0.0, false);
+
+        assertThat(aspect.timeAround(joinPoint("count", 1L))).isEqualTo(1L);
+
+        assertThat(meterRegistry.find(MethodTimingAspect.METRIC_NAME).timers()).isEmpty();
+    }
+
+    private Timer timer(String method, String outcome) {
+        return meterRegistry
+            .get(MethodTimingAspect.METRIC_NAME)
+            .tag("class", SampleService.class.getSimpleName())
+            .tag("method", method)
+            .tag("outcome", outcome)
+            .timer();
+    }
+
+    private static ProceedingJoinPoint joinPoint(String method, Object result) throws Throwable {
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(SampleService.class.getMethod(method));
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.proceed()).thenReturn(result);
+        return joinPoint;
+    }
+
+    public interface SampleService {
+        Mono<Long> findOne();
+
+        Flux<Integer> findAll();
+
+        Long count();
+    }
+}
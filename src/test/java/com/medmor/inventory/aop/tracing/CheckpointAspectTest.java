@@ -0,0 +1,69 @@
+package com.medmor.inventory.aop.tracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class CheckpointAspectTest {
+
+    private final AssemblyTracing assemblyTracing = new AssemblyTracing(AssemblyTracing.Mode.OFF);
+
+    private final CheckpointAspect checkpointAspect = new CheckpointAspect(assemblyTracing);
+
+    @AfterEach
+    public void tearDown() {
+        assemblyTracing.setMode(AssemblyTracing.Mode.OFF);
+    }
+
+    @Test
+    void testNoCheckpointWhenOff() throws Throwable {
+        Mono<Object> result = Mono.error(new IllegalStateException());
+
+        assertThat(checkpointAspect.checkpointAround(joinPoint("findById", result))).isSameAs(result);
+    }
+
+    @Test
+    void testErrorsGoThroughCheckpoint() throws Throwable {
+        assemblyTracing.setMode(AssemblyTracing.Mode.CHECKPOINT);
+
+        Flux<?> result = (Flux<?>) checkpointAspect.checkpointAround(joinPoint("findAll", Flux.error(new IllegalStateException())));
+
+        assertThatThrownBy(result::blockLast)
+            .satisfies(e -> assertThat(e.getSuppressed()).anyMatch(s -> s.getMessage().contains("String.findAll")));
+    }
+
+    @Test
+    void testFullModeTracesEveryOperator() {
+        new AssemblyTracingEndpoint(assemblyTracing).setMode(AssemblyTracing.Mode.FULL);
+
+        Mono<Integer> result = Mono.just(1).map(i -> i / 0);
+
+        assertThatThrownBy(result::block)
+            .satisfies(e -> assertThat(e.getSuppressed()).anyMatch(s -> s.getMessage().contains("Assembly trace")));
+    }
+
+    @Test
+    void testBlockingResultIsUnchanged() throws Throwable {
+        assemblyTracing.setMode(AssemblyTracing.Mode.CHECKPOINT);
+
+        assertThat(checkpointAspect.checkpointAround(joinPoint("count", 1L))).isEqualTo(1L);
+    }
+
+    private static ProceedingJoinPoint joinPoint(String method, Object result) throws Throwable {
+        Signature signature = mock(Signature.class);
+        when(signature.getDeclaringType()).thenReturn(String.class);
+        when(signature.getName()).thenReturn(method);
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.proceed()).thenReturn(result);
+        return joinPoint;
+    }
+}
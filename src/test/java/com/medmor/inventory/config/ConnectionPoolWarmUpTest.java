@@ -0,0 +1,67 @@
+package com.medmor.inventory.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactory;
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import reactor.core.publisher.Mono;
+
+class ConnectionPoolWarmUpTest {
+
+    private ConnectionPool pool;
+
+    @AfterEach
+    public void tearDown() {
+        if (pool != null) {
+            pool.dispose();
+        }
+    }
+
+    @Test
+    void testWarmUpOpensTheInitialConnections() {
+        pool = new ConnectionPool(ConnectionPoolConfiguration.builder(H2ConnectionFactory.inMemory("warmup")).initialSize(3).build());
+
+        warmUp(new ApplicationProperties()).warmUp(pool, Duration.ofSeconds(10));
+
+        assertThat(pool.getMetrics().get().allocatedSize()).isEqualTo(3);
+        assertThat(pool.getMetrics().get().idleSize()).isEqualTo(3);
+    }
+
+    @Test
+    void testFailedWarmUpIsIgnored() {
+        ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+        doReturn(Mono.error(new IllegalStateException("Connection refused"))).when(connectionFactory).create();
+        pool = new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory).initialSize(3).build());
+
+        ConnectionPoolWarmUp connectionPoolWarmUp = warmUp(new ApplicationProperties());
+
+        assertThatCode(() -> connectionPoolWarmUp.warmUp(pool, Duration.ofSeconds(10))).doesNotThrowAnyException();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testDisabledWarmUpSkipsThePools() {
+        ObjectProvider<ConnectionFactory> connectionFactories = mock(ObjectProvider.class);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getPoolWarmUp().setEnabled(false);
+
+        new ConnectionPoolWarmUp(connectionFactories, applicationProperties).warmUp();
+
+        verifyNoInteractions(connectionFactories);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ConnectionPoolWarmUp warmUp(ApplicationProperties applicationProperties) {
+        return new ConnectionPoolWarmUp(mock(ObjectProvider.class), applicationProperties);
+    }
+}
@@ -0,0 +1,74 @@
+package com.medmor.inventory.domain;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medmor.inventory.config.JacksonConfiguration;
+import com.medmor.inventory.domain.enumeration.ContainerType;
+import com.medmor.inventory.domain.enumeration.ProductSize;
+import com.medmor.inventory.domain.enumeration.ProductType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * JSON serialization of the registries with their product and section, as returned by the expanded registry endpoints.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegistrySerializationBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private ObjectMapper objectMapper;
+    private Registry registry;
+    private List<Registry> page;
+
+    @Setup
+    public void setup() {
+        JacksonConfiguration jacksonConfiguration = new JacksonConfiguration();
+        objectMapper =
+            Jackson2ObjectMapperBuilder
+                .json()
+                .modules(jacksonConfiguration.javaTimeModule(), jacksonConfiguration.jdk8TimeModule())
+                .build();
+        page = new ArrayList<>();
+        for (long id = 1; id <= PAGE_SIZE; id++) {
+            Product product = new Product()
+                .id(id)
+                .productSize(ProductSize.M)
+                .color("blue")
+                .price(9.99F)
+                .fragile(Boolean.FALSE)
+                .lote("L-" + id)
+                .containerType(ContainerType.Cardboard);
+            Section section = new Section().id(id).area(120F).productType(ProductType.Tools);
+            page.add(new Registry().id(id).amount(10).product(product).section(section));
+        }
+        registry = page.get(0);
+    }
+
+    @Benchmark
+    public String serializeRegistry() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(registry);
+    }
+
+    @Benchmark
+    public byte[] serializeRegistryPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,40 @@
+package com.medmor.inventory.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class QueryIndexCheckerTest {
+
+    @Test
+    void testAliasedColumnsAreResolved() {
+        assertThat(QueryIndexChecker.getFilteredColumns("SELECT * FROM registry entity WHERE entity.product_id = :id"))
+            .extracting(Object::toString)
+            .containsExactly("registry.product_id");
+        assertThat(QueryIndexChecker.getFilteredColumns("SELECT * FROM registry entity WHERE entity.section_id IS NULL"))
+            .extracting(Object::toString)
+            .containsExactly("registry.section_id");
+    }
+
+    @Test
+    void testUnaliasedColumnsOfSingleTable() {
+        String sql = "DELETE FROM jhi_user_authority WHERE user_id = :userId AND authority_name IN (:names)";
+        assertThat(QueryIndexChecker.getFilteredColumns(sql))
+            .extracting(Object::toString)
+            .containsExactly("jhi_user_authority.user_id", "jhi_user_authority.authority_name");
+    }
+
+    @Test
+    void testJoinedTables() {
+        String sql = "SELECT e.* FROM registry e LEFT JOIN product p ON e.product_id = p.id WHERE p.lote LIKE :lote AND e.amount > 0";
+        assertThat(QueryIndexChecker.getFilteredColumns(sql))
+            .extracting(Object::toString)
+            .containsExactly("product.lote", "registry.amount");
+    }
+
+    @Test
+    void testQueriesWithoutWhere() {
+        assertThat(QueryIndexChecker.getFilteredColumns("DELETE FROM jhi_user_authority")).isEmpty();
+        assertThat(QueryIndexChecker.getFilteredColumns("INSERT INTO jhi_user_authority VALUES(:userId, :authority)")).isEmpty();
+    }
+}
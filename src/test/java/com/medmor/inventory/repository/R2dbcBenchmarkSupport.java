@@ -0,0 +1,47 @@
+package com.medmor.inventory.repository;
+
+import com.medmor.inventory.config.DatabaseConfiguration;
+import com.medmor.inventory.service.ColumnConverter;
+import com.medmor.inventory.service.EntityManager;
+import io.r2dbc.h2.H2ConnectionFactory;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.data.r2dbc.convert.MappingR2dbcConverter;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.dialect.H2Dialect;
+import org.springframework.data.r2dbc.dialect.R2dbcDialect;
+import org.springframework.data.r2dbc.mapping.R2dbcMappingContext;
+import org.springframework.data.r2dbc.query.UpdateMapper;
+import org.springframework.data.relational.core.dialect.RenderContextFactory;
+import org.springframework.data.relational.core.sql.render.SqlRenderer;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * Creates the R2DBC mapping infrastructure of the application without a Spring context, for the JMH benchmarks.
+ * It is configured as in {@link DatabaseConfiguration}, with the H2 dialect; the database is never connected to.
+ */
+public final class R2dbcBenchmarkSupport {
+
+    private static final R2dbcDialect DIALECT = H2Dialect.INSTANCE;
+
+    private final R2dbcCustomConversions conversions;
+    private final MappingR2dbcConverter converter;
+
+    public R2dbcBenchmarkSupport() {
+        conversions = new DatabaseConfiguration(new StandardEnvironment()).r2dbcCustomConversions(DIALECT);
+        R2dbcMappingContext mappingContext = new R2dbcMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        converter = new MappingR2dbcConverter(mappingContext, conversions);
+    }
+
+    public ColumnConverter columnConverter() {
+        return new ColumnConverter(conversions, converter);
+    }
+
+    public EntityManager entityManager() {
+        SqlRenderer sqlRenderer = SqlRenderer.create(new RenderContextFactory(DIALECT).createRenderContext());
+        DatabaseClient databaseClient = DatabaseClient.create(H2ConnectionFactory.inMemory("benchmark"));
+        R2dbcEntityTemplate r2dbcEntityTemplate = new R2dbcEntityTemplate(databaseClient, DIALECT, converter);
+        return new EntityManager(sqlRenderer, new UpdateMapper(DIALECT, converter), r2dbcEntityTemplate, DIALECT);
+    }
+}
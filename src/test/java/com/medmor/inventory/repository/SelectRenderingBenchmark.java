@@ -0,0 +1,105 @@
+package com.medmor.inventory.repository;
+
+import com.medmor.inventory.domain.Product;
+import com.medmor.inventory.domain.Registry;
+import com.medmor.inventory.domain.enumeration.ContainerType;
+import com.medmor.inventory.service.ConditionBuilder;
+import com.medmor.inventory.service.EntityManager;
+import com.medmor.inventory.service.KeysetCursor;
+import com.medmor.inventory.service.criteria.ProductCriteria;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.relational.core.sql.Column;
+import org.springframework.data.relational.core.sql.Condition;
+import org.springframework.data.relational.core.sql.Expression;
+import org.springframework.data.relational.core.sql.Select;
+import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoin;
+import org.springframework.data.relational.core.sql.Table;
+import tech.jhipster.service.filter.FloatFilter;
+
+/**
+ * Rendering of the SQL of the repositories by the {@link EntityManager}, as done on a miss of the statement cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SelectRenderingBenchmark {
+
+    private static final Table PRODUCT = Table.aliased("product", EntityManager.ENTITY_ALIAS);
+    private static final Table REGISTRY = Table.aliased("registry", EntityManager.ENTITY_ALIAS);
+    private static final Table REGISTRY_PRODUCT = Table.aliased("product", "product");
+    private static final Table REGISTRY_SECTION = Table.aliased("section", "section");
+
+    private EntityManager entityManager;
+    private ProductCriteria criteria;
+    private Pageable pageable;
+    private KeysetCursor after;
+
+    @Setup
+    public void setup() {
+        entityManager = new R2dbcBenchmarkSupport().entityManager();
+        criteria = new ProductCriteria();
+        FloatFilter price = new FloatFilter();
+        price.setGreaterThan(10F);
+        criteria.setPrice(price);
+        ProductCriteria.ContainerTypeFilter containerType = new ProductCriteria.ContainerTypeFilter();
+        containerType.setIn(List.of(ContainerType.Glass, ContainerType.Plastic));
+        criteria.setContainerType(containerType);
+        pageable = PageRequest.of(3, 20, Sort.by("price").descending());
+        after = KeysetCursor.after(new Product().price(12.5F), 42L, pageable.getSort());
+    }
+
+    @Benchmark
+    public String productPage() {
+        ConditionBuilder conditions = ProductSqlHelper.addConditions(new ConditionBuilder(), criteria, PRODUCT);
+        return entityManager.createSelect(selectFromProduct(), Product.class, pageable, conditions.build());
+    }
+
+    @Benchmark
+    public String productKeyset() {
+        ConditionBuilder conditions = ProductSqlHelper.addConditions(new ConditionBuilder(), criteria, PRODUCT);
+        return entityManager.createKeysetSelect(selectFromProduct(), Product.class, pageable, after, conditions.build());
+    }
+
+    @Benchmark
+    public String registryExpandedPage() {
+        List<Expression> columns = RegistrySqlHelper.getColumns(REGISTRY, EntityManager.ENTITY_ALIAS);
+        columns.addAll(ProductSqlHelper.getColumns(REGISTRY_PRODUCT, "product"));
+        columns.addAll(SectionSqlHelper.getColumns(REGISTRY_SECTION, "section"));
+        return entityManager.createSelect(
+            Select
+                .builder()
+                .select(columns)
+                .from(REGISTRY)
+                .leftOuterJoin(REGISTRY_PRODUCT)
+                .on(Column.create("product_id", REGISTRY))
+                .equals(Column.create("id", REGISTRY_PRODUCT))
+                .leftOuterJoin(REGISTRY_SECTION)
+                .on(Column.create("section_id", REGISTRY))
+                .equals(Column.create("id", REGISTRY_SECTION)),
+            Registry.class,
+            pageable,
+            (Condition) null
+        );
+    }
+
+    private static SelectFromAndJoin selectFromProduct() {
+        return Select.builder().select(ProductSqlHelper.getColumns(PRODUCT, EntityManager.ENTITY_ALIAS)).from(PRODUCT);
+    }
+}
@@ -0,0 +1,92 @@
+package com.medmor.inventory.repository.routing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactory;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class PrimaryReadsTest {
+
+    private static final ConnectionFactory PRIMARY = H2ConnectionFactory.inMemory("primary_reads_primary");
+    private static final ConnectionFactory REPLICA = H2ConnectionFactory.inMemory("primary_reads_replica");
+
+    private final ReplicaRoutingConnectionFactory connectionFactory = new ReplicaRoutingConnectionFactory(
+        PRIMARY,
+        List.of(REPLICA),
+        Duration.ofSeconds(30)
+    );
+    private final ReadOnlyRoutingTransactionManager transactionManager = new ReadOnlyRoutingTransactionManager(connectionFactory);
+    private final PrimaryReads primaryReads = new PrimaryReads(transactionManager);
+
+    @BeforeEach
+    public void setup() {
+        createOrigin(PRIMARY, "primary");
+        createOrigin(REPLICA, "replica");
+    }
+
+    @Test
+    void testReadInReadOnlyTransactionUsesThePrimary() {
+        assertThat(inTransaction(true, selectOrigin()).block()).isEqualTo("replica");
+        assertThat(inTransaction(true, primaryReads.read(selectOrigin())).block()).isEqualTo("primary");
+        assertThat(inTransaction(true, primaryReads.readAll(selectOrigin().flux()).next()).block()).isEqualTo("primary");
+    }
+
+    @Test
+    void testReadOutsideTransactionUsesThePrimary() {
+        assertThat(primaryReads.read(selectOrigin()).block()).isEqualTo("primary");
+        assertThat(primaryReads.readAll(selectOrigin().flux()).blockLast()).isEqualTo("primary");
+    }
+
+    @Test
+    void testReadInReadWriteTransactionJoinsIt() {
+        DatabaseClient databaseClient = DatabaseClient.create(connectionFactory);
+        Mono<String> written = databaseClient
+            .sql("INSERT INTO origin (name) VALUES ('written')")
+            .then()
+            .then(
+                primaryReads.read(
+                    databaseClient.sql("SELECT name FROM origin WHERE name = 'written'").map(row -> row.get("name", String.class)).one()
+                )
+            );
+
+        // a new transaction wouldn't see the uncommitted row
+        assertThat(inTransaction(false, written).block()).isEqualTo("written");
+    }
+
+    @Test
+    void testReadsAreUnchangedWithoutReplicas() {
+        PrimaryReads withoutReplicas = new PrimaryReads(new R2dbcTransactionManager(PRIMARY));
+        Mono<String> read = selectOrigin();
+        Flux<String> reads = selectOrigin().flux();
+
+        assertThat(withoutReplicas.read(read)).isSameAs(read);
+        assertThat(withoutReplicas.readAll(reads)).isSameAs(reads);
+    }
+
+    private Mono<String> selectOrigin() {
+        return DatabaseClient.create(connectionFactory).sql("SELECT name FROM origin").map(row -> row.get("name", String.class)).one();
+    }
+
+    private Mono<String> inTransaction(boolean readOnly, Mono<String> query) {
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setReadOnly(readOnly);
+        return TransactionalOperator.create(transactionManager, definition).transactional(query);
+    }
+
+    private static void createOrigin(ConnectionFactory connectionFactory, String name) {
+        DatabaseClient databaseClient = DatabaseClient.create(connectionFactory);
+        databaseClient.sql("CREATE TABLE IF NOT EXISTS origin (name VARCHAR(20))").then().block();
+        databaseClient.sql("DELETE FROM origin").then().block();
+        databaseClient.sql("INSERT INTO origin (name) VALUES (:name)").bind("name", name).then().block();
+    }
+}
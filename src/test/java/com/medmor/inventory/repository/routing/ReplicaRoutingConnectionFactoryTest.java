@@ -0,0 +1,103 @@
+package com.medmor.inventory.repository.routing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactory;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Mono;
+
+class ReplicaRoutingConnectionFactoryTest {
+
+    private static final ConnectionFactory PRIMARY = H2ConnectionFactory.inMemory("routing_primary");
+    private static final ConnectionFactory REPLICA = H2ConnectionFactory.inMemory("routing_replica");
+
+    @BeforeEach
+    public void setup() {
+        createOrigin(PRIMARY, "primary");
+        createOrigin(REPLICA, "replica");
+    }
+
+    @Test
+    void testReadOnlyTransactionUsesTheReplica() {
+        ReplicaRoutingConnectionFactory connectionFactory = routing(REPLICA);
+
+        assertThat(inTransaction(connectionFactory, true, selectOrigin(connectionFactory)).block()).isEqualTo("replica");
+    }
+
+    @Test
+    void testOtherConnectionsUseThePrimary() {
+        ReplicaRoutingConnectionFactory connectionFactory = routing(REPLICA);
+
+        assertThat(inTransaction(connectionFactory, false, selectOrigin(connectionFactory)).block()).isEqualTo("primary");
+        assertThat(selectOrigin(connectionFactory).block()).isEqualTo("primary");
+    }
+
+    @Test
+    void testReadWriteTransactionStartedFromReadOnlyContextUsesThePrimary() {
+        ReplicaRoutingConnectionFactory connectionFactory = routing(REPLICA);
+
+        Mono<String> origin = inTransaction(connectionFactory, false, selectOrigin(connectionFactory))
+            .contextWrite(context -> ReplicaRoutingConnectionFactory.withReadOnly(context, true));
+
+        assertThat(origin.block()).isEqualTo("primary");
+    }
+
+    @Test
+    void testUnavailableReplicaFallsBackToThePrimary() {
+        ConnectionFactory unavailable = mock(ConnectionFactory.class);
+        doReturn(Mono.error(new IllegalStateException("Connection refused"))).when(unavailable).create();
+        ReplicaRoutingConnectionFactory connectionFactory = routing(unavailable);
+
+        assertThat(inTransaction(connectionFactory, true, selectOrigin(connectionFactory)).block()).isEqualTo("primary");
+        assertThat(inTransaction(connectionFactory, true, selectOrigin(connectionFactory)).block()).isEqualTo("primary");
+
+        // the replica is left out after its failure
+        verify(unavailable, times(1)).create();
+    }
+
+    @Test
+    void testReplicasAreUsedInTurn() {
+        ConnectionFactory unavailable = mock(ConnectionFactory.class);
+        doReturn(Mono.error(new IllegalStateException("Connection refused"))).when(unavailable).create();
+        ReplicaRoutingConnectionFactory connectionFactory = routing(unavailable, REPLICA);
+
+        for (int i = 0; i < 4; i++) {
+            inTransaction(connectionFactory, true, selectOrigin(connectionFactory)).block();
+        }
+
+        verify(unavailable, times(1)).create();
+        assertThat(inTransaction(connectionFactory, true, selectOrigin(connectionFactory)).block()).isEqualTo("replica");
+    }
+
+    private static ReplicaRoutingConnectionFactory routing(ConnectionFactory... replicas) {
+        return new ReplicaRoutingConnectionFactory(PRIMARY, List.of(replicas), Duration.ofSeconds(30));
+    }
+
+    private static Mono<String> selectOrigin(ConnectionFactory connectionFactory) {
+        return DatabaseClient.create(connectionFactory).sql("SELECT name FROM origin").map(row -> row.get("name", String.class)).one();
+    }
+
+    private static Mono<String> inTransaction(ConnectionFactory connectionFactory, boolean readOnly, Mono<String> query) {
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setReadOnly(readOnly);
+        return TransactionalOperator.create(new ReadOnlyRoutingTransactionManager(connectionFactory), definition).transactional(query);
+    }
+
+    private static void createOrigin(ConnectionFactory connectionFactory, String name) {
+        DatabaseClient databaseClient = DatabaseClient.create(connectionFactory);
+        databaseClient.sql("CREATE TABLE IF NOT EXISTS origin (name VARCHAR(20))").then().block();
+        databaseClient.sql("DELETE FROM origin").then().block();
+        databaseClient.sql("INSERT INTO origin (name) VALUES (:name)").bind("name", name).then().block();
+    }
+}
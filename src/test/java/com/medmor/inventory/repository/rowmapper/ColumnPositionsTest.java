@@ -0,0 +1,120 @@
+package com.medmor.inventory.repository.rowmapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.medmor.inventory.domain.Product;
+import com.medmor.inventory.domain.Registry;
+import com.medmor.inventory.domain.enumeration.ContainerType;
+import com.medmor.inventory.domain.enumeration.ProductSize;
+import com.medmor.inventory.repository.R2dbcBenchmarkSupport;
+import com.medmor.inventory.service.ColumnConverter;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ColumnPositionsTest {
+
+    private ColumnConverter converter;
+
+    @BeforeEach
+    public void setup() {
+        converter = new R2dbcBenchmarkSupport().columnConverter();
+    }
+
+    @Test
+    void testColumnsAreReadByIndex() {
+        DriverRow row = spy(registryRow(1L, 2L));
+        BiFunction<Row, RowMetadata, Registry> mapper = new RegistryRowMapper(converter).indexed("e");
+
+        Registry registry = mapper.apply(row, row.getMetadata());
+
+        assertThat(registry.getId()).isEqualTo(1L);
+        assertThat(registry.getAmount()).isEqualTo(10);
+        assertThat(registry.getProductId()).isEqualTo(2L);
+        assertThat(registry.getSectionId()).isNull();
+        verify(row, never()).get(anyString(), any());
+    }
+
+    @Test
+    void testPositionsAreResolvedOnTheFirstRow() {
+        BiFunction<Row, RowMetadata, Registry> mapper = new RegistryRowMapper(converter).indexed("e");
+        DriverRow first = registryRow(1L, 2L);
+        mapper.apply(first, first.getMetadata());
+
+        DriverRow second = registryRow(3L, 4L);
+        Registry registry = mapper.apply(second, null);
+
+        assertThat(registry.getId()).isEqualTo(3L);
+        assertThat(registry.getProductId()).isEqualTo(4L);
+    }
+
+    @Test
+    void testConversionsAreResolvedOnTheFirstRow() {
+        ColumnConverter columnConverter = spy(converter);
+        BiFunction<Row, RowMetadata, Registry> mapper = new RegistryRowMapper(columnConverter).indexed("e");
+
+        for (long id = 1; id <= 3; id++) {
+            DriverRow row = registryRow(id, id + 1);
+            assertThat(mapper.apply(row, row.getMetadata()).getProductId()).isEqualTo(id + 1);
+        }
+
+        // once per column, not per row
+        verify(columnConverter, times(5)).column(anyString(), any());
+        verify(columnConverter, never()).fromRow(any(), anyInt(), anyString(), any());
+    }
+
+    @Test
+    void testConvertedColumns() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("registry_id", 1L);
+        values.put("product_id", 5L);
+        values.put("product_product_size", "XL");
+        values.put("product_color", "red");
+        values.put("product_price", 2.5F);
+        values.put("product_fragile", Boolean.TRUE);
+        values.put("product_lote", "L1");
+        values.put("product_container_type", "Glass");
+        values.put("product_version", 3L);
+        DriverRow row = new DriverRow(values);
+
+        Product product = new ProductRowMapper(converter).indexed("product").apply(row, row.getMetadata());
+
+        assertThat(product.getId()).isEqualTo(5L);
+        assertThat(product.getProductSize()).isEqualTo(ProductSize.XL);
+        assertThat(product.getPrice()).isEqualTo(2.5F);
+        assertThat(product.getContainerType()).isEqualTo(ContainerType.Glass);
+        assertThat(product.getVersion()).isEqualTo(3L);
+    }
+
+    @Test
+    void testMissingColumn() {
+        DriverRow row = registryRow(1L, 2L);
+        BiFunction<Row, RowMetadata, Product> mapper = new ProductRowMapper(converter).indexed("e");
+
+        assertThatThrownBy(() -> mapper.apply(row, row.getMetadata()))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("e_product_size");
+    }
+
+    private static DriverRow registryRow(Long id, Long productId) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("e_section_id", null);
+        values.put("e_id", id);
+        values.put("e_amount", 10);
+        values.put("e_product_id", productId);
+        values.put("e_version", 0L);
+        return new DriverRow(values);
+    }
+}
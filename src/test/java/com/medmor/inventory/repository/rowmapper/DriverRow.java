@@ -0,0 +1,76 @@
+package com.medmor.inventory.repository.rowmapper;
+
+import io.r2dbc.spi.ColumnMetadata;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * In-memory {@link Row} behaving as the drivers: a value can only be read as its own type or a super type of it, else
+ * an {@link IllegalArgumentException} is thrown, as for the enums, which are stored as strings.
+ * <p>
+ * Its {@link #getMetadata() metadata} returns the column names in upper case, as H2 does.
+ */
+public class DriverRow implements Row {
+
+    private final Map<String, Object> values;
+    private final List<Object> indexedValues;
+
+    public DriverRow(Map<String, Object> values) {
+        this.values = new LinkedHashMap<>(values);
+        this.indexedValues = new ArrayList<>(values.values());
+    }
+
+    @Override
+    public <T> T get(int index, Class<T> type) {
+        return cast(indexedValues.get(index), type);
+    }
+
+    @Override
+    public <T> T get(String name, Class<T> type) {
+        if (!values.containsKey(name)) {
+            throw new IllegalArgumentException("Unknown column " + name);
+        }
+        return cast(values.get(name), type);
+    }
+
+    private static <T> T cast(Object value, Class<T> type) {
+        if (value == null || type.isInstance(value) || type == Object.class) {
+            return type.cast(value);
+        }
+        throw new IllegalArgumentException("Cannot decode value of type " + value.getClass().getName() + " as " + type.getName());
+    }
+
+    public RowMetadata getMetadata() {
+        List<ColumnMetadata> columns = new ArrayList<>();
+        for (String name : values.keySet()) {
+            columns.add(() -> name.toUpperCase(Locale.ROOT));
+        }
+        return new RowMetadata() {
+            @Override
+            public ColumnMetadata getColumnMetadata(int index) {
+                return columns.get(index);
+            }
+
+            @Override
+            public ColumnMetadata getColumnMetadata(String name) {
+                return columns.stream().filter(column -> column.getName().equalsIgnoreCase(name)).findFirst().orElseThrow();
+            }
+
+            @Override
+            public Iterable<? extends ColumnMetadata> getColumnMetadatas() {
+                return columns;
+            }
+
+            @Override
+            public Collection<String> getColumnNames() {
+                return values.keySet();
+            }
+        };
+    }
+}
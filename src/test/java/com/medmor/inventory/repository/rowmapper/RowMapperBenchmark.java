@@ -0,0 +1,107 @@
+package com.medmor.inventory.repository.rowmapper;
+
+import com.medmor.inventory.domain.Product;
+import com.medmor.inventory.domain.Registry;
+import com.medmor.inventory.domain.enumeration.ProductSize;
+import com.medmor.inventory.repository.R2dbcBenchmarkSupport;
+import com.medmor.inventory.service.ColumnConverter;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mapping of the rows of the product and registry queries to entities, through the {@link ColumnConverter}, with the
+ * columns read by name or by index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowMapperBenchmark {
+
+    private ColumnConverter converter;
+    private ProductRowMapper productRowMapper;
+    private RegistryRowMapper registryRowMapper;
+    private DriverRow productRow;
+    private DriverRow registryRow;
+    private RowMetadata productMetadata;
+    private RowMetadata registryMetadata;
+    private BiFunction<Row, RowMetadata, Product> indexedProductRowMapper;
+    private BiFunction<Row, RowMetadata, Registry> indexedRegistryRowMapper;
+
+    @Setup
+    public void setup() {
+        converter = new R2dbcBenchmarkSupport().columnConverter();
+        productRowMapper = new ProductRowMapper(converter);
+        registryRowMapper = new RegistryRowMapper(converter);
+
+        Map<String, Object> product = new LinkedHashMap<>();
+        product.put("e_id", 1L);
+        product.put("e_product_size", "XL");
+        product.put("e_color", "red");
+        product.put("e_price", 12.5F);
+        product.put("e_fragile", Boolean.TRUE);
+        product.put("e_lote", "L-2021-04");
+        product.put("e_container_type", "Glass");
+        product.put("e_version", 0L);
+        productRow = new DriverRow(product);
+
+        Map<String, Object> registry = new LinkedHashMap<>();
+        registry.put("e_id", 1L);
+        registry.put("e_amount", 20);
+        registry.put("e_product_id", 2L);
+        registry.put("e_section_id", 3L);
+        registry.put("e_version", 0L);
+        registryRow = new DriverRow(registry);
+
+        productMetadata = productRow.getMetadata();
+        registryMetadata = registryRow.getMetadata();
+        indexedProductRowMapper = productRowMapper.indexed("e");
+        indexedRegistryRowMapper = registryRowMapper.indexed("e");
+    }
+
+    @Benchmark
+    public Product mapProduct() {
+        return productRowMapper.apply(productRow, "e");
+    }
+
+    @Benchmark
+    public Registry mapRegistry() {
+        return registryRowMapper.apply(registryRow, "e");
+    }
+
+    @Benchmark
+    public Product mapProductIndexed() {
+        return indexedProductRowMapper.apply(productRow, productMetadata);
+    }
+
+    @Benchmark
+    public Registry mapRegistryIndexed() {
+        return indexedRegistryRowMapper.apply(registryRow, registryMetadata);
+    }
+
+    @Benchmark
+    public Long fromRowDriverType() {
+        return converter.fromRow(productRow, "e_id", Long.class);
+    }
+
+    @Benchmark
+    public ProductSize fromRowConvertedType() {
+        return converter.fromRow(productRow, "e_product_size", ProductSize.class);
+    }
+}
@@ -0,0 +1,57 @@
+package com.medmor.inventory.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.medmor.inventory.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import reactor.core.publisher.Mono;
+
+class CredentialsSchedulerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private CredentialsScheduler credentialsScheduler;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getCredentialsHashing().setThreads(1);
+        credentialsScheduler = new CredentialsScheduler(applicationProperties, meterRegistry);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        credentialsScheduler.destroy();
+    }
+
+    @Test
+    void testHashingRunsOnDedicatedThreads() {
+        PasswordEncoder passwordEncoder = new MeteredPasswordEncoder(new BCryptPasswordEncoder(4), meterRegistry);
+
+        String thread = Mono
+            .fromCallable(() -> passwordEncoder.encode("password"))
+            .subscribeOn(credentialsScheduler.getScheduler())
+            .map(hash -> Thread.currentThread().getName())
+            .block(Duration.ofSeconds(10));
+
+        assertThat(thread).startsWith(CredentialsScheduler.NAME + "-");
+        assertThat(meterRegistry.get("credentials.hash").tag("operation", "encode").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("executor.queued").tag("name", CredentialsScheduler.NAME).gauge().value()).isZero();
+    }
+
+    @Test
+    void testMatchesIsTimed() {
+        PasswordEncoder passwordEncoder = new MeteredPasswordEncoder(new BCryptPasswordEncoder(4), meterRegistry);
+        String hash = passwordEncoder.encode("password");
+
+        assertThat(passwordEncoder.matches("password", hash)).isTrue();
+        assertThat(passwordEncoder.matches("other", hash)).isFalse();
+        assertThat(meterRegistry.get("credentials.hash").tag("operation", "matches").timer().count()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,81 @@
+package com.medmor.inventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import com.medmor.inventory.config.DatabaseConfiguration;
+import com.medmor.inventory.domain.enumeration.ProductSize;
+import com.medmor.inventory.repository.rowmapper.DriverRow;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.data.r2dbc.convert.MappingR2dbcConverter;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.dialect.H2Dialect;
+import org.springframework.data.r2dbc.mapping.R2dbcMappingContext;
+
+class ColumnConverterTest {
+
+    private ColumnConverter columnConverter;
+
+    @BeforeEach
+    public void setup() {
+        R2dbcCustomConversions conversions = new DatabaseConfiguration(new StandardEnvironment())
+            .r2dbcCustomConversions(H2Dialect.INSTANCE);
+        R2dbcMappingContext mappingContext = new R2dbcMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        columnConverter = new ColumnConverter(conversions, new MappingR2dbcConverter(mappingContext, conversions));
+    }
+
+    @Test
+    void testDriverTypes() {
+        DriverRow row = row("e_id", 1L);
+
+        assertThat(columnConverter.fromRow(row, "e_id", Long.class)).isEqualTo(1L);
+        assertThat(columnConverter.fromRow(row("e_id", 2L), "e_id", Long.class)).isEqualTo(2L);
+    }
+
+    @Test
+    void testEnumsAreNotReadThroughTheDriver() {
+        DriverRow first = spy(row("e_product_size", "XL"));
+        DriverRow second = spy(row("e_product_size", "S"));
+
+        assertThat(columnConverter.fromRow(first, "e_product_size", ProductSize.class)).isEqualTo(ProductSize.XL);
+        assertThat(columnConverter.fromRow(second, "e_product_size", ProductSize.class)).isEqualTo(ProductSize.S);
+        assertThat(columnConverter.fromRow(row("e_product_size", null), "e_product_size", ProductSize.class)).isNull();
+
+        verify(first, never()).get("e_product_size", ProductSize.class);
+        verify(second, never()).get("e_product_size", ProductSize.class);
+    }
+
+    @Test
+    void testUnknownEnumConstant() {
+        assertThatThrownBy(() -> columnConverter.fromRow(row("e_product_size", "XS"), "e_product_size", ProductSize.class))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testConversionIsResolvedOnTheFirstValue() {
+        LocalDateTime resetDate = LocalDateTime.of(2021, 4, 1, 12, 0);
+
+        assertThat(columnConverter.fromRow(row("e_reset_date", null), "e_reset_date", Instant.class)).isNull();
+        assertThat(columnConverter.fromRow(row("e_reset_date", resetDate), "e_reset_date", Instant.class))
+            .isEqualTo(Instant.parse("2021-04-01T12:00:00Z"));
+        DriverRow row = spy(row("e_reset_date", resetDate));
+        assertThat(columnConverter.fromRow(row, "e_reset_date", Instant.class)).isEqualTo(Instant.parse("2021-04-01T12:00:00Z"));
+        verify(row, never()).get("e_reset_date", Instant.class);
+    }
+
+    private static DriverRow row(String column, Object value) {
+        Map<String, Object> values = new HashMap<>();
+        values.put(column, value);
+        return new DriverRow(values);
+    }
+}
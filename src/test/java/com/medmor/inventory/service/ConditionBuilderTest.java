@@ -0,0 +1,77 @@
+package com.medmor.inventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.medmor.inventory.domain.enumeration.ProductType;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.relational.core.sql.Condition;
+import org.springframework.data.relational.core.sql.Select;
+import org.springframework.data.relational.core.sql.Table;
+import org.springframework.data.relational.core.sql.render.SqlRenderer;
+import org.springframework.r2dbc.core.DatabaseClient;
+import tech.jhipster.service.filter.Filter;
+import tech.jhipster.service.filter.FloatFilter;
+import tech.jhipster.service.filter.StringFilter;
+
+class ConditionBuilderTest {
+
+    private static final Table TABLE = Table.aliased("product", "e");
+
+    @Test
+    void testNoFilterBuildsNoCondition() {
+        ConditionBuilder conditions = new ConditionBuilder().add(null, TABLE.column("price")).add(new FloatFilter(), TABLE.column("price"));
+
+        assertThat(conditions.isEmpty()).isTrue();
+        assertThat(conditions.build()).isNull();
+    }
+
+    @Test
+    void testValuesAreBindMarkers() {
+        FloatFilter price = new FloatFilter();
+        price.setGreaterThan(1F);
+        price.setLessThanOrEqual(5F);
+        Filter<ProductType> productType = new Filter<>();
+        productType.setIn(List.of(ProductType.Tools, ProductType.Plumbing));
+
+        ConditionBuilder conditions = new ConditionBuilder()
+            .add(price, TABLE.column("price"))
+            .add(productType, TABLE.column("product_type"));
+
+        assertThat(render(conditions.build()))
+            .endsWith(
+                "WHERE e.price > :criteria_0 AND e.price <= :criteria_1 AND e.product_type IN (:criteria_2, :criteria_3)"
+            );
+        DatabaseClient.GenericExecuteSpec spec = mock(DatabaseClient.GenericExecuteSpec.class);
+        when(spec.bind(anyString(), any())).thenReturn(spec);
+        conditions.bind(spec);
+        verify(spec).bind("criteria_0", 1F);
+        verify(spec).bind("criteria_1", 5F);
+        verify(spec).bind("criteria_2", "Tools");
+        verify(spec).bind("criteria_3", "Plumbing");
+        assertThat(conditions.getShape()).isEqualTo("e.price >;e.price <=;e.product_type IN 2;");
+    }
+
+    @Test
+    void testContainsEscapesWildcards() {
+        StringFilter lote = new StringFilter();
+        lote.setContains("a%b_c");
+
+        ConditionBuilder conditions = new ConditionBuilder().add(lote, TABLE.column("lote"));
+
+        assertThat(render(conditions.build())).endsWith("WHERE UPPER(e.lote) LIKE :criteria_0");
+        DatabaseClient.GenericExecuteSpec spec = mock(DatabaseClient.GenericExecuteSpec.class);
+        when(spec.bind(anyString(), any())).thenReturn(spec);
+        conditions.bind(spec);
+        verify(spec).bind("criteria_0", "%A\\%B\\_C%");
+    }
+
+    private static String render(Condition condition) {
+        return SqlRenderer.toString(Select.builder().select(TABLE.column("id")).from(TABLE).where(condition).build());
+    }
+}
@@ -0,0 +1,72 @@
+package com.medmor.inventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.medmor.inventory.domain.Product;
+import com.medmor.inventory.repository.routing.PrimaryReads;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.ReactiveTransactionManager;
+import reactor.core.publisher.Mono;
+
+class EntityCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private EntityCache<Product> entityCache;
+    private AtomicInteger loads;
+    private Function<Long, Mono<Product>> loader;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        PrimaryReads primaryReads = new PrimaryReads(mock(ReactiveTransactionManager.class));
+        entityCache = new EntityCache<>("products", Duration.ofMinutes(1), 10, meterRegistry, primaryReads);
+        loads = new AtomicInteger();
+        loader =
+            id -> {
+                loads.incrementAndGet();
+                return id > 0 ? Mono.just(new Product().lote("lote-" + id)) : Mono.empty();
+            };
+    }
+
+    @Test
+    void testEntityIsCached() {
+        assertThat(entityCache.get(1L, loader).block().getLote()).isEqualTo("lote-1");
+        assertThat(entityCache.get(1L, loader).block().getLote()).isEqualTo("lote-1");
+
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "products").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "products").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testMissingEntityIsNotCached() {
+        assertThat(entityCache.get(-1L, loader).block()).isNull();
+        assertThat(entityCache.get(-1L, loader).block()).isNull();
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void testEvictReloadsEntity() {
+        entityCache.get(1L, loader).block();
+        entityCache.evict(1L).block();
+        entityCache.get(1L, loader).block();
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void testLoaderIsOnlyCalledOnSubscription() {
+        Mono<Product> product = entityCache.get(1L, loader);
+        assertThat(loads).hasValue(0);
+
+        product.block();
+        assertThat(loads).hasValue(1);
+    }
+}
@@ -0,0 +1,51 @@
+package com.medmor.inventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.medmor.inventory.domain.Product;
+import com.medmor.inventory.domain.enumeration.ProductSize;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+class KeysetCursorTest {
+
+    @Test
+    void testEncodeDecodeRoundTrip() {
+        Product product = new Product().id(42L).color("red|blue").productSize(ProductSize.XL);
+
+        KeysetCursor byColor = KeysetCursor.after(product, product.getId(), Sort.by(Sort.Order.desc("color")));
+        KeysetCursor decoded = KeysetCursor.decode(byColor.encode());
+
+        assertThat(decoded).isEqualTo(byColor);
+        assertThat(decoded.getValue()).isEqualTo("red|blue");
+        assertThat(decoded.getDirection()).isEqualTo(Sort.Direction.DESC);
+        assertThat(decoded.getId()).isEqualTo(42L);
+
+        KeysetCursor bySize = KeysetCursor.after(product, product.getId(), Sort.by("productSize"));
+        assertThat(KeysetCursor.decode(bySize.encode()).getValue()).isEqualTo("XL");
+    }
+
+    @Test
+    void testUnsortedUsesId() {
+        KeysetCursor cursor = KeysetCursor.after(new Product().id(7L), 7L, Sort.unsorted());
+
+        assertThat(cursor.isIdOnly()).isTrue();
+        assertThat(cursor.getValue()).isNull();
+        assertThat(cursor.isCompatibleWith(Sort.by("id"))).isTrue();
+        assertThat(cursor.isCompatibleWith(Sort.by("color"))).isFalse();
+    }
+
+    @Test
+    void testSortOnSeveralPropertiesIsNotSupported() {
+        assertThat(KeysetCursor.isSupported(Sort.by("color", "id"))).isTrue();
+        assertThat(KeysetCursor.isSupported(Sort.by("color", "price"))).isFalse();
+        assertThatThrownBy(() -> KeysetCursor.getOrder(Sort.by("color", "price"))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testDecodeInvalidToken() {
+        assertThatThrownBy(() -> KeysetCursor.decode("not a cursor")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode("Zm9v")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
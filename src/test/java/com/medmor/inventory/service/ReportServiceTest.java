@@ -0,0 +1,75 @@
+package com.medmor.inventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.medmor.inventory.config.ApplicationProperties;
+import com.medmor.inventory.repository.ReportRepository;
+import com.medmor.inventory.repository.routing.PrimaryReads;
+import com.medmor.inventory.service.dto.SectionStockDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.ReactiveTransactionManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+class ReportServiceTest {
+
+    private final PrimaryReads primaryReads = new PrimaryReads(mock(ReactiveTransactionManager.class));
+    private ReportRepository reportRepository;
+    private ReportService reportService;
+
+    @BeforeEach
+    public void setup() {
+        reportRepository = mock(ReportRepository.class);
+        when(reportRepository.stockBySection()).thenReturn(Flux.just(new SectionStockDTO(1L, 10L), new SectionStockDTO(2L, 5L)));
+        reportService = new ReportService(reportRepository, primaryReads, new ApplicationProperties());
+    }
+
+    @Test
+    void testReportIsCached() {
+        assertThat(reportService.stockBySection().collectList().block()).hasSize(2);
+        assertThat(reportService.stockBySection().collectList().block()).hasSize(2);
+
+        verify(reportRepository, times(1)).stockBySection();
+    }
+
+    @Test
+    void testInvalidateForcesQuery() {
+        reportService.stockBySection().blockLast();
+
+        reportService.invalidate().block();
+
+        assertThat(reportService.stockBySection().collectList().block()).hasSize(2);
+        verify(reportRepository, times(2)).stockBySection();
+    }
+
+    @Test
+    void testReportReadDuringWriteIsNotCached() {
+        Sinks.Many<SectionStockDTO> rows = Sinks.many().unicast().onBackpressureBuffer();
+        when(reportRepository.stockBySection()).thenReturn(rows.asFlux());
+        reportService.stockBySection().subscribe();
+
+        rows.tryEmitNext(new SectionStockDTO(1L, 10L));
+        reportService.invalidate().block();
+        rows.tryEmitComplete();
+
+        when(reportRepository.stockBySection()).thenReturn(Flux.empty());
+        assertThat(reportService.stockBySection().collectList().block()).isEmpty();
+    }
+
+    @Test
+    void testCacheCanBeDisabled() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getReports().setCacheEnabled(false);
+        reportService = new ReportService(reportRepository, primaryReads, applicationProperties);
+
+        reportService.stockBySection().blockLast();
+        reportService.stockBySection().blockLast();
+
+        verify(reportRepository, times(2)).stockBySection();
+    }
+}
@@ -0,0 +1,180 @@
+package com.medmor.inventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import com.medmor.inventory.config.ApplicationProperties;
+import com.medmor.inventory.domain.enumeration.ContainerType;
+import com.medmor.inventory.domain.enumeration.ProductSize;
+import com.medmor.inventory.repository.routing.PrimaryReads;
+import com.medmor.inventory.repository.routing.ReadOnlyRoutingTransactionManager;
+import com.medmor.inventory.repository.routing.ReplicaRoutingConnectionFactory;
+import com.medmor.inventory.service.dto.SectionOccupancyDTO;
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactory;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Mono;
+
+class SectionOccupancyServiceTest {
+
+    private static final ConnectionFactory CONNECTION_FACTORY = H2ConnectionFactory.inMemory("occupancy");
+    private static final ConnectionFactory REPLICA_CONNECTION_FACTORY = H2ConnectionFactory.inMemory("occupancy_replica");
+
+    private SectionOccupancyService sectionOccupancyService;
+
+    @BeforeEach
+    public void setup() {
+        DatabaseClient db = DatabaseClient.create(CONNECTION_FACTORY);
+        db.sql("CREATE TABLE IF NOT EXISTS section (id BIGINT PRIMARY KEY, area REAL)").then().block();
+        db
+            .sql("CREATE TABLE IF NOT EXISTS product (id BIGINT PRIMARY KEY, product_size VARCHAR(255), container_type VARCHAR(255))")
+            .then()
+            .block();
+        db.sql("CREATE TABLE IF NOT EXISTS stock_level (product_id BIGINT, section_id BIGINT, total_amount BIGINT)").then().block();
+        db.sql("DELETE FROM stock_level").then().block();
+        db.sql("DELETE FROM section").then().block();
+        db.sql("DELETE FROM product").then().block();
+        db.sql("INSERT INTO section (id, area) VALUES (1, 1), (2, 2)").then().block();
+        db.sql("INSERT INTO product (id, product_size, container_type) VALUES (1, 'S', 'Cardboard'), (2, 'XXL', 'Glass')").then().block();
+        // 50 small boxes take half of the first section
+        db.sql("INSERT INTO stock_level (product_id, section_id, total_amount) VALUES (1, 1, 50)").then().block();
+        sectionOccupancyService = createService(true);
+    }
+
+    @Test
+    void testFootprintDefaults() {
+        assertThat(SectionOccupancyService.footprint(null, null))
+            .isEqualTo(SectionOccupancyService.footprint(ProductSize.M, ContainerType.Cardboard));
+        assertThat(SectionOccupancyService.footprint(ProductSize.XXL, ContainerType.Glass))
+            .isGreaterThan(SectionOccupancyService.footprint(ProductSize.XXL, ContainerType.Cardboard));
+    }
+
+    @Test
+    void testFootprintIsDefinedForEverySizeAndContainer() {
+        for (ProductSize size : ProductSize.values()) {
+            for (ContainerType container : ContainerType.values()) {
+                assertThat(SectionOccupancyService.footprint(size, container)).isPositive();
+            }
+        }
+    }
+
+    @Test
+    void testOccupancyIsLoadedFromStockLevels() {
+        assertThat(usedArea(1L)).isCloseTo(0.5, within(1e-6));
+        assertThat(usedArea(2L)).isZero();
+        assertThat(sectionOccupancyService.occupancy(3L).blockOptional()).isEmpty();
+    }
+
+    @Test
+    void testWritesUpdateTheOccupancy() {
+        usedArea(1L);
+
+        sectionOccupancyService.add(1L, 1L, 10).block();
+        assertThat(usedArea(1L)).isCloseTo(0.6, within(1e-6));
+
+        sectionOccupancyService.add(1L, 1L, -60).block();
+        assertThat(usedArea(1L)).isCloseTo(0, within(1e-6));
+    }
+
+    @Test
+    void testOverCapacityWriteIsRejected() {
+        assertThatThrownBy(() -> sectionOccupancyService.add(2L, 1L, 2).block()).isInstanceOf(SectionCapacityExceededException.class);
+
+        assertThat(usedArea(1L)).isCloseTo(0.5, within(1e-6));
+    }
+
+    @Test
+    void testOverCapacityWriteIsAllowedWhenNotRejected() {
+        sectionOccupancyService = createService(false);
+
+        sectionOccupancyService.add(2L, 1L, 2).block();
+
+        assertThat(usedArea(1L)).isCloseTo(1.125, within(1e-6));
+    }
+
+    @Test
+    void testRolledBackWriteIsReverted() {
+        TransactionalOperator transactionalOperator = TransactionalOperator.create(new R2dbcTransactionManager(CONNECTION_FACTORY));
+
+        transactionalOperator
+            .transactional(sectionOccupancyService.add(1L, 1L, 10).then(Mono.error(new IllegalStateException("rollback"))))
+            .onErrorResume(IllegalStateException.class, e -> Mono.empty())
+            .block();
+
+        assertThat(usedArea(1L)).isCloseTo(0.5, within(1e-6));
+    }
+
+    @Test
+    void testBestSectionHasTheMostFreeArea() {
+        assertThat(sectionOccupancyService.bestSectionFor(1L, 1).block()).isEqualTo(2L);
+
+        sectionOccupancyService.add(2L, 2L, 6).block();
+        assertThat(sectionOccupancyService.bestSectionFor(1L, 1).block()).isEqualTo(1L);
+
+        assertThat(sectionOccupancyService.bestSectionFor(2L, 2).blockOptional()).isEmpty();
+    }
+
+    @Test
+    void testCatalogChangeReloadsTheStockLevels() {
+        sectionOccupancyService.add(1L, 1L, 10).block();
+
+        sectionOccupancyService.onCatalogChange();
+
+        assertThat(usedArea(1L)).isCloseTo(0.5, within(1e-6));
+    }
+
+    @Test
+    void testOccupancyIsLoadedFromThePrimaryWithReplicas() {
+        // the replica lags behind: the section is there, its stock isn't yet
+        DatabaseClient replicaDb = DatabaseClient.create(REPLICA_CONNECTION_FACTORY);
+        replicaDb.sql("CREATE TABLE IF NOT EXISTS section (id BIGINT PRIMARY KEY, area REAL)").then().block();
+        replicaDb.sql("DELETE FROM section").then().block();
+        replicaDb.sql("INSERT INTO section (id, area) VALUES (1, 1)").then().block();
+        replicaDb
+            .sql("CREATE TABLE IF NOT EXISTS product (id BIGINT PRIMARY KEY, product_size VARCHAR(255), container_type VARCHAR(255))")
+            .then()
+            .block();
+        replicaDb.sql("CREATE TABLE IF NOT EXISTS stock_level (product_id BIGINT, section_id BIGINT, total_amount BIGINT)").then().block();
+        ReplicaRoutingConnectionFactory connectionFactory = new ReplicaRoutingConnectionFactory(
+            CONNECTION_FACTORY,
+            List.of(REPLICA_CONNECTION_FACTORY),
+            Duration.ofSeconds(30)
+        );
+        ReadOnlyRoutingTransactionManager transactionManager = new ReadOnlyRoutingTransactionManager(connectionFactory);
+        sectionOccupancyService =
+            new SectionOccupancyService(
+                new R2dbcEntityTemplate(connectionFactory),
+                new PrimaryReads(transactionManager),
+                new ApplicationProperties()
+            );
+        DefaultTransactionDefinition readOnly = new DefaultTransactionDefinition();
+        readOnly.setReadOnly(true);
+
+        SectionOccupancyDTO occupancy = TransactionalOperator
+            .create(transactionManager, readOnly)
+            .transactional(sectionOccupancyService.occupancy(1L))
+            .block();
+
+        assertThat(occupancy.getUsedArea()).isCloseTo(0.5, within(1e-6));
+    }
+
+    private double usedArea(Long sectionId) {
+        return sectionOccupancyService.occupancy(sectionId).block().getUsedArea();
+    }
+
+    private static SectionOccupancyService createService(boolean rejectOverCapacity) {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getOccupancy().setRejectOverCapacity(rejectOverCapacity);
+        PrimaryReads primaryReads = new PrimaryReads(new R2dbcTransactionManager(CONNECTION_FACTORY));
+        return new SectionOccupancyService(new R2dbcEntityTemplate(CONNECTION_FACTORY), primaryReads, applicationProperties);
+    }
+}
@@ -0,0 +1,57 @@
+package com.medmor.inventory.service;
+
+import static com.medmor.inventory.service.StatementCache.key;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+class StatementCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private StatementCache statementCache;
+    private AtomicInteger renders;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        statementCache = new StatementCache("statements", 10, meterRegistry);
+        renders = new AtomicInteger();
+    }
+
+    @Test
+    void testStatementIsRenderedOnce() {
+        assertThat(statementCache.get(key("Product.findAll", Sort.by("price"), null), this::render)).isEqualTo("SELECT 1");
+        assertThat(statementCache.get(key("Product.findAll", Sort.by("price"), null), this::render)).isEqualTo("SELECT 1");
+
+        assertThat(renders).hasValue(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "statements").tag("result", "hit").functionCounter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void testKeysAreDistinct() {
+        statementCache.get(key("Product.findAll", Sort.by("price"), null), this::render);
+        statementCache.get(key("Product.findAll", Sort.by("lote"), null), this::render);
+        statementCache.get(key("Product.findAll", Sort.by("price"), "e.price >;"), this::render);
+        statementCache.get(key("Section.findAll", Sort.by("price"), null), this::render);
+
+        assertThat(renders).hasValue(4);
+    }
+
+    @Test
+    void testClear() {
+        statementCache.get(key("Product.findAll"), this::render);
+        statementCache.clear();
+        statementCache.get(key("Product.findAll"), this::render);
+
+        assertThat(renders).hasValue(2);
+    }
+
+    private String render() {
+        return "SELECT " + renders.incrementAndGet();
+    }
+}
@@ -0,0 +1,85 @@
+package com.medmor.inventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.medmor.inventory.config.ApplicationProperties;
+import com.medmor.inventory.domain.Product;
+import com.medmor.inventory.repository.routing.PrimaryReads;
+import io.r2dbc.h2.H2ConnectionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.dialect.H2Dialect;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+class TotalCountServiceTest {
+
+    private R2dbcEntityTemplate r2dbcEntityTemplate;
+    private TotalCountService totalCountService;
+
+    @BeforeEach
+    public void setup() {
+        r2dbcEntityTemplate = mock(R2dbcEntityTemplate.class);
+        when(r2dbcEntityTemplate.count(any(Query.class), eq(Product.class))).thenReturn(Mono.just(10L));
+        totalCountService = new TotalCountService(
+                r2dbcEntityTemplate,
+                H2Dialect.INSTANCE,
+                new PrimaryReads(mock(ReactiveTransactionManager.class)),
+                new ApplicationProperties()
+            );
+    }
+
+    @Test
+    void testCountIsCached() {
+        assertThat(totalCountService.count(Product.class).block()).isEqualTo(10L);
+        assertThat(totalCountService.count(Product.class).block()).isEqualTo(10L);
+
+        verify(r2dbcEntityTemplate, times(1)).count(any(Query.class), eq(Product.class));
+    }
+
+    @Test
+    void testCountIsAdjustedOnWrites() {
+        totalCountService.count(Product.class).block();
+
+        totalCountService.adjust(Product.class, 2).block();
+        totalCountService.adjust(Product.class, -1).block();
+
+        assertThat(totalCountService.count(Product.class).block()).isEqualTo(11L);
+        verify(r2dbcEntityTemplate, times(1)).count(any(Query.class), eq(Product.class));
+    }
+
+    @Test
+    void testRolledBackWriteLeavesTheCountUnchanged() {
+        totalCountService.count(Product.class).block();
+        TransactionalOperator transactionalOperator = TransactionalOperator.create(
+            new R2dbcTransactionManager(H2ConnectionFactory.inMemory("total_count"))
+        );
+
+        transactionalOperator
+            .transactional(totalCountService.adjust(Product.class, 2).then(Mono.error(new IllegalStateException("rollback"))))
+            .onErrorResume(IllegalStateException.class, e -> Mono.empty())
+            .block();
+        assertThat(totalCountService.count(Product.class).block()).isEqualTo(10L);
+
+        transactionalOperator.transactional(totalCountService.adjust(Product.class, 2)).block();
+        assertThat(totalCountService.count(Product.class).block()).isEqualTo(12L);
+    }
+
+    @Test
+    void testExactCountAlwaysHitsTheDatabase() {
+        totalCountService.exactCount(Product.class).block();
+        totalCountService.exactCount(Product.class).block();
+
+        verify(r2dbcEntityTemplate, times(2)).count(any(Query.class), eq(Product.class));
+    }
+}
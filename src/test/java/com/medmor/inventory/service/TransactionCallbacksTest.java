@@ -0,0 +1,53 @@
+package com.medmor.inventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.r2dbc.h2.H2ConnectionFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+class TransactionCallbacksTest {
+
+    private final TransactionalOperator transactionalOperator = TransactionalOperator.create(
+        new R2dbcTransactionManager(H2ConnectionFactory.inMemory("callbacks"))
+    );
+
+    @Test
+    void testCallbackIsRunWithTheCompletionStatus() {
+        List<Integer> statuses = new ArrayList<>();
+
+        transactionalOperator.transactional(TransactionCallbacks.afterCompletion(statuses::add)).block();
+        transactionalOperator
+            .transactional(TransactionCallbacks.afterCompletion(statuses::add).then(Mono.error(new IllegalStateException("rollback"))))
+            .onErrorResume(IllegalStateException.class, e -> Mono.empty())
+            .block();
+
+        assertThat(statuses).containsExactly(TransactionSynchronization.STATUS_COMMITTED, TransactionSynchronization.STATUS_ROLLED_BACK);
+    }
+
+    @Test
+    void testCallbackIsIgnoredWithoutTransaction() {
+        List<Integer> statuses = new ArrayList<>();
+
+        TransactionCallbacks.afterCompletion(statuses::add).block();
+
+        assertThat(statuses).isEmpty();
+    }
+
+    @Test
+    void testActionIsRunAgainAfterCompletion() {
+        AtomicInteger runs = new AtomicInteger();
+
+        transactionalOperator.transactional(TransactionCallbacks.nowAndAfterCompletion(runs::incrementAndGet)).block();
+        assertThat(runs).hasValue(2);
+
+        TransactionCallbacks.nowAndAfterCompletion(runs::incrementAndGet).block();
+        assertThat(runs).hasValue(3);
+    }
+}
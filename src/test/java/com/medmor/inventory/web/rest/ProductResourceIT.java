@@ -10,7 +10,10 @@ import com.medmor.inventory.domain.enumeration.ContainerType;
 import com.medmor.inventory.domain.enumeration.ProductSize;
 import com.medmor.inventory.repository.ProductRepository;
 import com.medmor.inventory.service.EntityManager;
+import com.medmor.inventory.service.KeysetCursor;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.Base64;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
@@ -22,6 +25,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.reactive.server.WebTestClient;
@@ -327,6 +333,262 @@ class ProductResourceIT {
             .value(hasItem(DEFAULT_CONTAINER_TYPE.toString()));
     }
 
+    @Test
+    void getAllProductsWithoutAcceptHeader() {
+        // Initialize the database
+        productRepository.save(product).block();
+
+        // Clients which don't ask for a stream still get the paginated list
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .contentType(MediaType.APPLICATION_JSON)
+            .expectHeader()
+            .exists("X-Total-Count");
+    }
+
+    @Test
+    void streamAllProducts() {
+        // Initialize the database
+        productRepository.save(product).block();
+        Product other = productRepository.save(createUpdatedEntity(em)).block();
+
+        // Stream all the products as newline delimited JSON
+        List<Product> products = webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?sort=id,desc")
+            .accept(MediaType.APPLICATION_NDJSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+            .returnResult(Product.class)
+            .getResponseBody()
+            .collectList()
+            .block(Duration.ofSeconds(10));
+
+        assertThat(products).extracting(Product::getId).containsExactly(other.getId(), product.getId());
+        assertThat(products.get(1).getLote()).isEqualTo(DEFAULT_LOTE);
+    }
+
+    @Test
+    void streamAllProductsAsServerSentEvents() {
+        // Initialize the database
+        productRepository.save(product).block();
+
+        // Stream all the products as server-sent events
+        List<Product> products = webTestClient
+            .get()
+            .uri(ENTITY_API_URL)
+            .accept(MediaType.TEXT_EVENT_STREAM)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM)
+            .returnResult(Product.class)
+            .getResponseBody()
+            .collectList()
+            .block(Duration.ofSeconds(10));
+
+        assertThat(products).extracting(Product::getId).containsExactly(product.getId());
+    }
+
+    @Test
+    void getAllProductsWithKeysetCursor() {
+        // Initialize the database
+        productRepository.save(product).block();
+        Product moreExpensive = productRepository.save(createEntity(em).price(UPDATED_PRICE).lote(UPDATED_LOTE)).block();
+
+        // Get the first page, which links to the next one
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?after=&size=1&sort=price,asc")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .valueMatches(HttpHeaders.LINK, ".*after=.*rel=\"next\"")
+            .expectHeader()
+            .doesNotExist("X-Total-Count")
+            .expectBody()
+            .jsonPath("$.[*].id")
+            .isEqualTo(product.getId().intValue());
+
+        // Seek past the first product
+        String after = KeysetCursor.after(product, product.getId(), Sort.by("price")).encode();
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?after=" + after + "&size=1&sort=price,asc")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.[*].id")
+            .isEqualTo(moreExpensive.getId().intValue());
+    }
+
+    @Test
+    void getAllProductsWithInvalidKeysetCursor() {
+        String after = KeysetCursor.after(product, 1L, Sort.by("price")).encode();
+
+        // The cursor was created for another sort
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?after=" + after + "&sort=color,asc")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?after=not-a-cursor")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+    }
+
+    @Test
+    void getAllProductsWithUnsupportedKeysetSort() {
+        // Not a column of the product
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?after=&sort=registries,asc")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isBadRequest()
+            .expectBody()
+            .jsonPath("$.message")
+            .isEqualTo("error.sortinvalid");
+
+        // Not a property of the product
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?after=&sort=unknown,asc")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isBadRequest()
+            .expectBody()
+            .jsonPath("$.message")
+            .isEqualTo("error.sortinvalid");
+    }
+
+    @Test
+    void getAllProductsWithForgedKeysetCursor() {
+        // A cursor of the price sort, whose value isn't a price
+        String after = Base64.getUrlEncoder().withoutPadding().encodeToString("price|ASC|1|cheap".getBytes(StandardCharsets.UTF_8));
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?after=" + after + "&sort=price,asc")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isBadRequest()
+            .expectBody()
+            .jsonPath("$.message")
+            .isEqualTo("error.cursorinvalid");
+    }
+
+    @Test
+    void getAllProductsSecondPage() {
+        // Initialize the database
+        productRepository.save(product).block();
+        Product moreExpensive = productRepository.save(createUpdatedEntity(em)).block();
+
+        // The size and offset of the page are bound to the cached statement
+        for (int page = 0; page < 2; page++) {
+            webTestClient
+                .get()
+                .uri(ENTITY_API_URL + "?sort=price,asc&size=1&page=" + page)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody()
+                .jsonPath("$.[*].id")
+                .isEqualTo((page == 0 ? product : moreExpensive).getId().intValue());
+        }
+    }
+
+    @Test
+    void getAllProductsByCriteria() {
+        // Initialize the database
+        productRepository.save(product).block();
+        Product other = productRepository.save(createUpdatedEntity(em)).block();
+
+        // Range filter
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?price.greaterThan=" + DEFAULT_PRICE)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .valueEquals("X-Total-Count", "1")
+            .expectBody()
+            .jsonPath("$.[*].id")
+            .isEqualTo(other.getId().intValue());
+
+        // Case insensitive string filter
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?lote.contains=" + DEFAULT_LOTE.substring(0, 3).toLowerCase())
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.[*].id")
+            .isEqualTo(product.getId().intValue());
+
+        // Enumeration filters
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?productSize.equals=" + DEFAULT_PRODUCT_SIZE + "&containerType.notIn=" + UPDATED_CONTAINER_TYPE)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.[*].id")
+            .isEqualTo(product.getId().intValue());
+    }
+
+    @Test
+    void getAllProductsByCriteriaBindsValues() {
+        // Initialize the database
+        productRepository.save(product).block();
+
+        // Neither SQL nor LIKE wildcards in the values change the query
+        for (String lote : List.of("' OR '1'='1", "%", "_")) {
+            webTestClient
+                .get()
+                .uri(ENTITY_API_URL + "?lote.contains={lote}", lote)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectHeader()
+                .valueEquals("X-Total-Count", "0")
+                .expectBody()
+                .jsonPath("$")
+                .isEmpty();
+        }
+    }
+
     @Test
     void getProduct() {
         // Initialize the database
@@ -371,6 +633,111 @@ class ProductResourceIT {
             .isNotFound();
     }
 
+
+    @Test
+    void getProductNotModified() {
+        // Initialize the database
+        productRepository.save(product).block();
+
+        // Get the product and its tag
+        String eTag = webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, product.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .returnResult()
+            .getResponseHeaders()
+            .getETag();
+        assertThat(eTag).isEqualTo("\"0\"");
+
+        // Get the product again with its tag
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, product.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .ifNoneMatch(eTag)
+            .exchange()
+            .expectStatus()
+            .isNotModified()
+            .expectBody()
+            .isEmpty();
+    }
+
+    @Test
+    void getAllProductsModifiedByDeleteAndInsert() {
+        // Initialize the database
+        productRepository.save(product).block();
+
+        String eTag = webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?sort=id,desc")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .returnResult()
+            .getResponseHeaders()
+            .getETag();
+
+        // Replace the product with a new one, which leaves the number of rows and the versions unchanged
+        productRepository.deleteById(product.getId()).block();
+        productRepository.save(createEntity(em)).block();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?sort=id,desc")
+            .accept(MediaType.APPLICATION_JSON)
+            .ifNoneMatch(eTag)
+            .exchange()
+            .expectStatus()
+            .isOk();
+    }
+
+    @Test
+    void getAllProductsNotModified() {
+        // Initialize the database
+        productRepository.save(product).block();
+
+        // Get the page of product and its tag
+        String eTag = webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?sort=id,desc")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .returnResult()
+            .getResponseHeaders()
+            .getETag();
+        assertThat(eTag).isNotNull();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?sort=id,desc")
+            .accept(MediaType.APPLICATION_JSON)
+            .ifNoneMatch(eTag)
+            .exchange()
+            .expectStatus()
+            .isNotModified();
+
+        // Update the product, which changes the tag of the page
+        productRepository.save(product.color(UPDATED_COLOR)).block();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?sort=id,desc")
+            .accept(MediaType.APPLICATION_JSON)
+            .ifNoneMatch(eTag)
+            .exchange()
+            .expectStatus()
+            .isOk();
+    }
+
     @Test
     void putNewProduct() throws Exception {
         // Initialize the database
@@ -469,6 +836,111 @@ class ProductResourceIT {
         assertThat(productList).hasSize(databaseSizeBeforeUpdate);
     }
 
+
+    @Test
+    void putProductIncrementsVersion() throws Exception {
+        // Initialize the database
+        productRepository.save(product).block();
+
+        // Update the product with the tag of its version
+        Product updatedProduct = productRepository.findById(product.getId()).block();
+        updatedProduct.color(UPDATED_COLOR);
+
+        webTestClient
+            .put()
+            .uri(ENTITY_API_URL_ID, updatedProduct.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.IF_MATCH, "\"0\"")
+            .bodyValue(TestUtil.convertObjectToJsonBytes(updatedProduct))
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .valueEquals(HttpHeaders.ETAG, "\"1\"");
+
+        assertThat(productRepository.findVersionById(product.getId()).block()).isEqualTo(1L);
+    }
+
+    @Test
+    void putProductWithStaleIfMatch() throws Exception {
+        // Initialize the database
+        productRepository.save(product).block();
+
+        // Update the product with the tag of a version it doesn't have
+        Product updatedProduct = productRepository.findById(product.getId()).block();
+        updatedProduct.color(UPDATED_COLOR);
+
+        webTestClient
+            .put()
+            .uri(ENTITY_API_URL_ID, updatedProduct.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.IF_MATCH, "\"1\"")
+            .bodyValue(TestUtil.convertObjectToJsonBytes(updatedProduct))
+            .exchange()
+            .expectStatus()
+            .isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+        // Validate the Product in the database
+        Product testProduct = productRepository.findById(product.getId()).block();
+        assertThat(testProduct.getColor()).isEqualTo(DEFAULT_COLOR);
+        assertThat(testProduct.getVersion()).isZero();
+    }
+
+    @Test
+    void putProductWithStaleVersion() throws Exception {
+        // Initialize the database
+        productRepository.save(product).block();
+
+        // Read the product, then let another update it
+        Product updatedProduct = productRepository.findById(product.getId()).block();
+        productRepository.save(product).block();
+
+        // Update the product from its first version
+        updatedProduct.color(UPDATED_COLOR);
+
+        webTestClient
+            .put()
+            .uri(ENTITY_API_URL_ID, updatedProduct.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(TestUtil.convertObjectToJsonBytes(updatedProduct))
+            .exchange()
+            .expectStatus()
+            .isEqualTo(HttpStatus.CONFLICT);
+
+        // Validate the Product in the database
+        Product testProduct = productRepository.findById(product.getId()).block();
+        assertThat(testProduct.getColor()).isEqualTo(DEFAULT_COLOR);
+        assertThat(testProduct.getVersion()).isEqualTo(1L);
+    }
+
+
+    @Test
+    void putProductWithoutVersion() throws Exception {
+        // Initialize the database
+        productRepository.save(product).block();
+
+        // Update the product without a version, from a client which doesn't know about them
+        Product updatedProduct = productRepository.findById(product.getId()).block();
+        updatedProduct.color(UPDATED_COLOR);
+        updatedProduct.setVersion(null);
+
+        webTestClient
+            .put()
+            .uri(ENTITY_API_URL_ID, updatedProduct.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(TestUtil.convertObjectToJsonBytes(updatedProduct))
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .doesNotExist(HttpHeaders.ETAG);
+
+        // Validate the Product in the database
+        Product testProduct = productRepository.findById(product.getId()).block();
+        assertThat(testProduct.getColor()).isEqualTo(UPDATED_COLOR);
+        assertThat(testProduct.getVersion()).isEqualTo(1L);
+    }
+
     @Test
     void partialUpdateProductWithPatch() throws Exception {
         // Initialize the database
@@ -543,6 +1015,33 @@ class ProductResourceIT {
         assertThat(testProduct.getContainerType()).isEqualTo(UPDATED_CONTAINER_TYPE);
     }
 
+
+    @Test
+    void partialUpdateProductWithStaleIfMatch() throws Exception {
+        // Initialize the database
+        productRepository.save(product).block();
+
+        // Update the product with the tag of a version it doesn't have
+        Product partialUpdatedProduct = new Product();
+        partialUpdatedProduct.setId(product.getId());
+        partialUpdatedProduct.color(UPDATED_COLOR);
+
+        webTestClient
+            .patch()
+            .uri(ENTITY_API_URL_ID, partialUpdatedProduct.getId())
+            .contentType(MediaType.valueOf("application/merge-patch+json"))
+            .header(HttpHeaders.IF_MATCH, "\"1\"")
+            .bodyValue(TestUtil.convertObjectToJsonBytes(partialUpdatedProduct))
+            .exchange()
+            .expectStatus()
+            .isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+        // Validate the Product in the database
+        Product testProduct = productRepository.findById(product.getId()).block();
+        assertThat(testProduct.getColor()).isEqualTo(DEFAULT_COLOR);
+        assertThat(testProduct.getVersion()).isZero();
+    }
+
     @Test
     void patchNonExistingProduct() throws Exception {
         int databaseSizeBeforeUpdate = productRepository.findAll().collectList().block().size();
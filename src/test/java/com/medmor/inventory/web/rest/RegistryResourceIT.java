@@ -8,8 +8,11 @@ import com.medmor.inventory.IntegrationTest;
 import com.medmor.inventory.domain.Product;
 import com.medmor.inventory.domain.Registry;
 import com.medmor.inventory.domain.Section;
+import com.medmor.inventory.repository.ProductRepository;
 import com.medmor.inventory.repository.RegistryRepository;
+import com.medmor.inventory.repository.StockLevelRepository;
 import com.medmor.inventory.service.EntityManager;
+import com.medmor.inventory.service.KeysetCursor;
 import java.time.Duration;
 import java.util.List;
 import java.util.Random;
@@ -22,6 +25,10 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.reactive.server.WebTestClient;
@@ -46,6 +53,12 @@ class RegistryResourceIT {
     @Autowired
     private RegistryRepository registryRepository;
 
+    @Autowired
+    private StockLevelRepository stockLevelRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
     @Autowired
     private EntityManager em;
 
@@ -155,6 +168,75 @@ class RegistryResourceIT {
         assertThat(registryList).hasSize(databaseSizeBeforeCreate);
     }
 
+    @Test
+    void createRegistriesInBatch() throws Exception {
+        int databaseSizeBeforeCreate = registryRepository.findAll().collectList().block().size();
+        Registry other = new Registry().amount(UPDATED_AMOUNT).product(registry.getProduct()).section(registry.getSection());
+
+        // Create the Registries from a JSON array
+        List<Long> ids = webTestClient
+            .post()
+            .uri(ENTITY_API_URL + "/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(TestUtil.convertObjectToJsonBytes(List.of(registry, other)))
+            .exchange()
+            .expectStatus()
+            .isCreated()
+            .expectBodyList(Long.class)
+            .returnResult()
+            .getResponseBody();
+
+        // Validate the Registries and the stock in the database
+        assertThat(ids).hasSize(2);
+        assertThat(registryRepository.findById(ids.get(0)).block().getAmount()).isEqualTo(DEFAULT_AMOUNT);
+        assertThat(registryRepository.findById(ids.get(1)).block().getAmount()).isEqualTo(UPDATED_AMOUNT);
+        assertThat(registryRepository.findAll().collectList().block()).hasSize(databaseSizeBeforeCreate + 2);
+        assertThat(
+            stockLevelRepository.findByProductAndSection(registry.getProduct().getId(), registry.getSection().getId()).block().getTotalAmount()
+        )
+            .isEqualTo(DEFAULT_AMOUNT + UPDATED_AMOUNT);
+    }
+
+    @Test
+    void createRegistriesInBatchFromStream() throws Exception {
+        int databaseSizeBeforeCreate = registryRepository.findAll().collectList().block().size();
+        String stream = new String(TestUtil.convertObjectToJsonBytes(registry)) + "\n" + new String(TestUtil.convertObjectToJsonBytes(registry));
+
+        // Create the Registries from newline delimited JSON
+        webTestClient
+            .post()
+            .uri(ENTITY_API_URL + "/batch")
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .bodyValue(stream)
+            .exchange()
+            .expectStatus()
+            .isCreated()
+            .expectBody()
+            .jsonPath("$.length()")
+            .isEqualTo(2);
+
+        assertThat(registryRepository.findAll().collectList().block()).hasSize(databaseSizeBeforeCreate + 2);
+    }
+
+    @Test
+    void createRegistriesInBatchWithExistingId() throws Exception {
+        int databaseSizeBeforeCreate = registryRepository.findAll().collectList().block().size();
+        Registry existing = new Registry().amount(DEFAULT_AMOUNT).product(registry.getProduct()).section(registry.getSection());
+        existing.setId(1L);
+
+        // A batch with an existing ID cannot be created, so nothing of it must be written
+        webTestClient
+            .post()
+            .uri(ENTITY_API_URL + "/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(TestUtil.convertObjectToJsonBytes(List.of(registry, existing)))
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+
+        assertThat(registryRepository.findAll().collectList().block()).hasSize(databaseSizeBeforeCreate);
+    }
+
     @Test
     void checkAmountIsRequired() throws Exception {
         int databaseSizeBeforeTest = registryRepository.findAll().collectList().block().size();
@@ -198,6 +280,224 @@ class RegistryResourceIT {
             .value(hasItem(DEFAULT_AMOUNT));
     }
 
+    @Test
+    void getAllRegistriesSharesRelationships() {
+        // Initialize the database
+        registryRepository.save(registry).block();
+        registryRepository
+            .save(new Registry().amount(UPDATED_AMOUNT).product(registry.getProduct()).section(registry.getSection()))
+            .block();
+
+        // The registries of a page reference the same product and section instances
+        List<Registry> registries = registryRepository.findAllBy(PageRequest.of(0, 10)).collectList().block();
+        assertThat(registries).hasSize(2);
+        assertThat(registries.get(0).getProduct()).isSameAs(registries.get(1).getProduct());
+        assertThat(registries.get(0).getSection()).isSameAs(registries.get(1).getSection());
+        assertThat(registries.get(0).getSection().getId()).isEqualTo(registry.getSection().getId());
+    }
+
+    @Test
+    void getAllRegistriesWithoutExpand() {
+        // Initialize the database
+        registryRepository.save(registry).block();
+
+        // Get the registries with the ids of their product and section only
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?sort=id,desc&expand=none")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.[*].id")
+            .value(hasItem(registry.getId().intValue()))
+            .jsonPath("$.[*].productId")
+            .value(hasItem(registry.getProduct().getId().intValue()))
+            .jsonPath("$.[0].product")
+            .doesNotExist();
+    }
+
+    @Test
+    void getAllRegistriesWithInvalidExpand() {
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?expand=some")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+    }
+
+    @Test
+    void streamAllRegistries() {
+        // Initialize the database
+        registryRepository.save(registry).block();
+
+        // Stream all the registries, with their product and section, as newline delimited JSON
+        List<Registry> registries = webTestClient
+            .get()
+            .uri(ENTITY_API_URL)
+            .accept(MediaType.APPLICATION_NDJSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .returnResult(Registry.class)
+            .getResponseBody()
+            .collectList()
+            .block(Duration.ofSeconds(10));
+
+        assertThat(registries).hasSize(1);
+        assertThat(registries.get(0).getAmount()).isEqualTo(DEFAULT_AMOUNT);
+        assertThat(registries.get(0).getProduct().getId()).isEqualTo(registry.getProduct().getId());
+    }
+
+    @Test
+    void getAllRegistriesWithKeysetCursor() {
+        // Initialize the database
+        registryRepository.save(registry).block();
+        Registry next = registryRepository
+            .save(new Registry().amount(UPDATED_AMOUNT).product(registry.getProduct()).section(registry.getSection()))
+            .block();
+
+        // Seek past the first registry, in id order
+        String after = KeysetCursor.after(registry, registry.getId(), Sort.unsorted()).encode();
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?after=" + after + "&size=1")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.[*].id")
+            .isEqualTo(next.getId().intValue())
+            .jsonPath("$.[*].product.id")
+            .isEqualTo(registry.getProduct().getId().intValue());
+    }
+
+    @Test
+    void getAllRegistriesWithKeysetSortOnRelationship() {
+        // Initialize the database
+        registryRepository.save(registry).block();
+
+        // The product isn't a column, and is null when it isn't expanded
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?after=&sort=product,asc&expand=none")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isBadRequest()
+            .expectBody()
+            .jsonPath("$.message")
+            .isEqualTo("error.sortinvalid");
+    }
+
+    @Test
+    void getAllRegistriesByCriteria() {
+        // Initialize the database
+        registryRepository.save(registry).block();
+        Registry other = registryRepository.save(createUpdatedEntity(em)).block();
+
+        // Filter on the registry and on its joined section
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?section.productType.in=Equipment,Tools&amount.greaterThanOrEqual=2&amount.lessThan=3")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .valueEquals("X-Total-Count", "1")
+            .expectBody()
+            .jsonPath("$.[*].id")
+            .isEqualTo(other.getId().intValue());
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?section.productType.in=Locksmith")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .valueEquals("X-Total-Count", "0")
+            .expectBody()
+            .jsonPath("$")
+            .isEmpty();
+    }
+
+    @Test
+    void getAllRegistriesByCriteriaWithoutExpand() {
+        // Initialize the database
+        registryRepository.save(registry).block();
+        registryRepository.save(createUpdatedEntity(em)).block();
+
+        // The related tables are joined to filter on them, but not returned
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?product.lote.equals={lote}&expand=none", registry.getProduct().getLote())
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.[*].id")
+            .isEqualTo(registry.getId().intValue())
+            .jsonPath("$.[0].productId")
+            .isEqualTo(registry.getProduct().getId().intValue())
+            .jsonPath("$.[0].product")
+            .doesNotExist();
+    }
+
+    @Test
+    void getAllRegistriesByCriteriaWithKeysetCursor() {
+        // Initialize the database
+        registryRepository.save(registry).block();
+        registryRepository
+            .save(new Registry().amount(UPDATED_AMOUNT).product(registry.getProduct()).section(registry.getSection()))
+            .block();
+        Registry last = registryRepository
+            .save(new Registry().amount(DEFAULT_AMOUNT).product(registry.getProduct()).section(registry.getSection()))
+            .block();
+
+        // Seek past the first registry, skipping the ones which don't match
+        String after = KeysetCursor.after(registry, registry.getId(), Sort.unsorted()).encode();
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?after=" + after + "&amount.equals=" + DEFAULT_AMOUNT)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.[*].id")
+            .isEqualTo(last.getId().intValue());
+    }
+
+    @Test
+    void streamAllRegistriesByCriteria() {
+        // Initialize the database
+        registryRepository.save(registry).block();
+        Registry other = registryRepository.save(createUpdatedEntity(em)).block();
+
+        List<Registry> registries = webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?section.productType.equals=" + other.getSection().getProductType())
+            .accept(MediaType.APPLICATION_NDJSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .returnResult(Registry.class)
+            .getResponseBody()
+            .collectList()
+            .block(Duration.ofSeconds(10));
+
+        assertThat(registries).hasSize(1);
+        assertThat(registries.get(0).getId()).isEqualTo(other.getId());
+    }
+
     @Test
     void getRegistry() {
         // Initialize the database
@@ -232,6 +532,175 @@ class RegistryResourceIT {
             .isNotFound();
     }
 
+
+    @Test
+    void getRegistryNotModified() {
+        // Initialize the database
+        registryRepository.save(registry).block();
+
+        // Get the registry and its tag
+        String eTag = webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, registry.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .returnResult()
+            .getResponseHeaders()
+            .getETag();
+        assertThat(eTag).startsWith("\"0.");
+
+        // Get the registry again with its tag
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, registry.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .ifNoneMatch(eTag)
+            .exchange()
+            .expectStatus()
+            .isNotModified()
+            .expectBody()
+            .isEmpty();
+    }
+
+    @Test
+    void getRegistryModifiedByItsProduct() {
+        // Initialize the database
+        registryRepository.save(registry).block();
+
+        String eTag = webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, registry.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .returnResult()
+            .getResponseHeaders()
+            .getETag();
+
+        // Update the product only, which is part of the tag of the registry
+        productRepository.save(registry.getProduct().color("BBBBBBBBBB")).block();
+
+        String updatedETag = webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, registry.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .ifNoneMatch(eTag)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.product.color")
+            .isEqualTo("BBBBBBBBBB")
+            .returnResult()
+            .getResponseHeaders()
+            .getETag();
+        assertThat(updatedETag).isNotEqualTo(eTag);
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, registry.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .ifNoneMatch(updatedETag)
+            .exchange()
+            .expectStatus()
+            .isNotModified();
+    }
+
+    @Test
+    void getAllRegistriesModifiedByTheirProduct() {
+        // Initialize the database
+        registryRepository.save(registry).block();
+
+        String expandedETag = webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?sort=id,desc")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .returnResult()
+            .getResponseHeaders()
+            .getETag();
+        String eTag = webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?sort=id,desc&expand=none")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .returnResult()
+            .getResponseHeaders()
+            .getETag();
+
+        // Update the product only, which is embedded in the expanded page only
+        productRepository.save(registry.getProduct().color("BBBBBBBBBB")).block();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?sort=id,desc")
+            .accept(MediaType.APPLICATION_JSON)
+            .ifNoneMatch(expandedETag)
+            .exchange()
+            .expectStatus()
+            .isOk();
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?sort=id,desc&expand=none")
+            .accept(MediaType.APPLICATION_JSON)
+            .ifNoneMatch(eTag)
+            .exchange()
+            .expectStatus()
+            .isNotModified();
+    }
+
+    @Test
+    void getAllRegistriesNotModified() {
+        // Initialize the database
+        registryRepository.save(registry).block();
+
+        // Get the page of registry and its tag
+        String eTag = webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?sort=id,desc")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .returnResult()
+            .getResponseHeaders()
+            .getETag();
+        assertThat(eTag).isNotNull();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?sort=id,desc")
+            .accept(MediaType.APPLICATION_JSON)
+            .ifNoneMatch(eTag)
+            .exchange()
+            .expectStatus()
+            .isNotModified();
+
+        // Update the registry, which changes the tag of the page
+        registryRepository.save(registry.amount(UPDATED_AMOUNT)).block();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?sort=id,desc")
+            .accept(MediaType.APPLICATION_JSON)
+            .ifNoneMatch(eTag)
+            .exchange()
+            .expectStatus()
+            .isOk();
+    }
+
     @Test
     void putNewRegistry() throws Exception {
         // Initialize the database
@@ -319,6 +788,87 @@ class RegistryResourceIT {
         assertThat(registryList).hasSize(databaseSizeBeforeUpdate);
     }
 
+
+    @Test
+    void putRegistryIncrementsVersion() throws Exception {
+        // Initialize the database
+        registryRepository.save(registry).block();
+
+        // Update the registry with the tag of its version
+        Registry updatedRegistry = registryRepository.findById(registry.getId()).block();
+        updatedRegistry.amount(UPDATED_AMOUNT);
+
+        webTestClient
+            .put()
+            .uri(ENTITY_API_URL_ID, updatedRegistry.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.IF_MATCH, "\"0\"")
+            .bodyValue(TestUtil.convertObjectToJsonBytes(updatedRegistry))
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .valueEquals(HttpHeaders.ETAG, "\"1\"");
+
+        assertThat(registryRepository.findVersionsById(registry.getId()).block().getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void putRegistryWithStaleIfMatch() throws Exception {
+        // Initialize the database
+        registryRepository.save(registry).block();
+
+        // Update the registry with the tag of a version it doesn't have
+        Registry updatedRegistry = registryRepository.findById(registry.getId()).block();
+        updatedRegistry.amount(UPDATED_AMOUNT);
+
+        webTestClient
+            .put()
+            .uri(ENTITY_API_URL_ID, updatedRegistry.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.IF_MATCH, "\"1\"")
+            .bodyValue(TestUtil.convertObjectToJsonBytes(updatedRegistry))
+            .exchange()
+            .expectStatus()
+            .isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+        // Validate the Registry in the database
+        Registry testRegistry = registryRepository.findById(registry.getId()).block();
+        assertThat(testRegistry.getAmount()).isEqualTo(DEFAULT_AMOUNT);
+        assertThat(testRegistry.getVersion()).isZero();
+    }
+
+    @Test
+    void putRegistryWithStaleVersion() throws Exception {
+        // Initialize the database
+        registryRepository.save(registry).block();
+
+        // Read the registry, then let another update it
+        Registry updatedRegistry = registryRepository.findById(registry.getId()).block();
+        registryRepository.save(registry).block();
+
+        // Update the registry from its first version
+        updatedRegistry.amount(UPDATED_AMOUNT);
+
+        webTestClient
+            .put()
+            .uri(ENTITY_API_URL_ID, updatedRegistry.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(TestUtil.convertObjectToJsonBytes(updatedRegistry))
+            .exchange()
+            .expectStatus()
+            .isEqualTo(HttpStatus.CONFLICT);
+
+        // Validate the Registry in the database
+        Registry testRegistry = registryRepository.findById(registry.getId()).block();
+        assertThat(testRegistry.getAmount()).isEqualTo(DEFAULT_AMOUNT);
+        assertThat(testRegistry.getVersion()).isEqualTo(1L);
+        assertThat(
+            stockLevelRepository.findByProductAndSection(registry.getProduct().getId(), registry.getSection().getId()).block().getTotalAmount()
+        )
+            .isEqualTo(DEFAULT_AMOUNT.longValue());
+    }
+
     @Test
     void partialUpdateRegistryWithPatch() throws Exception {
         // Initialize the database
@@ -375,6 +925,108 @@ class RegistryResourceIT {
         assertThat(testRegistry.getAmount()).isEqualTo(UPDATED_AMOUNT);
     }
 
+
+    @Test
+    void partialUpdateRegistryWithStaleIfMatch() throws Exception {
+        // Initialize the database
+        registryRepository.save(registry).block();
+
+        // Update the registry with the tag of a version it doesn't have
+        Registry partialUpdatedRegistry = new Registry();
+        partialUpdatedRegistry.setId(registry.getId());
+        partialUpdatedRegistry.amount(UPDATED_AMOUNT);
+
+        webTestClient
+            .patch()
+            .uri(ENTITY_API_URL_ID, partialUpdatedRegistry.getId())
+            .contentType(MediaType.valueOf("application/merge-patch+json"))
+            .header(HttpHeaders.IF_MATCH, "\"1\"")
+            .bodyValue(TestUtil.convertObjectToJsonBytes(partialUpdatedRegistry))
+            .exchange()
+            .expectStatus()
+            .isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+        // Validate the Registry in the database
+        Registry testRegistry = registryRepository.findById(registry.getId()).block();
+        assertThat(testRegistry.getAmount()).isEqualTo(DEFAULT_AMOUNT);
+        assertThat(testRegistry.getVersion()).isZero();
+    }
+
+    @Test
+    void partialUpdateRegistryMovesStock() throws Exception {
+        // Initialize the database
+        registryRepository.save(registry).block();
+
+        // Update the amount of the registry only
+        Registry partialUpdatedRegistry = new Registry();
+        partialUpdatedRegistry.setId(registry.getId());
+        partialUpdatedRegistry.amount(UPDATED_AMOUNT);
+
+        webTestClient
+            .patch()
+            .uri(ENTITY_API_URL_ID, partialUpdatedRegistry.getId())
+            .contentType(MediaType.valueOf("application/merge-patch+json"))
+            .header(HttpHeaders.IF_MATCH, "\"0\"")
+            .bodyValue(TestUtil.convertObjectToJsonBytes(partialUpdatedRegistry))
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .valueMatches(HttpHeaders.ETAG, "\"1\\..*\"")
+            .expectBody()
+            .jsonPath("$.amount")
+            .value(is(UPDATED_AMOUNT))
+            .jsonPath("$.productId")
+            .value(is(registry.getProduct().getId().intValue()));
+
+        // Validate the Registry and the stock in the database
+        Registry testRegistry = registryRepository.findById(registry.getId()).block();
+        assertThat(testRegistry.getAmount()).isEqualTo(UPDATED_AMOUNT);
+        assertThat(testRegistry.getSectionId()).isEqualTo(registry.getSection().getId());
+        assertThat(
+            stockLevelRepository.findByProductAndSection(registry.getProduct().getId(), registry.getSection().getId()).block().getTotalAmount()
+        )
+            .isEqualTo(UPDATED_AMOUNT.longValue());
+    }
+
+    @Test
+    void partialUpdateRegistryReturnsRelationships() throws Exception {
+        // Initialize the database
+        registryRepository.save(registry).block();
+
+        // Update the amount of the registry only
+        Registry partialUpdatedRegistry = new Registry();
+        partialUpdatedRegistry.setId(registry.getId());
+        partialUpdatedRegistry.amount(UPDATED_AMOUNT);
+
+        String eTag = webTestClient
+            .patch()
+            .uri(ENTITY_API_URL_ID, partialUpdatedRegistry.getId())
+            .contentType(MediaType.valueOf("application/merge-patch+json"))
+            .bodyValue(TestUtil.convertObjectToJsonBytes(partialUpdatedRegistry))
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.product.id")
+            .value(is(registry.getProduct().getId().intValue()))
+            .jsonPath("$.section.id")
+            .value(is(registry.getSection().getId().intValue()))
+            .returnResult()
+            .getResponseHeaders()
+            .getETag();
+
+        // The tag is the one of the registry read back
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, registry.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .ifNoneMatch(eTag)
+            .exchange()
+            .expectStatus()
+            .isNotModified();
+    }
+
     @Test
     void patchNonExistingRegistry() throws Exception {
         int databaseSizeBeforeUpdate = registryRepository.findAll().collectList().block().size();
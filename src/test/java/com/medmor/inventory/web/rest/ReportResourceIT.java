@@ -0,0 +1,132 @@
+package com.medmor.inventory.web.rest;
+
+import com.medmor.inventory.IntegrationTest;
+import com.medmor.inventory.domain.Product;
+import com.medmor.inventory.domain.Registry;
+import com.medmor.inventory.domain.enumeration.ProductType;
+import com.medmor.inventory.repository.RegistryRepository;
+import com.medmor.inventory.service.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+/**
+ * Integration tests for the {@link ReportResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureWebTestClient
+@WithMockUser
+class ReportResourceIT {
+
+    private static final String API_URL = "/api/reports";
+
+    @Autowired
+    private RegistryRepository registryRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private Registry registry;
+
+    @AfterEach
+    public void cleanup() {
+        RegistryResourceIT.deleteEntities(em);
+    }
+
+    @BeforeEach
+    public void initTest() {
+        RegistryResourceIT.deleteEntities(em);
+        registry = RegistryResourceIT.createEntity(em);
+        registryRepository.save(registry.amount(5)).block();
+        Product fragileProduct = em.insert(ProductResourceIT.createUpdatedEntity(em).price(3F).fragile(true)).block();
+        registryRepository.save(new Registry().amount(2).product(fragileProduct).section(registry.getSection())).block();
+    }
+
+    @Test
+    void getStockBySection() {
+        getReport("/stock-by-section")
+            .jsonPath("$.length()")
+            .isEqualTo(1)
+            .jsonPath("$[0].sectionId")
+            .isEqualTo(registry.getSectionId().intValue())
+            .jsonPath("$[0].totalAmount")
+            .isEqualTo(7);
+    }
+
+    @Test
+    void getStockByProductType() {
+        getReport("/stock-by-product-type")
+            .jsonPath("$.length()")
+            .isEqualTo(1)
+            .jsonPath("$[0].productType")
+            .isEqualTo(ProductType.Electric_Materials.toString())
+            .jsonPath("$[0].totalAmount")
+            .isEqualTo(7);
+    }
+
+    @Test
+    void getValueBySection() {
+        getReport("/value-by-section")
+            .jsonPath("$[0].sectionId")
+            .isEqualTo(registry.getSectionId().intValue())
+            .jsonPath("$[0].totalValue")
+            .isEqualTo(11.0);
+    }
+
+    @Test
+    void getFragileLoad() {
+        getReport("/fragile-load")
+            .jsonPath("$[0].sectionId")
+            .isEqualTo(registry.getSectionId().intValue())
+            .jsonPath("$[0].fragileAmount")
+            .isEqualTo(2)
+            .jsonPath("$[0].totalAmount")
+            .isEqualTo(7);
+    }
+
+    @Test
+    void reportsFollowRegistryWrites() {
+        getReport("/stock-by-section").jsonPath("$[0].totalAmount").isEqualTo(7);
+
+        registryRepository.save(registry.amount(1)).block();
+
+        getReport("/stock-by-section").jsonPath("$[0].totalAmount").isEqualTo(3);
+    }
+
+    @Test
+    void reportsFollowProductWrites() throws Exception {
+        getReport("/value-by-section").jsonPath("$[0].totalValue").isEqualTo(11.0);
+
+        webTestClient
+            .patch()
+            .uri("/api/products/{id}", registry.getProductId())
+            .contentType(MediaType.valueOf("application/merge-patch+json"))
+            .bodyValue(TestUtil.convertObjectToJsonBytes(new Product().id(registry.getProductId()).price(2F)))
+            .exchange()
+            .expectStatus()
+            .isOk();
+
+        getReport("/value-by-section").jsonPath("$[0].totalValue").isEqualTo(16.0);
+    }
+
+    private WebTestClient.BodyContentSpec getReport(String report) {
+        return webTestClient
+            .get()
+            .uri(API_URL + report)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .contentType(MediaType.APPLICATION_JSON)
+            .expectBody();
+    }
+}
@@ -5,6 +5,7 @@ import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.is;
 
 import com.medmor.inventory.IntegrationTest;
+import com.medmor.inventory.domain.Product;
 import com.medmor.inventory.domain.Section;
 import com.medmor.inventory.domain.enumeration.ProductType;
 import com.medmor.inventory.repository.SectionRepository;
@@ -21,6 +22,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.reactive.server.WebTestClient;
@@ -206,6 +209,37 @@ class SectionResourceIT {
             .value(hasItem(DEFAULT_PRODUCT_TYPE.toString()));
     }
 
+    @Test
+    void getAllSectionsByCriteria() {
+        // Initialize the database
+        sectionRepository.save(section).block();
+        Section other = sectionRepository.save(createUpdatedEntity(em)).block();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?area.lessThanOrEqual=" + DEFAULT_AREA + "&productType.equals=" + DEFAULT_PRODUCT_TYPE)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .valueEquals("X-Total-Count", "1")
+            .expectBody()
+            .jsonPath("$.[*].id")
+            .isEqualTo(section.getId().intValue());
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?id.in=" + section.getId() + "," + other.getId() + "&productType.notEquals=" + DEFAULT_PRODUCT_TYPE)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.[*].id")
+            .isEqualTo(other.getId().intValue());
+    }
+
     @Test
     void getSection() {
         // Initialize the database
@@ -230,6 +264,56 @@ class SectionResourceIT {
             .value(is(DEFAULT_PRODUCT_TYPE.toString()));
     }
 
+    @Test
+    void getSectionOccupancy() {
+        // Initialize the database
+        sectionRepository.save(section).block();
+
+        // Get the occupancy of the section
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID + "/occupancy", section.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.sectionId")
+            .value(is(section.getId().intValue()))
+            .jsonPath("$.area")
+            .value(is(DEFAULT_AREA.doubleValue()))
+            .jsonPath("$.usedArea")
+            .value(is(0.0));
+    }
+
+    @Test
+    void getBestSection() {
+        // Initialize the database with the largest section
+        sectionRepository.save(section.area(1000F)).block();
+        ProductResourceIT.deleteEntities(em);
+        Product product = em.insert(ProductResourceIT.createEntity(em)).block();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "/best?productId={productId}&amount=10", product.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.id")
+            .value(is(section.getId().intValue()));
+
+        // No section has room for this amount
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "/best?productId={productId}&amount=1000000000", product.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isNotFound();
+    }
+
     @Test
     void getNonExistingSection() {
         // Get the section
@@ -242,6 +326,80 @@ class SectionResourceIT {
             .isNotFound();
     }
 
+
+    @Test
+    void getSectionNotModified() {
+        // Initialize the database
+        sectionRepository.save(section).block();
+
+        // Get the section and its tag
+        String eTag = webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, section.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .returnResult()
+            .getResponseHeaders()
+            .getETag();
+        assertThat(eTag).isEqualTo("\"0\"");
+
+        // Get the section again with its tag
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, section.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .ifNoneMatch(eTag)
+            .exchange()
+            .expectStatus()
+            .isNotModified()
+            .expectBody()
+            .isEmpty();
+    }
+
+    @Test
+    void getAllSectionsNotModified() {
+        // Initialize the database
+        sectionRepository.save(section).block();
+
+        // Get the page of section and its tag
+        String eTag = webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?sort=id,desc")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .returnResult()
+            .getResponseHeaders()
+            .getETag();
+        assertThat(eTag).isNotNull();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?sort=id,desc")
+            .accept(MediaType.APPLICATION_JSON)
+            .ifNoneMatch(eTag)
+            .exchange()
+            .expectStatus()
+            .isNotModified();
+
+        // Update the section, which changes the tag of the page
+        sectionRepository.save(section.area(UPDATED_AREA)).block();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?sort=id,desc")
+            .accept(MediaType.APPLICATION_JSON)
+            .ifNoneMatch(eTag)
+            .exchange()
+            .expectStatus()
+            .isOk();
+    }
+
     @Test
     void putNewSection() throws Exception {
         // Initialize the database
@@ -330,6 +488,111 @@ class SectionResourceIT {
         assertThat(sectionList).hasSize(databaseSizeBeforeUpdate);
     }
 
+
+    @Test
+    void putSectionIncrementsVersion() throws Exception {
+        // Initialize the database
+        sectionRepository.save(section).block();
+
+        // Update the section with the tag of its version
+        Section updatedSection = sectionRepository.findById(section.getId()).block();
+        updatedSection.area(UPDATED_AREA);
+
+        webTestClient
+            .put()
+            .uri(ENTITY_API_URL_ID, updatedSection.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.IF_MATCH, "\"0\"")
+            .bodyValue(TestUtil.convertObjectToJsonBytes(updatedSection))
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .valueEquals(HttpHeaders.ETAG, "\"1\"");
+
+        assertThat(sectionRepository.findVersionById(section.getId()).block()).isEqualTo(1L);
+    }
+
+    @Test
+    void putSectionWithStaleIfMatch() throws Exception {
+        // Initialize the database
+        sectionRepository.save(section).block();
+
+        // Update the section with the tag of a version it doesn't have
+        Section updatedSection = sectionRepository.findById(section.getId()).block();
+        updatedSection.area(UPDATED_AREA);
+
+        webTestClient
+            .put()
+            .uri(ENTITY_API_URL_ID, updatedSection.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.IF_MATCH, "\"1\"")
+            .bodyValue(TestUtil.convertObjectToJsonBytes(updatedSection))
+            .exchange()
+            .expectStatus()
+            .isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+        // Validate the Section in the database
+        Section testSection = sectionRepository.findById(section.getId()).block();
+        assertThat(testSection.getArea()).isEqualTo(DEFAULT_AREA);
+        assertThat(testSection.getVersion()).isZero();
+    }
+
+    @Test
+    void putSectionWithStaleVersion() throws Exception {
+        // Initialize the database
+        sectionRepository.save(section).block();
+
+        // Read the section, then let another update it
+        Section updatedSection = sectionRepository.findById(section.getId()).block();
+        sectionRepository.save(section).block();
+
+        // Update the section from its first version
+        updatedSection.area(UPDATED_AREA);
+
+        webTestClient
+            .put()
+            .uri(ENTITY_API_URL_ID, updatedSection.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(TestUtil.convertObjectToJsonBytes(updatedSection))
+            .exchange()
+            .expectStatus()
+            .isEqualTo(HttpStatus.CONFLICT);
+
+        // Validate the Section in the database
+        Section testSection = sectionRepository.findById(section.getId()).block();
+        assertThat(testSection.getArea()).isEqualTo(DEFAULT_AREA);
+        assertThat(testSection.getVersion()).isEqualTo(1L);
+    }
+
+
+    @Test
+    void putSectionWithoutVersion() throws Exception {
+        // Initialize the database
+        sectionRepository.save(section).block();
+
+        // Update the section without a version, from a client which doesn't know about them
+        Section updatedSection = sectionRepository.findById(section.getId()).block();
+        updatedSection.area(UPDATED_AREA);
+        updatedSection.setVersion(null);
+
+        webTestClient
+            .put()
+            .uri(ENTITY_API_URL_ID, updatedSection.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(TestUtil.convertObjectToJsonBytes(updatedSection))
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .doesNotExist(HttpHeaders.ETAG);
+
+        // Validate the Section in the database
+        Section testSection = sectionRepository.findById(section.getId()).block();
+        assertThat(testSection.getArea()).isEqualTo(UPDATED_AREA);
+        assertThat(testSection.getVersion()).isEqualTo(1L);
+    }
+
     @Test
     void partialUpdateSectionWithPatch() throws Exception {
         // Initialize the database
@@ -390,6 +653,33 @@ class SectionResourceIT {
         assertThat(testSection.getProductType()).isEqualTo(UPDATED_PRODUCT_TYPE);
     }
 
+
+    @Test
+    void partialUpdateSectionWithStaleIfMatch() throws Exception {
+        // Initialize the database
+        sectionRepository.save(section).block();
+
+        // Update the section with the tag of a version it doesn't have
+        Section partialUpdatedSection = new Section();
+        partialUpdatedSection.setId(section.getId());
+        partialUpdatedSection.area(UPDATED_AREA);
+
+        webTestClient
+            .patch()
+            .uri(ENTITY_API_URL_ID, partialUpdatedSection.getId())
+            .contentType(MediaType.valueOf("application/merge-patch+json"))
+            .header(HttpHeaders.IF_MATCH, "\"1\"")
+            .bodyValue(TestUtil.convertObjectToJsonBytes(partialUpdatedSection))
+            .exchange()
+            .expectStatus()
+            .isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+        // Validate the Section in the database
+        Section testSection = sectionRepository.findById(section.getId()).block();
+        assertThat(testSection.getArea()).isEqualTo(DEFAULT_AREA);
+        assertThat(testSection.getVersion()).isZero();
+    }
+
     @Test
     void patchNonExistingSection() throws Exception {
         int databaseSizeBeforeUpdate = sectionRepository.findAll().collectList().block().size();
@@ -0,0 +1,130 @@
+package com.medmor.inventory.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import com.medmor.inventory.IntegrationTest;
+import com.medmor.inventory.domain.Registry;
+import com.medmor.inventory.domain.StockLevel;
+import com.medmor.inventory.repository.RegistryRepository;
+import com.medmor.inventory.repository.StockLevelRepository;
+import com.medmor.inventory.service.EntityManager;
+import com.medmor.inventory.service.SectionOccupancyService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+/**
+ * Integration tests for the {@link StockResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureWebTestClient
+@WithMockUser
+class StockResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/stock";
+    private static final String ENTITY_API_URL_KEY = ENTITY_API_URL + "/{productId}/{sectionId}";
+
+    @Autowired
+    private RegistryRepository registryRepository;
+
+    @Autowired
+    private StockLevelRepository stockLevelRepository;
+
+    @Autowired
+    private SectionOccupancyService sectionOccupancyService;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private Registry registry;
+
+    @AfterEach
+    public void cleanup() {
+        RegistryResourceIT.deleteEntities(em);
+    }
+
+    @BeforeEach
+    public void initTest() {
+        RegistryResourceIT.deleteEntities(em);
+        registry = RegistryResourceIT.createEntity(em);
+    }
+
+    @Test
+    void stockFollowsRegistryWrites() {
+        Long productId = registry.getProductId();
+        Long sectionId = registry.getSectionId();
+
+        registryRepository.save(registry.amount(5)).block();
+        registryRepository.save(new Registry().amount(3).product(registry.getProduct()).section(registry.getSection())).block();
+        assertThat(stockLevelRepository.findByProductAndSection(productId, sectionId).block().getTotalAmount()).isEqualTo(8L);
+
+        registryRepository.save(registry.amount(1)).block();
+        assertThat(stockLevelRepository.findByProductAndSection(productId, sectionId).block().getTotalAmount()).isEqualTo(4L);
+
+        registryRepository.deleteById(registry.getId()).block();
+        assertThat(stockLevelRepository.findByProductAndSection(productId, sectionId).block().getTotalAmount()).isEqualTo(3L);
+    }
+
+    @Test
+    void stockWritesUpdateSectionOccupancy() {
+        double footprint = SectionOccupancyService.footprint(
+            registry.getProduct().getProductSize(),
+            registry.getProduct().getContainerType()
+        );
+
+        registryRepository.save(registry.amount(5)).block();
+        assertThat(sectionOccupancyService.occupancy(registry.getSectionId()).block().getUsedArea()).isCloseTo(5 * footprint, within(1e-6));
+
+        registryRepository.deleteById(registry.getId()).block();
+        assertThat(sectionOccupancyService.occupancy(registry.getSectionId()).block().getUsedArea()).isCloseTo(0, within(1e-6));
+    }
+
+    @Test
+    void getStockLevel() {
+        registryRepository.save(registry.amount(7)).block();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_KEY, registry.getProductId(), registry.getSectionId())
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.totalAmount")
+            .isEqualTo(7);
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?sectionId=" + registry.getSectionId())
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBodyList(StockLevel.class)
+            .hasSize(1);
+    }
+
+    @Test
+    void getStockLevelWithoutRegistries() {
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_KEY, registry.getProductId(), registry.getSectionId())
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.totalAmount")
+            .isEqualTo(0);
+    }
+}
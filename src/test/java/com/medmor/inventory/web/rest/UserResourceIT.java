@@ -287,6 +287,51 @@ class UserResourceIT {
         assertThat(foundUser.getAuthorities()).containsExactly(AuthoritiesConstants.USER);
     }
 
+    @Test
+    void getAllUsersPaged() {
+        // Initialize the database
+        userRepository.save(user).block();
+        userRepository.saveUserAuthority(user.getId(), AuthoritiesConstants.USER).block();
+        User other = createEntity(null);
+        other.setLogin(UPDATED_LOGIN);
+        userRepository.save(other).block();
+        userRepository.saveUserAuthority(other.getId(), AuthoritiesConstants.ADMIN).block();
+        userRepository.saveUserAuthority(other.getId(), AuthoritiesConstants.USER).block();
+
+        // Each page is read from the database, with the authorities of its users only
+        List<AdminUserDTO> firstPage = webTestClient
+            .get()
+            .uri("/api/admin/users?sort=login,asc&page=0&size=1")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .valueEquals("X-Total-Count", "2")
+            .returnResult(AdminUserDTO.class)
+            .getResponseBody()
+            .collectList()
+            .block();
+        List<AdminUserDTO> secondPage = webTestClient
+            .get()
+            .uri("/api/admin/users?sort=login,asc&page=1&size=1")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .returnResult(AdminUserDTO.class)
+            .getResponseBody()
+            .collectList()
+            .block();
+
+        assertThat(firstPage).hasSize(1);
+        assertThat(firstPage.get(0).getLogin()).isEqualTo(UPDATED_LOGIN);
+        assertThat(firstPage.get(0).getAuthorities()).containsExactlyInAnyOrder(AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER);
+        assertThat(secondPage).hasSize(1);
+        assertThat(secondPage.get(0).getLogin()).isEqualTo(DEFAULT_LOGIN);
+        assertThat(secondPage.get(0).getAuthorities()).containsExactly(AuthoritiesConstants.USER);
+    }
+
     @Test
     void getUser() {
         // Initialize the database